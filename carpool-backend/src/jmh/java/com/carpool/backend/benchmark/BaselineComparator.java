@@ -0,0 +1,105 @@
+package com.carpool.backend.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and writes a Markdown
+ * report. Exits with status 1 when any benchmark got slower than the allowed
+ * percentage, beyond the error margins of both runs, so the build can gate on it.
+ * <p>
+ * Usage: {@code BaselineComparator <results.json> <baseline.json> <max-regression-%> <report.md>}.
+ * Without a baseline file the report lists the current scores only; promote a
+ * run to baseline by copying its result file over the baseline.
+ */
+public final class BaselineComparator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: BaselineComparator <results.json> <baseline.json> <max-regression-%> <report.md>");
+            System.exit(2);
+        }
+        Map<String, Score> current = read(Path.of(args[0]));
+        Path baselinePath = Path.of(args[1]);
+        Map<String, Score> baseline = Files.exists(baselinePath) ? read(baselinePath) : Map.of();
+        double maxRegression = Double.parseDouble(args[2]);
+
+        List<String> regressions = new ArrayList<>();
+        StringBuilder report = new StringBuilder("# Benchmark report\n\n");
+        if (baseline.isEmpty()) {
+            report.append("No baseline at `").append(baselinePath).append("`; current scores only.\n\n");
+        }
+        report.append("| Benchmark | Unit | Baseline | Current | Change |\n|---|---|---:|---:|---:|\n");
+
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            String change = "new";
+            if (before != null) {
+                // Positive means worse, whichever direction the mode counts as better
+                double worse = (now.value() - before.value()) / before.value() * 100 * (now.higherIsBetter() ? -1 : 1);
+                boolean beyondNoise = Math.abs(now.value() - before.value()) > now.error() + before.error();
+                change = String.format("%+.1f%%", worse);
+                if (worse > maxRegression && beyondNoise) {
+                    change += " REGRESSION";
+                    regressions.add(entry.getKey() + " " + change);
+                }
+            }
+            report.append(String.format("| %s | %s | %s | %.3f +/- %.3f | %s |%n", entry.getKey(), now.unit(),
+                    before != null ? String.format("%.3f +/- %.3f", before.value(), before.error()) : "-",
+                    now.value(), now.error(), change));
+        }
+
+        Path reportPath = Path.of(args[3]);
+        Files.writeString(reportPath, report);
+        System.out.print(report);
+        System.out.println("Report written to " + reportPath);
+        if (!regressions.isEmpty()) {
+            System.err.println("Benchmarks slower than baseline by more than " + maxRegression + "%:");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark method plus its @Param values, e.g. "ResponseMappingBenchmark.getDriverRides[listSize=20]"
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : MAPPER.readTree(path.toFile())) {
+            String benchmark = run.get("benchmark").asText();
+            String name = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+
+            Map<String, String> params = new LinkedHashMap<>();
+            JsonNode paramsNode = run.get("params");
+            if (paramsNode != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = paramsNode.fields();
+                fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+            }
+            if (!params.isEmpty()) {
+                name += params.toString().replace('{', '[').replace('}', ']').replace(", ", ",");
+            }
+
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            scores.put(name, new Score(metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.get("scoreUnit").asText(), "thrpt".equals(run.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private record Score(double value, double error, String unit, boolean higherIsBetter) {}
+}
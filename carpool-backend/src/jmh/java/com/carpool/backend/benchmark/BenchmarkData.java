@@ -0,0 +1,111 @@
+package com.carpool.backend.benchmark;
+
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.User;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Deterministic datasets for the benchmarks. Everything is derived from a fixed
+ * seed and a fixed date, so two runs on different days or machines measure the
+ * same inputs and their results can be compared against the baseline.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 20240601L;
+    public static final LocalDate DATE = LocalDate.of(2030, 1, 7);
+
+    public static final List<String> CITIES = List.of(
+            "Pune", "Mumbai", "Nashik", "Lonavala", "Satara", "Kolhapur", "Aurangabad", "Nagpur",
+            "Thane", "Navi Mumbai", "Solapur", "Ahmednagar", "Goa", "Bengaluru", "Hyderabad", "Surat");
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A repository whose {@code method} answers with {@code answer}, for driving a
+     * service through its public API without a database. Far cheaper per call than a
+     * mock, so it does not show up in the timings. Any other method throws.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, String method, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, invoked, args) -> {
+            if (invoked.getName().equals(method)) {
+                return answer.apply(args);
+            }
+            return switch (invoked.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(invoked.getName());
+            };
+        });
+    }
+
+    public static List<User> users(int count, long firstId) {
+        Random random = new Random(SEED + firstId);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            User user = new User("user" + id + "@example.com", "password-hash", "First" + id, "Last" + id,
+                    String.valueOf(9_000_000_000L + id));
+            user.setId(id);
+            user.setIsDriver(random.nextInt(3) == 0);
+            user.setRating(BigDecimal.valueOf(300 + random.nextInt(201), 2));
+            user.setTotalRides(random.nextInt(500));
+            user.setCreatedAt(DATE.minusDays(random.nextInt(365)).atStartOfDay());
+            users.add(user);
+        }
+        return users;
+    }
+
+    /** Rides spread over a week from {@link #DATE}, on routes between {@link #CITIES}. */
+    public static List<Ride> rides(int count, List<User> drivers) {
+        List<Ride> rides = new ArrayList<>(count);
+        forEachRide(count, drivers, rides::add);
+        return rides;
+    }
+
+    /** The rides {@link #rides} returns, handed over one at a time so millions need not be held at once. */
+    public static void forEachRide(int count, List<User> drivers, Consumer<Ride> consumer) {
+        Random random = new Random(SEED);
+        for (int i = 0; i < count; i++) {
+            String from = CITIES.get(random.nextInt(CITIES.size()));
+            String to = CITIES.get(random.nextInt(CITIES.size()));
+            int seats = 1 + random.nextInt(6);
+            Ride ride = new Ride(drivers.get(random.nextInt(drivers.size())), from, to,
+                    DATE.plusDays(random.nextInt(7)), LocalTime.of(5 + random.nextInt(18), random.nextInt(4) * 15),
+                    seats, BigDecimal.valueOf(100 + random.nextInt(900)), "Swift", "MH12AB" + (1000 + i));
+            ride.setId((long) i + 1);
+            ride.setAvailableSeats(random.nextInt(seats + 1));
+            consumer.accept(ride);
+        }
+    }
+
+    public static List<Booking> bookings(int count, List<Ride> rides, List<User> passengers) {
+        Random random = new Random(SEED + 1);
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Ride ride = rides.get(random.nextInt(rides.size()));
+            int seats = 1 + random.nextInt(3);
+            Booking booking = new Booking(ride, passengers.get(random.nextInt(passengers.size())), seats,
+                    ride.getPricePerSeat().multiply(BigDecimal.valueOf(seats)));
+            booking.setId((long) i + 1);
+            LocalDateTime createdAt = DATE.minusDays(1 + random.nextInt(14)).atTime(9, 0);
+            booking.setCreatedAt(createdAt);
+            booking.setUpdatedAt(createdAt);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,83 @@
+package com.carpool.backend.dto.response;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.entity.Ride;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing an {@code ApiResponse<List<RideResponse>>} body, as the search and
+ * my-rides endpoints do, with an ObjectMapper configured like Spring Boot's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"20", "200"})
+    private int listSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<RideResponse>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<RideResponse> rides = BenchmarkData.rides(listSize, BenchmarkData.users(50, 1)).stream()
+                .map(ApiResponseSerializationBenchmark::toResponse)
+                .toList();
+        response = ApiResponse.success("Rides retrieved successfully", rides);
+    }
+
+    @Benchmark
+    public byte[] serializeRideList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private static RideResponse toResponse(Ride ride) {
+        RideResponse response = new RideResponse();
+        response.setId(ride.getId());
+        response.setDepartureDate(ride.getDepartureDate());
+        response.setDepartureTime(ride.getDepartureTime());
+        response.setCarModel(ride.getCarModel());
+        response.setCarNumber(ride.getCarNumber());
+        response.setTotalSeats(ride.getTotalSeats());
+        response.setAvailableSeats(ride.getAvailableSeats());
+        response.setPricePerSeat(ride.getPricePerSeat());
+        response.setStatus(ride.getStatus().toString());
+
+        RideResponse.DriverInfo driver = new RideResponse.DriverInfo();
+        driver.setName(ride.getDriver().getFullName());
+        driver.setPhone(ride.getDriver().getPhone());
+        driver.setRating(ride.getDriver().getRating());
+        driver.setTotalTrips(ride.getDriver().getTotalRides());
+        response.setDriver(driver);
+
+        RideResponse.RouteInfo route = new RideResponse.RouteInfo();
+        route.setFrom(ride.getFromLocation());
+        route.setTo(ride.getToLocation());
+        response.setRoute(route);
+        return response;
+    }
+}
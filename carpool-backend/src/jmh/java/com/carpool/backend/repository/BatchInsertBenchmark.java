@@ -0,0 +1,169 @@
+package com.carpool.backend.repository;
+
+import com.carpool.backend.entity.Notification;
+import com.carpool.backend.entity.User;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting 10k notifications through JPA, as a bulk job would, with the
+ * Hibernate settings from application.yml. "identity" maps the same table with
+ * IDENTITY ids, as before id_sequences: every persist is its own INSERT.
+ * "pooled" is the Notification entity, whose ids come in blocks so the inserts
+ * go out in JDBC batches.
+ *
+ * Runs against in-memory H2, so it shows only the per-statement cost inside
+ * the JVM. Against MySQL each saved statement is also a network round trip,
+ * and rewriteBatchedStatements turns a batch into one multi-row INSERT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"identity", "pooled"})
+    private String idStrategy;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:batch_insert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.carpool.backend.entity", "com.carpool.backend.repository");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.physical_naming_strategy", "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy",
+                "hibernate.jdbc.batch_size", BATCH_SIZE,
+                "hibernate.order_inserts", true,
+                "hibernate.id.optimizer.pooled.preferred", "pooled-lo"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        user = new User("bulk@example.com", "password-hash", "Bulk", "Sender", "9000000000");
+        user.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createNativeQuery("delete from notifications").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int insert10k() {
+        boolean identity = idStrategy.equals("identity");
+        LocalDateTime now = LocalDateTime.now();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        User sender = entityManager.getReference(User.class, user.getId());
+        for (int i = 0; i < ROWS; i++) {
+            if (identity) {
+                entityManager.persist(new IdentityNotification(user.getId(), "Ride update", "Ride " + i + " changed", now));
+            } else {
+                Notification notification = new Notification(sender, "Ride update", "Ride " + i + " changed",
+                        Notification.Type.RIDE);
+                notification.setCreatedAt(now);
+                entityManager.persist(notification);
+            }
+            // Keep the persistence context small, as a bulk job has to
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                sender = entityManager.getReference(User.class, user.getId());
+            }
+        }
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        return ROWS;
+    }
+
+    /** The notifications table mapped the way it was before id_sequences. */
+    @Entity
+    @Table(name = "notifications")
+    public static class IdentityNotification {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "user_id")
+        private Long userId;
+
+        private String title;
+
+        private String message;
+
+        private String type;
+
+        private Boolean isRead = false;
+
+        private LocalDateTime createdAt;
+
+        protected IdentityNotification() {
+        }
+
+        IdentityNotification(Long userId, String title, String message, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.title = title;
+            this.message = message;
+            this.type = Notification.Type.RIDE;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.geo.Polyline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corridor matching at city scale: every ride departs on the same day inside
+ * a 40 x 40 km box around Pune, along a route of up to a dozen turns, so
+ * queries hit dense cells. Also measures the incremental cost of indexing
+ * and cancelling one ride.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RideCorridorIndexBenchmark {
+
+    private static final GeoPoint CENTER = new GeoPoint(18.5204, 73.8567);
+    private static final double HALF_BOX_DEGREES = 0.18;
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "100000"})
+    private int activeRides;
+
+    private final RideCorridorIndex index = new RideCorridorIndex();
+
+    private final GeoPoint[] pickups = new GeoPoint[QUERIES];
+    private final GeoPoint[] dropOffs = new GeoPoint[QUERIES];
+    private int next;
+
+    private Ride churned;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        for (int i = 0; i < activeRides; i++) {
+            index.onRideChanged(RideChangedEvent.updated(ride(i + 1L, random)));
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            pickups[i] = randomPoint(random);
+            dropOffs[i] = randomPoint(random);
+        }
+        churned = ride(activeRides + 1L, random);
+    }
+
+    @Benchmark
+    public List<RideCorridorIndex.Match> corridor() {
+        int query = next++ & (QUERIES - 1);
+        return index.search(pickups[query], dropOffs[query], 2, BenchmarkData.DATE, 1, 50);
+    }
+
+    @Benchmark
+    public int offerAndCancel() {
+        churned.setStatus(Ride.RideStatus.ACTIVE);
+        index.onRideChanged(RideChangedEvent.updated(churned));
+        churned.setStatus(Ride.RideStatus.CANCELLED);
+        index.onRideChanged(RideChangedEvent.updated(churned));
+        return index.size();
+    }
+
+    private static Ride ride(long id, Random random) {
+        List<GeoPoint> route = new ArrayList<>();
+        GeoPoint point = randomPoint(random);
+        route.add(point);
+        int turns = 2 + random.nextInt(11);
+        for (int i = 0; i < turns; i++) {
+            point = clampToBox(point.latitude() + (random.nextDouble() - 0.5) * 0.06,
+                    point.longitude() + (random.nextDouble() - 0.5) * 0.06);
+            route.add(point);
+        }
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setFromLocation("Pune");
+        ride.setToLocation("Pune");
+        ride.setDepartureDate(BenchmarkData.DATE);
+        ride.setDepartureTime(LocalTime.of(6 + random.nextInt(16), random.nextInt(4) * 15));
+        ride.setTotalSeats(4);
+        ride.setAvailableSeats(1 + random.nextInt(4));
+        ride.setPricePerSeat(BigDecimal.valueOf(50 + random.nextInt(200)));
+        ride.setRoutePolyline(Polyline.encode(route));
+        return ride;
+    }
+
+    private static GeoPoint randomPoint(Random random) {
+        return new GeoPoint(CENTER.latitude() + (random.nextDouble() * 2 - 1) * HALF_BOX_DEGREES,
+                CENTER.longitude() + (random.nextDouble() * 2 - 1) * HALF_BOX_DEGREES);
+    }
+
+    private static GeoPoint clampToBox(double latitude, double longitude) {
+        return new GeoPoint(
+                Math.clamp(latitude, CENTER.latitude() - HALF_BOX_DEGREES, CENTER.latitude() + HALF_BOX_DEGREES),
+                Math.clamp(longitude, CENTER.longitude() - HALF_BOX_DEGREES, CENTER.longitude() + HALF_BOX_DEGREES));
+    }
+}
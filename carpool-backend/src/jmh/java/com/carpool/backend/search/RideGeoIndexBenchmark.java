@@ -0,0 +1,124 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /rides/nearby against the name-based paths it complements. Sampled rather
+ * than averaged so the report carries the p99 the geo index is meant to keep
+ * under 10 ms. Rides get pickups and drop-offs scattered up to about 15 km
+ * around their gazetteer cities.
+ * <p>
+ * {@code likeScan} stands in for the original {@code LIKE '%from%'} query: a
+ * full pass over every ride comparing lower-cased names, which is what the
+ * database did without a usable index.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RideGeoIndexBenchmark {
+
+    private static final double JITTER_DEGREES = 0.135;
+
+    @Param({"50000", "1000000"})
+    private int activeRides;
+
+    private final RideGeoIndex geoIndex = new RideGeoIndex();
+
+    private final RideSearchIndex searchIndex = new RideSearchIndex();
+
+    private String[] fromNames;
+    private String[] toNames;
+    private LocalDate[] dates;
+    private int[] seats;
+
+    private GeoPoint pune;
+    private GeoPoint mumbai;
+
+    @Setup
+    public void setUp() {
+        Gazetteer gazetteer = new Gazetteer();
+        gazetteer.load();
+        pune = gazetteer.resolve("Pune").orElseThrow();
+        mumbai = gazetteer.resolve("Mumbai").orElseThrow();
+
+        List<Ride> rides = BenchmarkData.rides(activeRides, BenchmarkData.users(500, 1));
+        Random random = new Random(BenchmarkData.SEED + 2);
+        fromNames = new String[rides.size()];
+        toNames = new String[rides.size()];
+        dates = new LocalDate[rides.size()];
+        seats = new int[rides.size()];
+        for (int i = 0; i < rides.size(); i++) {
+            Ride ride = rides.get(i);
+            GeoPoint from = gazetteer.resolve(ride.getFromLocation()).orElseThrow();
+            GeoPoint to = gazetteer.resolve(ride.getToLocation()).orElseThrow();
+            ride.setFromLatitude(from.latitude() + jitter(random));
+            ride.setFromLongitude(from.longitude() + jitter(random));
+            ride.setToLatitude(to.latitude() + jitter(random));
+            ride.setToLongitude(to.longitude() + jitter(random));
+
+            RideChangedEvent event = RideChangedEvent.updated(ride);
+            geoIndex.onRideChanged(event);
+            searchIndex.onRideChanged(event);
+            fromNames[i] = ride.getFromLocation();
+            toNames[i] = ride.getToLocation();
+            dates[i] = ride.getDepartureDate();
+            seats[i] = ride.getAvailableSeats();
+        }
+    }
+
+    @Benchmark
+    public List<RideGeoIndex.Match> nearbyOrigin() {
+        return geoIndex.search(pune, 10, null, 10, BenchmarkData.DATE, 1, 50);
+    }
+
+    @Benchmark
+    public List<RideGeoIndex.Match> nearbyOriginAndDestination() {
+        return geoIndex.search(pune, 10, mumbai, 15, BenchmarkData.DATE, 1, 50);
+    }
+
+    @Benchmark
+    public List<RideSearchIndex.IndexedRide> nameIndex() {
+        return searchIndex.search("pune", "mumbai", BenchmarkData.DATE, 1, null, null, null);
+    }
+
+    @Benchmark
+    public List<Integer> likeScan() {
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < fromNames.length; i++) {
+            if (dates[i].equals(BenchmarkData.DATE) && seats[i] >= 1
+                    && fromNames[i].toLowerCase().contains("pune")
+                    && toNames[i].toLowerCase().contains("mumbai")) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+
+    private static double jitter(Random random) {
+        return (random.nextDouble() * 2 - 1) * JITTER_DEGREES;
+    }
+}
@@ -0,0 +1,62 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.event.RideChangedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ride filtering behind /rides/search: route substring match plus time, seat and
+ * price filters. Sampled so the report carries p99 as well as the mean.
+ * <p>
+ * A search checks every route key of the day, then range-scans the matching
+ * buckets, so its cost grows with distinct routes per day and with the rides
+ * returned, not with the total indexed. {@link BenchmarkData} draws routes from
+ * 16 cities, at most 256 per day, so the route scan stays fixed here while the
+ * rides per route (and the result size) grow with {@code activeRides}. A city
+ * list that keeps growing would slow the key scan down linearly.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RideSearchIndexBenchmark {
+
+    @Param({"10000", "100000", "1000000", "5000000"})
+    private int activeRides;
+
+    private final RideSearchIndex index = new RideSearchIndex();
+
+    @Setup
+    public void setUp() {
+        BenchmarkData.forEachRide(activeRides, BenchmarkData.users(500, 1),
+                ride -> index.onRideChanged(RideChangedEvent.updated(ride)));
+    }
+
+    @Benchmark
+    public List<RideSearchIndex.IndexedRide> searchRoute() {
+        return index.search("Pune", "Mumbai", BenchmarkData.DATE, 1, null, null, null);
+    }
+
+    @Benchmark
+    public List<RideSearchIndex.IndexedRide> searchPartialRouteWithFilters() {
+        return index.search("pu", "mum", BenchmarkData.DATE, 2, LocalTime.of(7, 0), LocalTime.of(11, 0),
+                new BigDecimal("600"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.carpool.backend.security;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login and token validation on every authenticated request.
+ * With a claims cache size of 0 each validation verifies the HS512 signature;
+ * with the default size repeat requests are served from the cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtTokenUtilBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationThatNeedsToBeAtLeast512BitsForHS512"
+            + "AlgorithmSoThisIsALongSecretKeyUsedOnlyByTheBenchmarks";
+
+    @Param({"0", "10000"})
+    private int claimsCacheSize;
+
+    private JwtTokenUtil jwtTokenUtil;
+    private CustomUserPrincipal principal;
+    private Map<String, Object> claims;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "jwtExpiration", 900_000);
+        ReflectionTestUtils.setField(jwtTokenUtil, "refreshExpiration", 604_800_000);
+        ReflectionTestUtils.setField(jwtTokenUtil, "claimsCacheSize", claimsCacheSize);
+        jwtTokenUtil.init();
+
+        User user = BenchmarkData.users(1, 1).get(0);
+        principal = new CustomUserPrincipal(user);
+        claims = Map.of("userId", user.getId(), "isDriver", user.getIsDriver(), "isVerified", false);
+        token = jwtTokenUtil.generateToken(user.getEmail(), claims);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(principal.getUsername(), claims);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtTokenUtil.validateToken(token, principal);
+    }
+}
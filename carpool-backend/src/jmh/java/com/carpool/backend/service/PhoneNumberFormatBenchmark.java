@@ -0,0 +1,66 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.repository.WhatsAppOutboxRepository;
+import com.carpool.backend.whatsapp.WhatsAppSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phone normalization run before every WhatsApp send, over the formats users actually
+ * type. Measured through sendWhatsAppMessage with the outbox write stubbed out, so
+ * it also covers the checks done before queueing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PhoneNumberFormatBenchmark {
+
+    private static final String[] NUMBERS = {
+            "9876543210", "+91 98765 43210", "091-9876-543210", "(987) 654-3210",
+            "919876543210", "+1 415 555 0100", "98765 43210", "+91-98765-43210"
+    };
+
+    private final TwilioWhatsAppService whatsAppService = new TwilioWhatsAppService();
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(whatsAppService, "outboxRepository",
+                BenchmarkData.repository(WhatsAppOutboxRepository.class, "save", args -> args[0]));
+        ReflectionTestUtils.setField(whatsAppService, "whatsAppSender", new WhatsAppSender() {
+            @Override
+            public boolean isAvailable() {
+                return true;
+            }
+
+            @Override
+            public String send(String toPhoneNumber, String messageBody) {
+                throw new UnsupportedOperationException("Messages are only queued here");
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void sendWhatsAppMessage(Blackhole blackhole) {
+        for (String number : NUMBERS) {
+            blackhole.consume(whatsAppService.sendWhatsAppMessage(number, "Your ride leaves at 08:30"));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.benchmark.BenchmarkData;
+import com.carpool.backend.dto.response.BookingResponse;
+import com.carpool.backend.dto.response.RideResponse;
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.repository.BookingRepository;
+import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping done for every row of the ride and booking list
+ * endpoints, called through those endpoints' service methods. Repositories are
+ * stubs handing back entities that are fully initialized in memory, so this
+ * measures the mapping alone, not queries or lazy loading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ResponseMappingBenchmark {
+
+    private static final Long USER_ID = 1L;
+
+    // A typical search page and a heavy user's booking history
+    @Param({"20", "200"})
+    private int listSize;
+
+    private final RideService rideService = new RideService();
+    private final BookingService bookingService = new BookingService();
+
+    @Setup
+    public void setUp() {
+        List<User> drivers = BenchmarkData.users(50, 1);
+        List<User> passengers = BenchmarkData.users(200, 1_000);
+        List<Ride> rides = BenchmarkData.rides(listSize, drivers);
+        List<Booking> bookings = BenchmarkData.bookings(listSize, rides, passengers);
+
+        ReflectionTestUtils.setField(rideService, "userRepository",
+                BenchmarkData.repository(UserRepository.class, "existsById", args -> true));
+        ReflectionTestUtils.setField(rideService, "rideRepository",
+                BenchmarkData.repository(RideRepository.class, "findWithDriverByDriverId", args -> rides));
+        ReflectionTestUtils.setField(bookingService, "bookingRepository",
+                BenchmarkData.repository(BookingRepository.class, "findByPassengerIdOrderByCreatedAtDesc",
+                        args -> bookings));
+    }
+
+    @Benchmark
+    public List<RideResponse> getDriverRides() {
+        return rideService.getDriverRides(USER_ID);
+    }
+
+    @Benchmark
+    public List<BookingResponse> getPassengerBookings() {
+        return bookingService.getPassengerBookings(USER_ID);
+    }
+}
@@ -0,0 +1,22 @@
+package com.carpool.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Response caches for read-mostly endpoints. The provider (Caffeine per
+ * instance, or Redis shared) and limits are set under spring.cache; entries are
+ * evicted after commit by ResponseCacheInvalidator. The cache advice runs
+ * outside the transaction advice, so a hit never borrows a connection.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    /** RideResponse by ride id, for GET /rides/{id}. */
+    public static final String RIDE_DETAILS = "rideDetails";
+
+    /** UserResponse by user id, for the profile endpoints. */
+    public static final String USERS = "users";
+}
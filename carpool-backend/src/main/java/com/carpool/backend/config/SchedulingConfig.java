@@ -0,0 +1,10 @@
+package com.carpool.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Kept out of the application class so slice tests drive background jobs by hand
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.carpool.backend.config;
 
 import com.carpool.backend.security.JwtAuthenticationEntryPoint;
 import com.carpool.backend.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -67,6 +68,8 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         .requestMatchers("/ws/**").permitAll()
+                        // SSE streams complete on an async dispatch; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Protected endpoints
                         .requestMatchers("/users/**").authenticated()
                         .requestMatchers("/rides/**").authenticated()
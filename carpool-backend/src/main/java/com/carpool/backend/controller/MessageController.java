@@ -1,6 +1,9 @@
 package com.carpool.backend.controller;
 
+import com.carpool.backend.dto.response.CursorPage;
+import com.carpool.backend.entity.Conversation;
 import com.carpool.backend.entity.Message;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
 import com.carpool.backend.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -8,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -24,7 +28,7 @@ public class MessageController {
             @RequestBody Map<String, Object> request,
             Authentication authentication) {
         try {
-            Long senderId = Long.valueOf(authentication.getName());
+            Long senderId = currentUserId(authentication);
             Long receiverId = Long.valueOf(request.get("receiverId").toString());
             String messageText = request.get("message").toString();
             Long rideId = request.get("rideId") != null ? 
@@ -52,26 +56,40 @@ public class MessageController {
     @GetMapping("/conversation/{userId}")
     public ResponseEntity<?> getConversation(
             @PathVariable Long userId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit,
             Authentication authentication) {
         try {
-            Long currentUserId = Long.valueOf(authentication.getName());
-            List<Message> messages = messageService.getConversation(currentUserId, userId);
-
-            // Mark messages as read
-            messageService.markMessagesAsRead(currentUserId, userId);
-
-            return ResponseEntity.ok(Map.of(
-                "success", true,
-                "data", messages.stream().map(msg -> Map.of(
-                    "id", msg.getId(),
-                    "senderId", msg.getSender().getId(),
-                    "senderName", msg.getSender().getFirstName() + " " + msg.getSender().getLastName(),
-                    "messageText", msg.getMessageText(),
-                    "messageType", msg.getMessageType(),
-                    "sentAt", msg.getSentAt(),
-                    "isRead", msg.getIsRead()
-                )).toList()
-            ));
+            if (limit <= 0 || limit > 200) {
+                throw new RuntimeException("Limit must be between 1 and 200");
+            }
+            Long currentUserId = currentUserId(authentication);
+            CursorPage<Message> page = messageService.getConversation(currentUserId, userId, before, limit);
+
+            // Everything up to the newest message shown is now read
+            if (!page.getContent().isEmpty()) {
+                messageService.markConversationRead(currentUserId, userId, page.getContent().get(0).getId());
+            }
+            Long partnerReadUpTo = messageService.getReadWatermark(userId, currentUserId);
+
+            Map<String, Object> pagination = new LinkedHashMap<>();
+            pagination.put("hasMore", page.isHasNext());
+            pagination.put("nextBefore", page.getNextCursor() != null ? Long.valueOf(page.getNextCursor()) : null);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("success", true);
+            body.put("data", page.getContent().stream().map(msg -> Map.of(
+                "id", msg.getId(),
+                "senderId", msg.getSender().getId(),
+                "senderName", msg.getSender().getFirstName() + " " + msg.getSender().getLastName(),
+                "messageText", msg.getMessageText(),
+                "messageType", msg.getMessageType(),
+                "sentAt", msg.getSentAt(),
+                "isRead", isRead(msg, currentUserId, partnerReadUpTo)
+            )).toList());
+            body.put("partnerLastReadId", partnerReadUpTo);
+            body.put("pagination", pagination);
+            return ResponseEntity.ok(body);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of(
                 "success", false,
@@ -86,29 +104,29 @@ public class MessageController {
             @RequestParam(defaultValue = "20") int size,
             Authentication authentication) {
         try {
-            Long userId = Long.valueOf(authentication.getName());
-            Page<Message> conversations = messageService.getUserConversations(userId, page, size);
+            Long userId = currentUserId(authentication);
+            Page<Conversation> conversations = messageService.getUserConversations(userId, page, size);
 
             return ResponseEntity.ok(Map.of(
                 "success", true,
-                "data", conversations.getContent().stream().map(msg -> {
-                    // Determine the other user in the conversation
-                    boolean isSender = msg.getSender().getId().equals(userId);
-                    var otherUser = isSender ? msg.getReceiver() : msg.getSender();
-                    
-                    return Map.of(
-                        "conversationWith", Map.of(
-                            "id", otherUser.getId(),
-                            "name", otherUser.getFirstName() + " " + otherUser.getLastName(),
-                            "phone", otherUser.getPhone() != null ? otherUser.getPhone() : ""
-                        ),
-                        "lastMessage", Map.of(
-                            "text", msg.getMessageText(),
-                            "sentAt", msg.getSentAt(),
-                            "isFromMe", isSender
-                        ),
-                        "rideId", msg.getRide() != null ? msg.getRide().getId() : null
-                    );
+                "data", conversations.getContent().stream().map(conversation -> {
+                    var otherUser = conversation.getPartner();
+
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("conversationWith", Map.of(
+                        "id", otherUser.getId(),
+                        "name", otherUser.getFirstName() + " " + otherUser.getLastName(),
+                        "phone", otherUser.getPhone() != null ? otherUser.getPhone() : ""
+                    ));
+                    row.put("lastMessage", Map.of(
+                        "id", conversation.getLastMessageId(),
+                        "text", conversation.getLastMessageText(),
+                        "sentAt", conversation.getLastMessageAt(),
+                        "isFromMe", conversation.getLastSenderId().equals(userId)
+                    ));
+                    row.put("unreadCount", conversation.getUnreadCount());
+                    row.put("rideId", conversation.getRideId());
+                    return row;
                 }).toList(),
                 "pagination", Map.of(
                     "currentPage", conversations.getNumber(),
@@ -127,7 +145,7 @@ public class MessageController {
     @GetMapping("/unread")
     public ResponseEntity<?> getUnreadMessages(Authentication authentication) {
         try {
-            Long userId = Long.valueOf(authentication.getName());
+            Long userId = currentUserId(authentication);
             List<Message> unreadMessages = messageService.getUnreadMessages(userId);
 
             return ResponseEntity.ok(Map.of(
@@ -151,7 +169,7 @@ public class MessageController {
     @GetMapping("/unread/count")
     public ResponseEntity<?> getUnreadMessageCount(Authentication authentication) {
         try {
-            Long userId = Long.valueOf(authentication.getName());
+            Long userId = currentUserId(authentication);
             long count = messageService.getUnreadMessageCount(userId);
 
             return ResponseEntity.ok(Map.of(
@@ -189,4 +207,17 @@ public class MessageController {
             ));
         }
     }
+
+    // Read state comes from the watermarks: received messages on screen are read, and sent
+    // ones are read once the partner's watermark has reached them
+    private static boolean isRead(Message message, Long currentUserId, Long partnerReadUpTo) {
+        if (!message.getSender().getId().equals(currentUserId)) {
+            return true;
+        }
+        return partnerReadUpTo != null && message.getId() <= partnerReadUpTo;
+    }
+
+    private static Long currentUserId(Authentication authentication) {
+        return ((CustomUserPrincipal) authentication.getPrincipal()).getUserId();
+    }
 }
@@ -0,0 +1,77 @@
+package com.carpool.backend.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.carpool.backend.dto.response.ApiResponse;
+import com.carpool.backend.dto.response.NotificationResponse;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.carpool.backend.service.NotificationService;
+
+@RestController
+@RequestMapping("/notifications")
+@CrossOrigin(origins = "*")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<NotificationResponse>>> getNotifications(Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            List<NotificationResponse> notifications = notificationService.getUserNotifications(userPrincipal.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Notifications retrieved successfully", notifications));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to retrieve notifications", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/unread/count")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getUnreadCount(Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            long count = notificationService.getUnreadCount(userPrincipal.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Unread count retrieved", Map.of("unreadCount", count)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to get unread count", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{id}/read")
+    public ResponseEntity<ApiResponse<Void>> markAsRead(@PathVariable Long id, Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            notificationService.markAsRead(id, userPrincipal.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Notification marked as read"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to mark notification as read", e.getMessage()));
+        }
+    }
+
+    @PutMapping("/read-all")
+    public ResponseEntity<ApiResponse<Map<String, Integer>>> markAllAsRead(Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            int read = notificationService.markAllAsRead(userPrincipal.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Notifications marked as read", Map.of("markedRead", read)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to mark notifications as read", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.carpool.backend.controller;
+
+import com.carpool.backend.push.SseHub;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * SSE fallback for the STOMP push channel. EventSource cannot send headers,
+ * so this endpoint also accepts the access token as ?access_token=.
+ */
+@RestController
+@RequestMapping("/push")
+@CrossOrigin(origins = "*")
+public class PushController {
+
+    @Autowired
+    private SseHub sseHub;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) List<Long> rides,
+            Authentication authentication) {
+        CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+        return sseHub.open(userPrincipal.getUserId(), rides != null ? rides : List.of());
+    }
+}
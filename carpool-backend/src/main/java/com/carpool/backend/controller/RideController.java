@@ -16,7 +16,10 @@ import org.springframework.web.bind.annotation.*;
 import com.carpool.backend.dto.request.BookingCreateRequest;
 import com.carpool.backend.dto.response.ApiResponse;
 import com.carpool.backend.dto.response.BookingResponse;
+import com.carpool.backend.dto.response.CursorPage;
 import com.carpool.backend.dto.response.RideResponse;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.search.LocationSuggestIndex;
 import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
 import com.carpool.backend.service.BookingService;
 import com.carpool.backend.service.RideService;
@@ -81,6 +84,74 @@ public class RideController {
         }
     }
 
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<List<RideResponse>>> searchNearby(
+            @RequestParam(required = false) Double fromLat,
+            @RequestParam(required = false) Double fromLng,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "10") double fromRadiusKm,
+            @RequestParam(required = false) Double toLat,
+            @RequestParam(required = false) Double toLng,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "10") double toRadiusKm,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") Integer passengers,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            if (passengers == null || passengers <= 0) {
+                throw new RuntimeException("Valid number of passengers is required");
+            }
+            if (limit <= 0 || limit > 200) {
+                throw new RuntimeException("Limit must be between 1 and 200");
+            }
+            GeoPoint origin = rideService.locate(fromLat, fromLng, from);
+            if (origin == null) {
+                throw new RuntimeException("Pickup coordinates or place name is required");
+            }
+            GeoPoint destination = rideService.locate(toLat, toLng, to);
+
+            List<RideResponse> rides = rideService.searchNearby(origin, fromRadiusKm, destination, toRadiusKm,
+                    date, passengers, limit);
+            return ResponseEntity.ok(ApiResponse.success("Rides found", rides));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Search failed", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/corridor")
+    public ResponseEntity<ApiResponse<List<RideResponse>>> searchCorridor(
+            @RequestParam(required = false) Double fromLat,
+            @RequestParam(required = false) Double fromLng,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) Double toLat,
+            @RequestParam(required = false) Double toLng,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "1") Integer passengers,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            if (passengers == null || passengers <= 0) {
+                throw new RuntimeException("Valid number of passengers is required");
+            }
+            if (limit <= 0 || limit > 200) {
+                throw new RuntimeException("Limit must be between 1 and 200");
+            }
+            GeoPoint pickup = rideService.locate(fromLat, fromLng, from);
+            GeoPoint dropOff = rideService.locate(toLat, toLng, to);
+            if (pickup == null || dropOff == null) {
+                throw new RuntimeException("Pickup and drop-off coordinates or place names are required");
+            }
+
+            List<RideResponse> rides = rideService.searchCorridor(pickup, dropOff, radiusKm, date, passengers, limit);
+            return ResponseEntity.ok(ApiResponse.success("Rides found", rides));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Search failed", e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<RideResponse>> getRideDetails(@PathVariable Long id) {
         try {
@@ -151,7 +222,7 @@ public class RideController {
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<ApiResponse<List<RideResponse>>> filterRides(
+    public ResponseEntity<ApiResponse<CursorPage<RideResponse>>> filterRides(
             @RequestParam(required = false) String from,
             @RequestParam(required = false) String to,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -159,11 +230,14 @@ public class RideController {
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Integer minSeats,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            List<RideResponse> rides = rideService.filterRides(from, to, startDate, endDate, 
-                    minPrice, maxPrice, minSeats, page, size);
+            if (size <= 0 || size > 100) {
+                throw new RuntimeException("Page size must be between 1 and 100");
+            }
+            CursorPage<RideResponse> rides = rideService.filterRides(from, to, startDate, endDate,
+                    minPrice, maxPrice, minSeats, cursor, size);
             return ResponseEntity.ok(ApiResponse.success("Filtered rides retrieved", rides));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -204,6 +278,23 @@ public class RideController {
         }
     }
 
+    @GetMapping("/locations/suggest")
+    public ResponseEntity<ApiResponse<List<String>>> suggestLocations(
+            @RequestParam String q,
+            @RequestParam(required = false) LocationSuggestIndex.Side type,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            if (limit <= 0 || limit > 50) {
+                throw new RuntimeException("Limit must be between 1 and 50");
+            }
+            List<String> locations = rideService.suggestLocations(q, type, limit);
+            return ResponseEntity.ok(ApiResponse.success("Location suggestions retrieved", locations));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to suggest locations", e.getMessage()));
+        }
+    }
+
     @PostMapping("/{id}/book")
     public ResponseEntity<ApiResponse<BookingResponse>> bookRide(
             @PathVariable Long id,
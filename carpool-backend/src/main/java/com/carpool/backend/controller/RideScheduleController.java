@@ -0,0 +1,95 @@
+package com.carpool.backend.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import com.carpool.backend.dto.request.BookingCreateRequest;
+import com.carpool.backend.dto.request.RideScheduleRequest;
+import com.carpool.backend.dto.response.ApiResponse;
+import com.carpool.backend.dto.response.BookingResponse;
+import com.carpool.backend.dto.response.RideScheduleResponse;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.carpool.backend.service.BookingService;
+import com.carpool.backend.service.RideScheduleService;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/rides/schedules")
+@CrossOrigin(origins = "*")
+public class RideScheduleController {
+
+    @Autowired
+    private RideScheduleService rideScheduleService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<RideScheduleResponse>> createSchedule(
+            @Valid @RequestBody RideScheduleRequest request,
+            Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            RideScheduleResponse scheduleResponse = rideScheduleService.createSchedule(request, userPrincipal.getUserId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Ride schedule created successfully", scheduleResponse));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to create ride schedule", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/my-schedules")
+    public ResponseEntity<ApiResponse<List<RideScheduleResponse>>> getMySchedules(Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            List<RideScheduleResponse> schedules = rideScheduleService.getDriverSchedules(userPrincipal.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Ride schedules retrieved successfully", schedules));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to retrieve ride schedules", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<String>> cancelSchedule(
+            @PathVariable Long id,
+            Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            rideScheduleService.cancelSchedule(id, userPrincipal.getUserId());
+            return ResponseEntity.ok(ApiResponse.success("Ride schedule cancelled successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to cancel ride schedule", e.getMessage()));
+        }
+    }
+
+    // Search lists occurrences without a ride id; booking one creates the ride first
+    @PostMapping("/{id}/occurrences/{date}/book")
+    public ResponseEntity<ApiResponse<BookingResponse>> bookOccurrence(
+            @PathVariable Long id,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @Valid @RequestBody BookingCreateRequest request,
+            Authentication authentication) {
+        try {
+            CustomUserPrincipal userPrincipal = (CustomUserPrincipal) authentication.getPrincipal();
+            Long rideId = rideScheduleService.materialize(id, date);
+            request.setRideId(rideId);
+            BookingResponse bookingResponse = bookingService.createBooking(rideId, request, userPrincipal.getUserId());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Ride booked successfully", bookingResponse));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Failed to book ride", e.getMessage()));
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.carpool.backend.dto.response.UserResponse;
 import com.carpool.backend.entity.User;
 import com.carpool.backend.exception.PhoneAlreadyExistsException;
 import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
 import com.carpool.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +28,10 @@ public class UserController {
     private UserRepository userRepository;
 
     private Long getUserIdFromAuthentication(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof CustomUserPrincipal userPrincipal) {
+            return userPrincipal.getUserId();
+        }
+
         String username = authentication.getName(); // This could be email or user ID
         
         // Try to parse as Long first (in case it's already a user ID)
@@ -2,6 +2,7 @@ package com.carpool.backend.dto.request;
 
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public class BookingCreateRequest {
 
@@ -11,6 +12,13 @@ public class BookingCreateRequest {
     @Positive(message = "Number of seats must be positive")
     private Integer seatsRequested;
 
+    // Stop positions on a multi-stop ride; default to the whole route
+    @PositiveOrZero(message = "Stop position cannot be negative")
+    private Integer fromStop;
+
+    @PositiveOrZero(message = "Stop position cannot be negative")
+    private Integer toStop;
+
     public BookingCreateRequest() {}
 
     public BookingCreateRequest(Long rideId, Integer seatsRequested) {
@@ -33,4 +41,20 @@ public class BookingCreateRequest {
     public void setSeatsRequested(Integer seatsRequested) {
         this.seatsRequested = seatsRequested;
     }
+
+    public Integer getFromStop() {
+        return fromStop;
+    }
+
+    public void setFromStop(Integer fromStop) {
+        this.fromStop = fromStop;
+    }
+
+    public Integer getToStop() {
+        return toStop;
+    }
+
+    public void setToStop(Integer toStop) {
+        this.toStop = toStop;
+    }
 }
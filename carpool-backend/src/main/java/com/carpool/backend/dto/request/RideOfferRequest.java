@@ -1,14 +1,18 @@
 package com.carpool.backend.dto.request;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Size;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
 
 public class RideOfferRequest {
 
@@ -18,6 +22,31 @@ public class RideOfferRequest {
     @NotBlank(message = "To location is required")
     private String to;
 
+    // Optional map pins; when absent the locations are looked up in the gazetteer
+    @DecimalMin(value = "-90", message = "Invalid latitude")
+    @DecimalMax(value = "90", message = "Invalid latitude")
+    private Double fromLatitude;
+
+    @DecimalMin(value = "-180", message = "Invalid longitude")
+    @DecimalMax(value = "180", message = "Invalid longitude")
+    private Double fromLongitude;
+
+    @DecimalMin(value = "-90", message = "Invalid latitude")
+    @DecimalMax(value = "90", message = "Invalid latitude")
+    private Double toLatitude;
+
+    @DecimalMin(value = "-180", message = "Invalid longitude")
+    @DecimalMax(value = "180", message = "Invalid longitude")
+    private Double toLongitude;
+
+    // Optional encoded polyline of the planned route, as returned by map SDKs; simplified before storing
+    @Size(max = 20000, message = "Route polyline is too long")
+    private String routePolyline;
+
+    // Optional stops between from and to, in driving order; seats are then booked per segment
+    @Size(max = 8, message = "At most 8 intermediate stops are allowed")
+    private List<@NotBlank(message = "Stop location is required") String> waypoints;
+
     @NotNull(message = "Departure date is required")
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
     private LocalDate departureDate;
@@ -64,6 +93,54 @@ public class RideOfferRequest {
         this.to = to;
     }
 
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public String getRoutePolyline() {
+        return routePolyline;
+    }
+
+    public void setRoutePolyline(String routePolyline) {
+        this.routePolyline = routePolyline;
+    }
+
+    public List<String> getWaypoints() {
+        return waypoints;
+    }
+
+    public void setWaypoints(List<String> waypoints) {
+        this.waypoints = waypoints;
+    }
+
     public LocalDate getDepartureDate() {
         return departureDate;
     }
@@ -0,0 +1,204 @@
+package com.carpool.backend.dto.request;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+public class RideScheduleRequest {
+
+    @NotBlank(message = "From location is required")
+    private String from;
+
+    @NotBlank(message = "To location is required")
+    private String to;
+
+    // Optional map pins; when absent the locations are looked up in the gazetteer
+    @DecimalMin(value = "-90", message = "Invalid latitude")
+    @DecimalMax(value = "90", message = "Invalid latitude")
+    private Double fromLatitude;
+
+    @DecimalMin(value = "-180", message = "Invalid longitude")
+    @DecimalMax(value = "180", message = "Invalid longitude")
+    private Double fromLongitude;
+
+    @DecimalMin(value = "-90", message = "Invalid latitude")
+    @DecimalMax(value = "90", message = "Invalid latitude")
+    private Double toLatitude;
+
+    @DecimalMin(value = "-180", message = "Invalid longitude")
+    @DecimalMax(value = "180", message = "Invalid longitude")
+    private Double toLongitude;
+
+    @NotNull(message = "Departure time is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private LocalTime departureTime;
+
+    @NotEmpty(message = "At least one day of the week is required")
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull(message = "Start date is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    @NotNull(message = "Number of passengers is required")
+    @Positive(message = "Number of passengers must be positive")
+    private Integer passengers;
+
+    @NotNull(message = "Price per seat is required")
+    @Positive(message = "Price per seat must be positive")
+    private BigDecimal pricePerSeat;
+
+    @NotBlank(message = "Car model is required")
+    private String carModel;
+
+    @NotBlank(message = "Car number is required")
+    private String carNumber;
+
+    private String additionalInfo;
+
+    private boolean instantBooking = false;
+
+    public RideScheduleRequest() {}
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public LocalTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public Set<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Integer getPassengers() {
+        return passengers;
+    }
+
+    public void setPassengers(Integer passengers) {
+        this.passengers = passengers;
+    }
+
+    public BigDecimal getPricePerSeat() {
+        return pricePerSeat;
+    }
+
+    public void setPricePerSeat(BigDecimal pricePerSeat) {
+        this.pricePerSeat = pricePerSeat;
+    }
+
+    public String getCarModel() {
+        return carModel;
+    }
+
+    public void setCarModel(String carModel) {
+        this.carModel = carModel;
+    }
+
+    public String getCarNumber() {
+        return carNumber;
+    }
+
+    public void setCarNumber(String carNumber) {
+        this.carNumber = carNumber;
+    }
+
+    public String getAdditionalInfo() {
+        return additionalInfo;
+    }
+
+    public void setAdditionalInfo(String additionalInfo) {
+        this.additionalInfo = additionalInfo;
+    }
+
+    public boolean isInstantBooking() {
+        return instantBooking;
+    }
+
+    public void setInstantBooking(boolean instantBooking) {
+        this.instantBooking = instantBooking;
+    }
+}
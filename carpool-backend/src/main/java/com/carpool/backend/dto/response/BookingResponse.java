@@ -17,6 +17,8 @@ public class BookingResponse {
     private BookingStatus status;
     private PaymentStatus paymentStatus;
     private String paymentId;
+    private Integer fromStop;
+    private Integer toStop;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
@@ -132,6 +134,10 @@ public class BookingResponse {
     public void setPaymentStatus(PaymentStatus paymentStatus) { this.paymentStatus = paymentStatus; }
     public String getPaymentId() { return paymentId; }
     public void setPaymentId(String paymentId) { this.paymentId = paymentId; }
+    public Integer getFromStop() { return fromStop; }
+    public void setFromStop(Integer fromStop) { this.fromStop = fromStop; }
+    public Integer getToStop() { return toStop; }
+    public void setToStop(Integer toStop) { this.toStop = toStop; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
@@ -1,13 +1,17 @@
 package com.carpool.backend.dto.response;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 
-public class RideResponse {
+// Serializable so the Redis cache provider can store it
+public class RideResponse implements Serializable {
 
     private Long id;
+    // Set on occurrences of a recurring schedule; id stays null until the occurrence is first booked
+    private Long scheduleId;
     private DriverInfo driver;
     private RouteInfo route;
     private LocalDate departureDate;
@@ -21,6 +25,11 @@ public class RideResponse {
     private String status;
     private boolean instantBooking;
     private List<PassengerInfo> passengers;
+    // Only set by /rides/nearby and /rides/corridor: how far the searched points are from the ride
+    private Double originDistanceKm;
+    private Double destinationDistanceKm;
+    // Multi-stop rides only, and only on the single-ride views
+    private List<StopInfo> stops;
 
     public RideResponse() {}
 
@@ -32,6 +41,14 @@ public class RideResponse {
         this.id = id;
     }
 
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(Long scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
     public DriverInfo getDriver() {
         return driver;
     }
@@ -136,7 +153,31 @@ public class RideResponse {
         this.passengers = passengers;
     }
 
-    public static class DriverInfo {
+    public Double getOriginDistanceKm() {
+        return originDistanceKm;
+    }
+
+    public void setOriginDistanceKm(Double originDistanceKm) {
+        this.originDistanceKm = originDistanceKm;
+    }
+
+    public Double getDestinationDistanceKm() {
+        return destinationDistanceKm;
+    }
+
+    public void setDestinationDistanceKm(Double destinationDistanceKm) {
+        this.destinationDistanceKm = destinationDistanceKm;
+    }
+
+    public List<StopInfo> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<StopInfo> stops) {
+        this.stops = stops;
+    }
+
+    public static class DriverInfo implements Serializable {
         private String name;
         private String phone;
         private BigDecimal rating;
@@ -184,9 +225,14 @@ public class RideResponse {
         }
     }
 
-    public static class RouteInfo {
+    public static class RouteInfo implements Serializable {
         private String from;
         private String to;
+        private Double fromLatitude;
+        private Double fromLongitude;
+        private Double toLatitude;
+        private Double toLongitude;
+        private String polyline;
 
         public RouteInfo() {}
 
@@ -210,9 +256,49 @@ public class RideResponse {
         public void setTo(String to) {
             this.to = to;
         }
+
+        public Double getFromLatitude() {
+            return fromLatitude;
+        }
+
+        public void setFromLatitude(Double fromLatitude) {
+            this.fromLatitude = fromLatitude;
+        }
+
+        public Double getFromLongitude() {
+            return fromLongitude;
+        }
+
+        public void setFromLongitude(Double fromLongitude) {
+            this.fromLongitude = fromLongitude;
+        }
+
+        public Double getToLatitude() {
+            return toLatitude;
+        }
+
+        public void setToLatitude(Double toLatitude) {
+            this.toLatitude = toLatitude;
+        }
+
+        public Double getToLongitude() {
+            return toLongitude;
+        }
+
+        public void setToLongitude(Double toLongitude) {
+            this.toLongitude = toLongitude;
+        }
+
+        public String getPolyline() {
+            return polyline;
+        }
+
+        public void setPolyline(String polyline) {
+            this.polyline = polyline;
+        }
     }
 
-    public static class PassengerInfo {
+    public static class PassengerInfo implements Serializable {
         private String name;
         private BigDecimal rating;
         private Integer seatsBooked;
@@ -249,4 +335,55 @@ public class RideResponse {
             this.seatsBooked = seatsBooked;
         }
     }
+
+    public static class StopInfo implements Serializable {
+        private Integer position;
+        private String location;
+        private Double latitude;
+        private Double longitude;
+        // Seats free on the segment to the next stop; null on the last stop
+        private Integer availableSeatsToNext;
+
+        public StopInfo() {}
+
+        public Integer getPosition() {
+            return position;
+        }
+
+        public void setPosition(Integer position) {
+            this.position = position;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public Integer getAvailableSeatsToNext() {
+            return availableSeatsToNext;
+        }
+
+        public void setAvailableSeatsToNext(Integer availableSeatsToNext) {
+            this.availableSeatsToNext = availableSeatsToNext;
+        }
+    }
 }
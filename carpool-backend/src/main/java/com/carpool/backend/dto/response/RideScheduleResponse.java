@@ -0,0 +1,56 @@
+package com.carpool.backend.dto.response;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+public class RideScheduleResponse {
+
+    private Long id;
+    private String from;
+    private String to;
+    private LocalTime departureTime;
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer totalSeats;
+    private BigDecimal pricePerSeat;
+    private String carModel;
+    private String carNumber;
+    private String additionalInfo;
+    private boolean instantBooking;
+    private String status;
+
+    public RideScheduleResponse() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getFrom() { return from; }
+    public void setFrom(String from) { this.from = from; }
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+    public LocalTime getDepartureTime() { return departureTime; }
+    public void setDepartureTime(LocalTime departureTime) { this.departureTime = departureTime; }
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public Integer getTotalSeats() { return totalSeats; }
+    public void setTotalSeats(Integer totalSeats) { this.totalSeats = totalSeats; }
+    public BigDecimal getPricePerSeat() { return pricePerSeat; }
+    public void setPricePerSeat(BigDecimal pricePerSeat) { this.pricePerSeat = pricePerSeat; }
+    public String getCarModel() { return carModel; }
+    public void setCarModel(String carModel) { this.carModel = carModel; }
+    public String getCarNumber() { return carNumber; }
+    public void setCarNumber(String carNumber) { this.carNumber = carNumber; }
+    public String getAdditionalInfo() { return additionalInfo; }
+    public void setAdditionalInfo(String additionalInfo) { this.additionalInfo = additionalInfo; }
+    public boolean isInstantBooking() { return instantBooking; }
+    public void setInstantBooking(boolean instantBooking) { this.instantBooking = instantBooking; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
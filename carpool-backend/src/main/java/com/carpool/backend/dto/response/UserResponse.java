@@ -1,8 +1,10 @@
 package com.carpool.backend.dto.response;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
-public class UserResponse {
+// Serializable so the Redis cache provider can store it
+public class UserResponse implements Serializable {
 
     private Long id;
     private String firstName;
@@ -17,7 +17,9 @@ import java.util.List;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bookings_id")
+    @TableGenerator(name = "bookings_id", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "bookings", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -48,6 +50,11 @@ public class Booking {
 
     private String paymentId;
 
+    // Stop positions on a multi-stop ride, the booked seats being held on segments [fromStop, toStop)
+    private Integer fromStop;
+
+    private Integer toStop;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -131,6 +138,22 @@ public class Booking {
         this.paymentId = paymentId;
     }
 
+    public Integer getFromStop() {
+        return fromStop;
+    }
+
+    public void setFromStop(Integer fromStop) {
+        this.fromStop = fromStop;
+    }
+
+    public Integer getToStop() {
+        return toStop;
+    }
+
+    public void setToStop(Integer toStop) {
+        this.toStop = toStop;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,90 @@
+package com.carpool.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox read model: one row per user per conversation partner, carrying the
+ * latest message, how many of the partner's messages the owner has not read
+ * and the read watermark (the newest message id the owner has seen).
+ * Maintained by ConversationRepository.recordMessage and markReadUpTo, so
+ * listing conversations and marking them read never touch the messages table.
+ */
+@Entity
+@Table(name = "conversations")
+public class Conversation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "partner_id", nullable = false)
+    private User partner;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(name = "last_message_text", nullable = false, length = 1000)
+    private String lastMessageText;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "ride_id")
+    private Long rideId;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount = 0;
+
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public User getPartner() {
+        return partner;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public String getLastMessageText() {
+        return lastMessageText;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public Long getRideId() {
+        return rideId;
+    }
+
+    public Integer getUnreadCount() {
+        return unreadCount;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+}
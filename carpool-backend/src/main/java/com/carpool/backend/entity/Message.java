@@ -8,6 +8,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "messages")
 public class Message {
+    // Stays IDENTITY: chat pages and read watermarks order by id, which id blocks handed to
+    // several instances would no longer keep in send order
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,6 +42,13 @@ public class Message {
     @Column(name = "whatsapp_message_id")
     private String whatsappMessageId;
 
+    // Smaller and larger participant id, so both directions share one index range
+    @Column(name = "participant_low", nullable = false, updatable = false)
+    private Long participantLow;
+
+    @Column(name = "participant_high", nullable = false, updatable = false)
+    private Long participantHigh;
+
     public enum MessageType {
         TEXT, LOCATION, RIDE_REQUEST, BOOKING_CONFIRMATION
     }
@@ -133,4 +142,18 @@ public class Message {
     public void setWhatsappMessageId(String whatsappMessageId) {
         this.whatsappMessageId = whatsappMessageId;
     }
+
+    public Long getParticipantLow() {
+        return participantLow;
+    }
+
+    public Long getParticipantHigh() {
+        return participantHigh;
+    }
+
+    @PrePersist
+    protected void assignParticipants() {
+        participantLow = Math.min(sender.getId(), receiver.getId());
+        participantHigh = Math.max(sender.getId(), receiver.getId());
+    }
 }
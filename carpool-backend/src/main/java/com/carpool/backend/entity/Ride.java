@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -12,15 +13,21 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
+// Seat counts are changed with conditional updates in RideRepository; writing
+// only dirty columns keeps entity saves from overwriting them with stale values.
 @Entity
+@DynamicUpdate
 @Table(name = "rides")
 @EntityListeners(AuditingEntityListener.class)
 public class Ride {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "rides_id")
+    @TableGenerator(name = "rides_id", table = "id_sequences", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "rides", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -36,6 +43,19 @@ public class Ride {
     @Column(nullable = false)
     private String toLocation;
 
+    // Null when neither the client nor the gazetteer could place the location
+    private Double fromLatitude;
+
+    private Double fromLongitude;
+
+    private Double toLatitude;
+
+    private Double toLongitude;
+
+    // Encoded, simplified route from pickup to drop-off (see geo.Polyline); null when the driver sent none
+    @Column(columnDefinition = "TEXT")
+    private String routePolyline;
+
     @NotNull
     @Column(nullable = false)
     private LocalDate departureDate;
@@ -48,6 +68,7 @@ public class Ride {
     @Column(nullable = false)
     private Integer totalSeats;
 
+    // On multi-stop rides, the most seats free on any one segment (see RideStop)
     @Column(nullable = false)
     private Integer availableSeats;
 
@@ -70,6 +91,15 @@ public class Ride {
     @Column(nullable = false)
     private boolean instantBooking = false;
 
+    // Seats are booked per segment between stops rather than for the whole route
+    @Column(nullable = false)
+    private boolean multiStop = false;
+
+    // Set when the ride is an occurrence of a recurring schedule, created by its first booking
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "schedule_id", updatable = false)
+    private RideSchedule schedule;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
     private RideStatus status = RideStatus.ACTIVE;
@@ -85,6 +115,10 @@ public class Ride {
     @OneToMany(mappedBy = "ride", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings;
 
+    @OneToMany(mappedBy = "ride", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("position")
+    private List<RideStop> stops = new ArrayList<>();
+
     // Constructors
     public Ride() {}
 
@@ -136,6 +170,46 @@ public class Ride {
         this.toLocation = toLocation;
     }
 
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public String getRoutePolyline() {
+        return routePolyline;
+    }
+
+    public void setRoutePolyline(String routePolyline) {
+        this.routePolyline = routePolyline;
+    }
+
     public LocalDate getDepartureDate() {
         return departureDate;
     }
@@ -208,6 +282,22 @@ public class Ride {
         this.instantBooking = instantBooking;
     }
 
+    public RideSchedule getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(RideSchedule schedule) {
+        this.schedule = schedule;
+    }
+
+    public boolean isMultiStop() {
+        return multiStop;
+    }
+
+    public void setMultiStop(boolean multiStop) {
+        this.multiStop = multiStop;
+    }
+
     public RideStatus getStatus() {
         return status;
     }
@@ -240,6 +330,14 @@ public class Ride {
         this.bookings = bookings;
     }
 
+    public List<RideStop> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<RideStop> stops) {
+        this.stops = stops;
+    }
+
     // Utility methods
     public boolean hasAvailableSeats(int requestedSeats) {
         return availableSeats >= requestedSeats;
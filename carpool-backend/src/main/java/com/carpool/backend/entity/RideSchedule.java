@@ -0,0 +1,310 @@
+package com.carpool.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A ride offered every week on the same days, between two dates. Occurrences
+ * are not stored: search expands them on the fly, and the first booking of a
+ * date turns that occurrence into a Ride linked back here.
+ */
+@Entity
+@Table(name = "ride_schedules")
+@EntityListeners(AuditingEntityListener.class)
+public class RideSchedule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "driver_id", nullable = false)
+    private User driver;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String fromLocation;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String toLocation;
+
+    private Double fromLatitude;
+
+    private Double fromLongitude;
+
+    private Double toLatitude;
+
+    private Double toLongitude;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalTime departureTime;
+
+    // Bit (dayOfWeek - 1) is set for every day the ride runs, Monday being bit 0
+    @Column(nullable = false)
+    private int daysOfWeek;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @NotNull
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    @Positive
+    @Column(nullable = false)
+    private Integer totalSeats;
+
+    @NotNull
+    @Positive
+    @Column(nullable = false, precision = 8, scale = 2)
+    private BigDecimal pricePerSeat;
+
+    @NotBlank
+    @Column(nullable = false, length = 100)
+    private String carModel;
+
+    @NotBlank
+    @Column(nullable = false, length = 20)
+    private String carNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String additionalInfo;
+
+    @Column(nullable = false)
+    private boolean instantBooking = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ScheduleStatus status = ScheduleStatus.ACTIVE;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public RideSchedule() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getDriver() {
+        return driver;
+    }
+
+    public void setDriver(User driver) {
+        this.driver = driver;
+    }
+
+    public String getFromLocation() {
+        return fromLocation;
+    }
+
+    public void setFromLocation(String fromLocation) {
+        this.fromLocation = fromLocation;
+    }
+
+    public String getToLocation() {
+        return toLocation;
+    }
+
+    public void setToLocation(String toLocation) {
+        this.toLocation = toLocation;
+    }
+
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public void setFromLatitude(Double fromLatitude) {
+        this.fromLatitude = fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public void setFromLongitude(Double fromLongitude) {
+        this.fromLongitude = fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public void setToLatitude(Double toLatitude) {
+        this.toLatitude = toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public void setToLongitude(Double toLongitude) {
+        this.toLongitude = toLongitude;
+    }
+
+    public LocalTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public void setDepartureTime(LocalTime departureTime) {
+        this.departureTime = departureTime;
+    }
+
+    public int getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(int daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(Integer totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public BigDecimal getPricePerSeat() {
+        return pricePerSeat;
+    }
+
+    public void setPricePerSeat(BigDecimal pricePerSeat) {
+        this.pricePerSeat = pricePerSeat;
+    }
+
+    public String getCarModel() {
+        return carModel;
+    }
+
+    public void setCarModel(String carModel) {
+        this.carModel = carModel;
+    }
+
+    public String getCarNumber() {
+        return carNumber;
+    }
+
+    public void setCarNumber(String carNumber) {
+        this.carNumber = carNumber;
+    }
+
+    public String getAdditionalInfo() {
+        return additionalInfo;
+    }
+
+    public void setAdditionalInfo(String additionalInfo) {
+        this.additionalInfo = additionalInfo;
+    }
+
+    public boolean isInstantBooking() {
+        return instantBooking;
+    }
+
+    public void setInstantBooking(boolean instantBooking) {
+        this.instantBooking = instantBooking;
+    }
+
+    public ScheduleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduleStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Utility methods
+    public boolean isActive() {
+        return status == ScheduleStatus.ACTIVE;
+    }
+
+    public boolean occursOn(LocalDate date) {
+        return occursOn(daysOfWeek, startDate, endDate, date);
+    }
+
+    public static boolean occursOn(int daysOfWeek, LocalDate startDate, LocalDate endDate, LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate)
+                && (daysOfWeek & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+    }
+
+    public static int daysOfWeekMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> daysOfWeek(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    public enum ScheduleStatus {
+        ACTIVE, CANCELLED
+    }
+}
@@ -0,0 +1,103 @@
+package com.carpool.backend.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One stop of a multi-stop ride, origin and destination included. Segment i
+ * runs from stop i to stop i + 1; its booked seat count lives on stop i and is
+ * only changed with the conditional updates in RideStopRepository.
+ */
+@Entity
+@Table(name = "ride_stops")
+public class RideStop {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ride_id", nullable = false)
+    private Ride ride;
+
+    @Column(nullable = false)
+    private Integer position;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String location;
+
+    // Null when neither the client nor the gazetteer could place the stop
+    private Double latitude;
+
+    private Double longitude;
+
+    // Null on the last stop, which starts no segment
+    private Integer bookedSeats;
+
+    public RideStop() {}
+
+    public RideStop(Ride ride, Integer position, String location) {
+        this.ride = ride;
+        this.position = position;
+        this.location = location;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Ride getRide() {
+        return ride;
+    }
+
+    public void setRide(Ride ride) {
+        this.ride = ride;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Integer getBookedSeats() {
+        return bookedSeats;
+    }
+
+    public void setBookedSeats(Integer bookedSeats) {
+        this.bookedSeats = bookedSeats;
+    }
+}
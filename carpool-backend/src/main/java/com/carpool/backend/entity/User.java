@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@DynamicUpdate // profile saves must not overwrite the counters updated in place
 @Table(name = "users")
 @EntityListeners(AuditingEntityListener.class)
 public class User {
@@ -62,6 +64,13 @@ public class User {
     @Column(nullable = false)
     private Integer totalRides = 0;
 
+    // Running totals behind rating, kept in step by UserRepository.addRating
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(nullable = false)
+    private Integer ratingCount = 0;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal totalEarnings = BigDecimal.ZERO;
 
@@ -82,9 +91,6 @@ public class User {
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Notification> notifications;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private DriverVerification driverVerification;
-
     // Constructors
     public User() {}
 
@@ -201,6 +207,22 @@ public class User {
         this.totalRides = totalRides;
     }
 
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(Long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public Integer getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(Integer ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
     public BigDecimal getTotalEarnings() {
         return totalEarnings;
     }
@@ -249,14 +271,6 @@ public class User {
         this.notifications = notifications;
     }
 
-    public DriverVerification getDriverVerification() {
-        return driverVerification;
-    }
-
-    public void setDriverVerification(DriverVerification driverVerification) {
-        this.driverVerification = driverVerification;
-    }
-
     // Utility methods
     public String getFullName() {
         return firstName + " " + lastName;
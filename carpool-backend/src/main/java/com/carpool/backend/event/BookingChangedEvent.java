@@ -0,0 +1,54 @@
+package com.carpool.backend.event;
+
+import com.carpool.backend.entity.Booking;
+
+/**
+ * Published when a booking is created or changes status. Carries a detached
+ * snapshot so listeners running after commit never touch the persistence context.
+ */
+public class BookingChangedEvent {
+
+    private final Long bookingId;
+    private final Long rideId;
+    private final Long passengerId;
+    private final Long driverId;
+    private final Integer seatsBooked;
+    private final Booking.BookingStatus status;
+
+    private BookingChangedEvent(Booking booking) {
+        this.bookingId = booking.getId();
+        this.rideId = booking.getRide().getId();
+        this.passengerId = booking.getPassenger().getId();
+        this.driverId = booking.getRide().getDriver().getId();
+        this.seatsBooked = booking.getSeatsBooked();
+        this.status = booking.getStatus();
+    }
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(booking);
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public Long getRideId() {
+        return rideId;
+    }
+
+    public Long getPassengerId() {
+        return passengerId;
+    }
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+    public Integer getSeatsBooked() {
+        return seatsBooked;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,56 @@
+package com.carpool.backend.event;
+
+import com.carpool.backend.entity.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a chat message is stored. Carries a detached snapshot so
+ * listeners running after commit never touch the persistence context.
+ */
+public class MessageSentEvent {
+
+    private final Long messageId;
+    private final Long senderId;
+    private final String senderName;
+    private final Long receiverId;
+    private final String messageText;
+    private final LocalDateTime sentAt;
+
+    private MessageSentEvent(Message message) {
+        this.messageId = message.getId();
+        this.senderId = message.getSender().getId();
+        this.senderName = message.getSender().getFirstName() + " " + message.getSender().getLastName();
+        this.receiverId = message.getReceiver().getId();
+        this.messageText = message.getMessageText();
+        this.sentAt = message.getSentAt();
+    }
+
+    public static MessageSentEvent of(Message message) {
+        return new MessageSentEvent(message);
+    }
+
+    public Long getMessageId() {
+        return messageId;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+
+    public Long getReceiverId() {
+        return receiverId;
+    }
+
+    public String getMessageText() {
+        return messageText;
+    }
+
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.carpool.backend.event;
+
+import com.carpool.backend.entity.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an in-app notification is stored. Carries a detached snapshot
+ * so listeners running after commit never touch the persistence context.
+ */
+public class NotificationCreatedEvent {
+
+    private final Long notificationId;
+    private final Long userId;
+    private final String title;
+    private final String message;
+    private final String type;
+    private final LocalDateTime createdAt;
+
+    private NotificationCreatedEvent(Notification notification) {
+        this.notificationId = notification.getId();
+        this.userId = notification.getUser().getId();
+        this.title = notification.getTitle();
+        this.message = notification.getMessage();
+        this.type = notification.getType();
+        this.createdAt = notification.getCreatedAt();
+    }
+
+    public static NotificationCreatedEvent of(Notification notification) {
+        return new NotificationCreatedEvent(notification);
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
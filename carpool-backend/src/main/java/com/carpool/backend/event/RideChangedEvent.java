@@ -0,0 +1,163 @@
+package com.carpool.backend.event;
+
+import com.carpool.backend.entity.Ride;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Published whenever a ride is offered, edited, changes status, changes seat
+ * count or is deleted. Carries a detached snapshot of the ride so listeners
+ * running after commit never touch the persistence context.
+ * <p>
+ * Events are numbered as they are created. Every change publishes while it
+ * holds the ride's row lock, so for one ride a higher sequence was committed
+ * later, even when the after-commit listeners run in the other order.
+ */
+public class RideChangedEvent {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final long sequence;
+
+    private final Long rideId;
+    private final Long driverId;
+    private final Long scheduleId;
+    private final String fromLocation;
+    private final String toLocation;
+    private final Double fromLatitude;
+    private final Double fromLongitude;
+    private final Double toLatitude;
+    private final Double toLongitude;
+    private final String routePolyline;
+    private final LocalDate departureDate;
+    private final LocalTime departureTime;
+    private final BigDecimal pricePerSeat;
+    private final Integer totalSeats;
+    private final Integer availableSeats;
+    private final Ride.RideStatus status;
+    private final boolean deleted;
+
+    private RideChangedEvent(Ride ride, boolean deleted) {
+        this(ride, ride.getAvailableSeats(), deleted, SEQUENCE.incrementAndGet());
+    }
+
+    private RideChangedEvent(Ride ride, Integer availableSeats, boolean deleted, long sequence) {
+        this.sequence = sequence;
+        this.rideId = ride.getId();
+        this.driverId = ride.getDriver() != null ? ride.getDriver().getId() : null;
+        this.scheduleId = ride.getSchedule() != null ? ride.getSchedule().getId() : null;
+        this.fromLocation = ride.getFromLocation();
+        this.toLocation = ride.getToLocation();
+        this.fromLatitude = ride.getFromLatitude();
+        this.fromLongitude = ride.getFromLongitude();
+        this.toLatitude = ride.getToLatitude();
+        this.toLongitude = ride.getToLongitude();
+        this.routePolyline = ride.getRoutePolyline();
+        this.departureDate = ride.getDepartureDate();
+        this.departureTime = ride.getDepartureTime();
+        this.pricePerSeat = ride.getPricePerSeat();
+        this.totalSeats = ride.getTotalSeats();
+        this.availableSeats = availableSeats;
+        this.status = ride.getStatus();
+        this.deleted = deleted;
+    }
+
+    public static RideChangedEvent updated(Ride ride) {
+        return new RideChangedEvent(ride, false);
+    }
+
+    // For seat changes made with a bulk update, where the loaded entity is stale
+    public static RideChangedEvent updated(Ride ride, int availableSeats) {
+        return new RideChangedEvent(ride, availableSeats, false, SEQUENCE.incrementAndGet());
+    }
+
+    // A row read while an index is rebuilt; any change published for the ride supersedes it
+    public static RideChangedEvent loaded(Ride ride) {
+        return new RideChangedEvent(ride, ride.getAvailableSeats(), false, 0);
+    }
+
+    public static RideChangedEvent deleted(Ride ride) {
+        return new RideChangedEvent(ride, true);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Long getRideId() {
+        return rideId;
+    }
+
+    public Long getDriverId() {
+        return driverId;
+    }
+
+    // Set when the ride is an occurrence of a recurring schedule
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public String getFromLocation() {
+        return fromLocation;
+    }
+
+    public String getToLocation() {
+        return toLocation;
+    }
+
+    public Double getFromLatitude() {
+        return fromLatitude;
+    }
+
+    public Double getFromLongitude() {
+        return fromLongitude;
+    }
+
+    public Double getToLatitude() {
+        return toLatitude;
+    }
+
+    public Double getToLongitude() {
+        return toLongitude;
+    }
+
+    public String getRoutePolyline() {
+        return routePolyline;
+    }
+
+    public LocalDate getDepartureDate() {
+        return departureDate;
+    }
+
+    public LocalTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public BigDecimal getPricePerSeat() {
+        return pricePerSeat;
+    }
+
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public Ride.RideStatus getStatus() {
+        return status;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    // A ride is searchable only while it exists and is still active
+    public boolean isSearchable() {
+        return !deleted && status == Ride.RideStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,83 @@
+package com.carpool.backend.event;
+
+import com.carpool.backend.entity.RideSchedule;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Published when a recurring ride schedule is created or cancelled. Carries a
+ * detached snapshot so listeners running after commit never touch the
+ * persistence context.
+ */
+public class RideScheduleChangedEvent {
+
+    private final Long scheduleId;
+    private final String fromLocation;
+    private final String toLocation;
+    private final LocalTime departureTime;
+    private final int daysOfWeek;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Integer totalSeats;
+    private final BigDecimal pricePerSeat;
+    private final boolean active;
+
+    private RideScheduleChangedEvent(RideSchedule schedule) {
+        this.scheduleId = schedule.getId();
+        this.fromLocation = schedule.getFromLocation();
+        this.toLocation = schedule.getToLocation();
+        this.departureTime = schedule.getDepartureTime();
+        this.daysOfWeek = schedule.getDaysOfWeek();
+        this.startDate = schedule.getStartDate();
+        this.endDate = schedule.getEndDate();
+        this.totalSeats = schedule.getTotalSeats();
+        this.pricePerSeat = schedule.getPricePerSeat();
+        this.active = schedule.isActive();
+    }
+
+    public static RideScheduleChangedEvent of(RideSchedule schedule) {
+        return new RideScheduleChangedEvent(schedule);
+    }
+
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public String getFromLocation() {
+        return fromLocation;
+    }
+
+    public String getToLocation() {
+        return toLocation;
+    }
+
+    public LocalTime getDepartureTime() {
+        return departureTime;
+    }
+
+    public int getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    public BigDecimal getPricePerSeat() {
+        return pricePerSeat;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
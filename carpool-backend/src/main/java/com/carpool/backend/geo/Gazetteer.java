@@ -0,0 +1,81 @@
+package com.carpool.backend.geo;
+
+import com.carpool.backend.search.RideSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Offline place-name lookup backed by the bundled geo/gazetteer.csv, used to
+ * give rides coordinates when the client does not send any. Names and aliases
+ * are matched after the same normalization as ride search. Free text such as
+ * "Hinjewadi Phase 2, Pune" is tried as a whole first and then one
+ * comma-separated part at a time, most specific first.
+ */
+@Component
+public class Gazetteer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Gazetteer.class);
+
+    static final String RESOURCE = "geo/gazetteer.csv";
+
+    private final Map<String, GeoPoint> placesByName = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ClassPathResource(RESOURCE).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                GeoPoint point = new GeoPoint(Double.parseDouble(columns[1]), Double.parseDouble(columns[2]));
+                placesByName.put(RideSearchIndex.normalize(columns[0]), point);
+                if (columns.length > 3 && !columns[3].isBlank()) {
+                    for (String alias : columns[3].split("\\|")) {
+                        placesByName.putIfAbsent(RideSearchIndex.normalize(alias), point);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + RESOURCE, e);
+        }
+        logger.info("Gazetteer loaded with {} place names", placesByName.size());
+    }
+
+    public Optional<GeoPoint> resolve(String location) {
+        String key = RideSearchIndex.normalize(location);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        GeoPoint point = placesByName.get(key);
+        if (point != null) {
+            return Optional.of(point);
+        }
+        for (String part : key.split(",")) {
+            point = placesByName.get(part.trim());
+            if (point != null) {
+                return Optional.of(point);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public int size() {
+        return placesByName.size();
+    }
+}
@@ -0,0 +1,81 @@
+package com.carpool.backend.geo;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Geohash cells at a fixed precision, kept as their integer value rather than
+ * the base32 string. Shared by the spatial indexes so a point or segment
+ * always lands in the same cells.
+ */
+public final class GeoCells {
+
+    public static final double KM_PER_DEGREE = Math.toRadians(GeoPoint.EARTH_RADIUS_KM);
+
+    /** About 4.9 x 4.9 km at the equator. */
+    public static final GeoCells PRECISION_5 = new GeoCells(5);
+
+    /** About 1.2 x 0.6 km at the equator. */
+    public static final GeoCells PRECISION_6 = new GeoCells(6);
+
+    // Each geohash character is 5 bits, alternating longitude and latitude starting with longitude
+    private final int bits;
+    private final int lonBits;
+    private final int latBits;
+    private final double cellLatDegrees;
+    private final double cellLonDegrees;
+
+    private GeoCells(int precision) {
+        this.bits = precision * 5;
+        this.lonBits = (bits + 1) / 2;
+        this.latBits = bits / 2;
+        this.cellLatDegrees = 180.0 / (1 << latBits);
+        this.cellLonDegrees = 360.0 / (1 << lonBits);
+    }
+
+    /** The cell containing the point. */
+    public long cell(double latitude, double longitude) {
+        return cell(row(latitude), column(longitude));
+    }
+
+    /** Every cell overlapping the box, which may be degenerate (a point or a line). */
+    public void forEachCell(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                            LongConsumer action) {
+        int maxRow = row(maxLatitude);
+        int maxColumn = column(maxLongitude);
+        for (int row = row(minLatitude); row <= maxRow; row++) {
+            for (int column = column(minLongitude); column <= maxColumn; column++) {
+                action.accept(cell(row, column));
+            }
+        }
+    }
+
+    /** Every cell overlapping the box around a circle of {@code radiusKm} around the point. */
+    public void forEachCellWithin(GeoPoint center, double radiusKm, LongConsumer action) {
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double lonSpan = latSpan / Math.max(Math.cos(Math.toRadians(center.latitude())), 0.01);
+        forEachCell(center.latitude() - latSpan, center.longitude() - lonSpan,
+                center.latitude() + latSpan, center.longitude() + lonSpan, action);
+    }
+
+    private long cell(int row, int column) {
+        long hash = 0;
+        int lonBit = lonBits;
+        int latBit = latBits;
+        for (int bit = 0; bit < bits; bit++) {
+            if (bit % 2 == 0) {
+                hash = (hash << 1) | ((column >> --lonBit) & 1);
+            } else {
+                hash = (hash << 1) | ((row >> --latBit) & 1);
+            }
+        }
+        return hash;
+    }
+
+    private int row(double latitude) {
+        return Math.clamp((long) Math.floor((latitude + 90) / cellLatDegrees), 0, (1 << latBits) - 1);
+    }
+
+    private int column(double longitude) {
+        return Math.clamp((long) Math.floor((longitude + 180) / cellLonDegrees), 0, (1 << lonBits) - 1);
+    }
+}
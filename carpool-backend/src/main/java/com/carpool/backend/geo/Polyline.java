@@ -0,0 +1,138 @@
+package com.carpool.backend.geo;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Routes as encoded polylines in the Google polyline format (coordinates at
+ * 1e-5 degrees, delta and zigzag encoded, five bits per character), which is
+ * what map SDKs hand back for a planned route. Routes are simplified when a
+ * ride is saved so that indexing and matching work on a few dozen points
+ * instead of the thousands a turn-by-turn route carries.
+ */
+public final class Polyline {
+
+    /** Points closer than this to the simplified line are dropped. */
+    public static final double SIMPLIFY_TOLERANCE_KM = 0.2;
+
+    private Polyline() {
+    }
+
+    public static String encode(List<GeoPoint> points) {
+        StringBuilder encoded = new StringBuilder(points.size() * 8);
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (GeoPoint point : points) {
+            long latitude = Math.round(point.latitude() * 1e5);
+            long longitude = Math.round(point.longitude() * 1e5);
+            encodeValue(latitude - previousLatitude, encoded);
+            encodeValue(longitude - previousLongitude, encoded);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return encoded.toString();
+    }
+
+    /** Decodes an encoded polyline; throws IllegalArgumentException when it is malformed. */
+    public static List<GeoPoint> decode(String encoded) {
+        List<GeoPoint> points = new ArrayList<>();
+        int[] index = {0};
+        long latitude = 0;
+        long longitude = 0;
+        while (index[0] < encoded.length()) {
+            latitude += decodeValue(encoded, index);
+            longitude += decodeValue(encoded, index);
+            points.add(new GeoPoint(latitude / 1e5, longitude / 1e5));
+        }
+        return points;
+    }
+
+    /**
+     * Douglas-Peucker simplification keeping the first and last point. Distances
+     * are measured on a local flat projection, which is accurate enough at the
+     * scale of a single ride.
+     */
+    public static List<GeoPoint> simplify(List<GeoPoint> points, double toleranceKm) {
+        if (points.size() < 3) {
+            return new ArrayList<>(points);
+        }
+        boolean[] keep = new boolean[points.size()];
+        keep[0] = true;
+        keep[points.size() - 1] = true;
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[] {0, points.size() - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int farthest = -1;
+            double farthestKm = toleranceKm;
+            for (int i = range[0] + 1; i < range[1]; i++) {
+                double km = distanceToSegmentKm(points.get(i), points.get(range[0]), points.get(range[1]));
+                if (km > farthestKm) {
+                    farthest = i;
+                    farthestKm = km;
+                }
+            }
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                ranges.push(new int[] {range[0], farthest});
+                ranges.push(new int[] {farthest, range[1]});
+            }
+        }
+        List<GeoPoint> simplified = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (keep[i]) {
+                simplified.add(points.get(i));
+            }
+        }
+        return simplified;
+    }
+
+    /** Distance from {@code point} to the segment a-b, on a flat projection around the point. */
+    public static double distanceToSegmentKm(GeoPoint point, GeoPoint a, GeoPoint b) {
+        double scale = Math.cos(Math.toRadians(point.latitude()));
+        double ax = (a.longitude() - point.longitude()) * scale;
+        double ay = a.latitude() - point.latitude();
+        double bx = (b.longitude() - point.longitude()) * scale;
+        double by = b.latitude() - point.latitude();
+        return Math.sqrt(distanceToSegmentSquared(ax, ay, bx, by)) * GeoCells.KM_PER_DEGREE;
+    }
+
+    private static double distanceToSegmentSquared(double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : Math.clamp(-(ax * dx + ay * dy) / lengthSquared, 0.0, 1.0);
+        double x = ax + t * dx;
+        double y = ay + t * dy;
+        return x * x + y * y;
+    }
+
+    private static void encodeValue(long value, StringBuilder encoded) {
+        long bits = value < 0 ? ~(value << 1) : value << 1;
+        while (bits >= 0x20) {
+            encoded.append((char) ((0x20 | (bits & 0x1f)) + 63));
+            bits >>= 5;
+        }
+        encoded.append((char) (bits + 63));
+    }
+
+    private static long decodeValue(String encoded, int[] index) {
+        long bits = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (index[0] >= encoded.length() || shift > 60) {
+                throw new IllegalArgumentException("Malformed polyline");
+            }
+            chunk = encoded.charAt(index[0]++) - 63;
+            if (chunk < 0 || chunk > 0x3f) {
+                throw new IllegalArgumentException("Malformed polyline");
+            }
+            bits |= (long) (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        return (bits & 1) != 0 ? ~(bits >> 1) : bits >> 1;
+    }
+}
@@ -0,0 +1,56 @@
+package com.carpool.backend.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bridges Micrometer observations to JFR. Spring Boot registers every
+ * {@link ObservationHandler} bean with the observation registry, so each HTTP
+ * request, scheduled job and security filter run becomes an
+ * {@link ObservationEvent} in a flight recording. When no recording has the
+ * event enabled, only the enabled check is paid.
+ */
+@Component
+@ConditionalOnProperty(name = "observability.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrObservationHandler implements ObservationHandler<Observation.Context> {
+
+    @Override
+    public void onStart(Observation.Context context) {
+        ObservationEvent event = new ObservationEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            context.put(ObservationEvent.class, event);
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        ObservationEvent event = context.get(ObservationEvent.class);
+        if (event == null) {
+            return;
+        }
+        context.remove(ObservationEvent.class);
+        event.end();
+        if (event.shouldCommit()) {
+            event.name = context.getName();
+            event.contextualName = context.getContextualName();
+            event.tags = StreamSupport.stream(context.getLowCardinalityKeyValues().spliterator(), false)
+                    .map(keyValue -> keyValue.getKey() + "=" + keyValue.getValue())
+                    .collect(Collectors.joining(","));
+            if (context.getError() != null) {
+                event.error = context.getError().getClass().getName();
+            }
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+}
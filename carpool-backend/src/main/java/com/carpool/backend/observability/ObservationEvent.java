@@ -0,0 +1,35 @@
+package com.carpool.backend.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one Micrometer observation, such as an HTTP request or a
+ * scheduled job run. Its duration is the observation's, and it is recorded on
+ * the thread that started it, so it lines up with the CPU, lock and socket
+ * events of the same recording.
+ */
+@Name("com.carpool.Observation")
+@Label("Observation")
+@Category({"Carpool", "Observations"})
+@Description("A Micrometer observation: HTTP request, scheduled job or security filter")
+@StackTrace(false)
+class ObservationEvent extends Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Contextual Name")
+    String contextualName;
+
+    @Label("Tags")
+    @Description("Low-cardinality key values, e.g. uri=/rides/{id},method=GET,status=200")
+    String tags;
+
+    @Label("Error")
+    String error;
+}
@@ -0,0 +1,15 @@
+package com.carpool.backend.push;
+
+import java.security.Principal;
+
+/**
+ * Principal attached to a STOMP session. Its name is the user id, so
+ * {@code convertAndSendToUser(userId, ...)} routes to that user's sessions.
+ */
+public record PushPrincipal(Long userId) implements Principal {
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -0,0 +1,82 @@
+package com.carpool.backend.push;
+
+import com.carpool.backend.event.BookingChangedEvent;
+import com.carpool.backend.event.MessageSentEvent;
+import com.carpool.backend.event.NotificationCreatedEvent;
+import com.carpool.backend.event.RideChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns committed domain events into push messages on both channels:
+ * <ul>
+ *   <li>new messages to the receiver: /user/queue/messages, SSE event "message"</li>
+ *   <li>new notifications to their user: /user/queue/notifications, SSE event "notification"</li>
+ *   <li>booking changes to the passenger and driver: /user/queue/bookings, SSE event "booking"</li>
+ *   <li>seat and status changes to ride followers: /topic/rides/{id}, SSE event "ride"</li>
+ * </ul>
+ */
+@Component
+public class PushPublisher {
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SseHub sseHub;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", event.getMessageId());
+        payload.put("senderId", event.getSenderId());
+        payload.put("senderName", event.getSenderName());
+        payload.put("messageText", event.getMessageText());
+        payload.put("sentAt", event.getSentAt());
+        toUser(event.getReceiverId(), "messages", "message", payload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", event.getNotificationId());
+        payload.put("title", event.getTitle());
+        payload.put("message", event.getMessage());
+        payload.put("type", event.getType());
+        payload.put("createdAt", event.getCreatedAt());
+        toUser(event.getUserId(), "notifications", "notification", payload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("bookingId", event.getBookingId());
+        payload.put("rideId", event.getRideId());
+        payload.put("passengerId", event.getPassengerId());
+        payload.put("seatsBooked", event.getSeatsBooked());
+        payload.put("status", event.getStatus());
+        toUser(event.getPassengerId(), "bookings", "booking", payload);
+        toUser(event.getDriverId(), "bookings", "booking", payload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("rideId", event.getRideId());
+        payload.put("availableSeats", event.getAvailableSeats());
+        payload.put("totalSeats", event.getTotalSeats());
+        payload.put("status", event.isDeleted() ? "DELETED" : event.getStatus());
+        messagingTemplate.convertAndSend("/topic/rides/" + event.getRideId(), payload);
+        sseHub.sendToRide(event.getRideId(), "ride", payload);
+    }
+
+    private void toUser(Long userId, String queue, String sseEvent, Object payload) {
+        messagingTemplate.convertAndSendToUser(String.valueOf(userId), "/queue/" + queue, payload);
+        sseHub.sendToUser(userId, sseEvent, payload);
+    }
+}
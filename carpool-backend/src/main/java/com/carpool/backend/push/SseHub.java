@@ -0,0 +1,269 @@
+package com.carpool.backend.push;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent events fallback for clients that cannot hold a WebSocket. Each
+ * stream is an async servlet response, so an idle stream holds a socket and a
+ * small map entry but no thread. Writes go through a separate executor so a
+ * slow client never stalls the request thread that committed the change.
+ * <p>
+ * Every stream queues its own events and has at most one send task at a time,
+ * which writes them in order. The executor queue therefore never holds more
+ * tasks than there are open streams. A stream that falls more than
+ * push.sse.max-pending-events behind is closed, and EventSource reconnects it.
+ */
+@Component
+public class SseHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseHub.class);
+
+    private final Map<Long, Set<Stream>> userStreams = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Stream>> rideStreams = new ConcurrentHashMap<>();
+
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    // Counted here and logged once per heartbeat rather than once per stream
+    private final AtomicLong rejectedSends = new AtomicLong();
+
+    private final AtomicLong overflowedStreams = new AtomicLong();
+
+    @Value("${push.sse.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${push.sse.max-ride-subscriptions:20}")
+    private int maxRideSubscriptions;
+
+    @Value("${push.sse.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${push.sse.max-pending-events:100}")
+    private int maxPendingEvents;
+
+    // One send task per open stream at most, plus the heartbeat sweep
+    @Value("${server.tomcat.max-connections:8192}")
+    private int maxConnections;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private AsyncTaskExecutor sendExecutor;
+
+    @PostConstruct
+    public void startExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-send-");
+            executor.setVirtualThreads(true);
+            sendExecutor = executor;
+            return;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(senderThreads);
+        executor.setMaxPoolSize(senderThreads);
+        executor.setQueueCapacity(maxConnections + 1);
+        executor.setThreadNamePrefix("sse-send-");
+        executor.initialize();
+        sendExecutor = executor;
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        if (sendExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (sendExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+
+    /**
+     * Opens a stream for the user, optionally also following seat changes on the
+     * given rides. The stream times out after push.sse.timeout-ms; EventSource
+     * reconnects on its own.
+     */
+    public SseEmitter open(Long userId, Collection<Long> rideIds) {
+        if (rideIds.size() > maxRideSubscriptions) {
+            throw new RuntimeException("Cannot follow more than " + maxRideSubscriptions + " rides per stream");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Stream stream = new Stream(emitter);
+        add(userStreams, userId, stream);
+        rideIds.forEach(rideId -> add(rideStreams, rideId, stream));
+        openStreams.incrementAndGet();
+
+        Runnable close = () -> {
+            if (remove(userStreams, userId, stream)) {
+                rideIds.forEach(rideId -> remove(rideStreams, rideId, stream));
+                openStreams.decrementAndGet();
+                stream.pending.clear();
+            }
+        };
+        emitter.onCompletion(close);
+        emitter.onTimeout(close);
+        emitter.onError(error -> close.run());
+        return emitter;
+    }
+
+    public void sendToUser(Long userId, String event, Object payload) {
+        send(userStreams.get(userId), event, payload);
+    }
+
+    public void sendToRide(Long rideId, String event, Object payload) {
+        send(rideStreams.get(rideId), event, payload);
+    }
+
+    public int getOpenStreams() {
+        return openStreams.get();
+    }
+
+    /**
+     * Pings every idle stream from a single task; streams busy sending need no
+     * ping. Comment lines keep proxies and load balancers from closing idle streams.
+     */
+    @Scheduled(fixedDelayString = "${push.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long rejected = rejectedSends.getAndSet(0);
+        if (rejected > 0) {
+            logger.warn("SSE send queue was full {} times since the last heartbeat; "
+                    + "those streams send on their next event", rejected);
+        }
+        long overflowed = overflowedStreams.getAndSet(0);
+        if (overflowed > 0) {
+            logger.warn("Closed {} SSE streams that fell more than {} events behind", overflowed, maxPendingEvents);
+        }
+
+        try {
+            sendExecutor.execute(() -> {
+                for (Set<Stream> streams : userStreams.values()) {
+                    for (Stream stream : streams) {
+                        if (stream.sending.compareAndSet(false, true)) {
+                            if (write(stream, SseEmitter.event().comment("ping"))) {
+                                drain(stream);
+                            } else {
+                                stream.sending.set(false);
+                            }
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("SSE send queue is full, skipping this heartbeat");
+        }
+    }
+
+    private void send(Set<Stream> streams, String event, Object payload) {
+        if (streams == null) {
+            return;
+        }
+        for (Stream stream : streams) {
+            if (stream.pendingCount.incrementAndGet() > maxPendingEvents) {
+                stream.pendingCount.decrementAndGet();
+                if (stream.overflowed.compareAndSet(false, true)) {
+                    overflowedStreams.incrementAndGet();
+                    stream.emitter.complete();
+                }
+                continue;
+            }
+            stream.pending.add(SseEmitter.event().name(event).data(payload));
+            schedule(stream);
+        }
+    }
+
+    private void schedule(Stream stream) {
+        if (!stream.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            // The events stay queued on the stream for its next send or heartbeat
+            stream.sending.set(false);
+            rejectedSends.incrementAndGet();
+        }
+    }
+
+    // Runs with the stream's sending flag held, and releases it once nothing is queued
+    private void drain(Stream stream) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = stream.pending.poll()) != null) {
+                stream.pendingCount.decrementAndGet();
+                if (!write(stream, event)) {
+                    stream.pending.clear();
+                    stream.pendingCount.set(0);
+                }
+            }
+            stream.sending.set(false);
+            // An event queued after the last poll found the flag still held, so it is sent here
+            if (stream.pending.isEmpty() || !stream.sending.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private boolean write(Stream stream, SseEmitter.SseEventBuilder event) {
+        try {
+            stream.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; completing fires the cleanup callback
+            stream.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static void add(Map<Long, Set<Stream>> streams, Long key, Stream stream) {
+        streams.compute(key, (k, existing) -> {
+            Set<Stream> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            set.add(stream);
+            return set;
+        });
+    }
+
+    private static boolean remove(Map<Long, Set<Stream>> streams, Long key, Stream stream) {
+        boolean[] removed = new boolean[1];
+        streams.computeIfPresent(key, (k, existing) -> {
+            removed[0] = existing.remove(stream);
+            return existing.isEmpty() ? null : existing;
+        });
+        return removed[0];
+    }
+
+    /** An open emitter and the events waiting to be written to it. */
+    private static final class Stream {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        // Held by whichever task is writing to the emitter
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean overflowed = new AtomicBoolean();
+
+        private Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.carpool.backend.push;
+
+import com.carpool.backend.security.CustomUserDetailsService;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.carpool.backend.security.JwtTokenUtil;
+import com.carpool.backend.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions. Browsers cannot set headers on the WebSocket
+ * handshake, so /ws is open and the access token is checked on CONNECT
+ * instead, from the {@code Authorization: Bearer} native header. Clients may
+ * only subscribe to their own queues and to ride seat topics.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String destination = accessor.getDestination();
+            if (destination == null
+                    || !(destination.startsWith("/user/queue/") || destination.startsWith("/topic/rides/"))) {
+                throw new MessageDeliveryException("Cannot subscribe to " + destination);
+            }
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            // Push is one-way; clients talk to the REST API
+            throw new MessageDeliveryException("Sending over the push channel is not supported");
+        }
+        return message;
+    }
+
+    private PushPrincipal authenticate(String header) {
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+        try {
+            VerifiedToken verified = jwtTokenUtil.verify(header.substring(7));
+            CustomUserPrincipal principal = userDetailsService.loadUserByToken(verified);
+            if (!jwtTokenUtil.validate(verified, principal)) {
+                throw new MessageDeliveryException("Invalid token");
+            }
+            return new PushPrincipal(principal.getUserId());
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            throw new MessageDeliveryException("Invalid token");
+        }
+    }
+}
@@ -23,12 +23,17 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByRideIdAndStatus(@Param("rideId") Long rideId,
                                         @Param("status") Booking.BookingStatus status);
 
-    @Query("SELECT b FROM Booking b WHERE b.passenger.id = :passengerId " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.ride r JOIN FETCH r.driver JOIN FETCH b.passenger " +
+           "WHERE b.passenger.id = :passengerId " +
            "ORDER BY b.createdAt DESC")
     List<Booking> findByPassengerIdOrderByCreatedAtDesc(@Param("passengerId") Long passengerId);
 
-    @Query("SELECT b FROM Booking b WHERE b.ride.driver.id = :driverId " +
+    @Query("SELECT b FROM Booking b JOIN FETCH b.ride r JOIN FETCH r.driver JOIN FETCH b.passenger " +
+           "WHERE r.driver.id = :driverId " +
            "ORDER BY b.createdAt DESC")
     List<Booking> findByDriverIdOrderByCreatedAtDesc(@Param("driverId") Long driverId);
 
+    @Query("SELECT DISTINCT b.ride.id FROM Booking b WHERE b.passenger.id = :passengerId")
+    List<Long> findRideIdsByPassengerId(@Param("passengerId") Long passengerId);
+
 }
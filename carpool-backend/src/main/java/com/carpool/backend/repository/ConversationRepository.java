@@ -0,0 +1,58 @@
+package com.carpool.backend.repository;
+
+import com.carpool.backend.entity.Conversation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+
+    // The owner's inbox, most recent conversation first; a range read on (owner_id, last_message_at)
+    @Query(value = "SELECT c FROM Conversation c JOIN FETCH c.partner WHERE c.ownerId = :ownerId " +
+                   "ORDER BY c.lastMessageAt DESC, c.id DESC",
+           countQuery = "SELECT COUNT(c) FROM Conversation c WHERE c.ownerId = :ownerId")
+    Page<Conversation> findInbox(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    Optional<Conversation> findByOwnerIdAndPartnerId(Long ownerId, Long partnerId);
+
+    /**
+     * Upserts the owner's row for a new message. The last-message columns only
+     * move forward, so concurrent sends applied out of order keep the newest;
+     * they are assigned before last_message_id because MySQL evaluates SET
+     * assignments left to right. {@code unread} is 1 when the owner received it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversations (owner_id, partner_id, last_message_id, last_sender_id, " +
+                   "last_message_text, last_message_at, ride_id, unread_count) " +
+                   "VALUES (:ownerId, :partnerId, :messageId, :senderId, :text, :sentAt, :rideId, :unread) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "last_sender_id = CASE WHEN :messageId > last_message_id THEN :senderId ELSE last_sender_id END, " +
+                   "last_message_text = CASE WHEN :messageId > last_message_id THEN :text ELSE last_message_text END, " +
+                   "last_message_at = CASE WHEN :messageId > last_message_id THEN :sentAt ELSE last_message_at END, " +
+                   "ride_id = CASE WHEN :messageId > last_message_id THEN :rideId ELSE ride_id END, " +
+                   "last_message_id = GREATEST(last_message_id, :messageId), " +
+                   "unread_count = unread_count + :unread",
+           nativeQuery = true)
+    int recordMessage(@Param("ownerId") Long ownerId, @Param("partnerId") Long partnerId,
+                      @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                      @Param("text") String text, @Param("sentAt") LocalDateTime sentAt,
+                      @Param("rideId") Long rideId, @Param("unread") int unread);
+
+    // Advances the read watermark; the unread count is cleared only when nothing newer has arrived.
+    // Returns 0 when the watermark was already at or past lastSeenId, so repeat views write nothing.
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastReadMessageId = :lastSeenId, " +
+           "c.unreadCount = CASE WHEN c.lastMessageId <= :lastSeenId THEN 0 ELSE c.unreadCount END " +
+           "WHERE c.ownerId = :ownerId AND c.partner.id = :partnerId " +
+           "AND (c.lastReadMessageId IS NULL OR c.lastReadMessageId < :lastSeenId)")
+    int markReadUpTo(@Param("ownerId") Long ownerId, @Param("partnerId") Long partnerId,
+                     @Param("lastSeenId") Long lastSeenId);
+}
@@ -2,9 +2,9 @@ package com.carpool.backend.repository;
 
 import com.carpool.backend.entity.Message;
 import com.carpool.backend.entity.User;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,22 +14,13 @@ import java.util.List;
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
-    // Get conversation between two users
-    @Query("SELECT m FROM Message m WHERE " +
-           "(m.sender = :user1 AND m.receiver = :user2) OR " +
-           "(m.sender = :user2 AND m.receiver = :user1) " +
-           "ORDER BY m.sentAt ASC")
-    List<Message> findConversationBetweenUsers(@Param("user1") User user1, @Param("user2") User user2);
-
-    // Get all conversations for a user (latest message from each conversation)
-    @Query("SELECT m FROM Message m WHERE m.id IN (" +
-           "SELECT MAX(m2.id) FROM Message m2 WHERE " +
-           "m2.sender = :user OR m2.receiver = :user " +
-           "GROUP BY CASE " +
-           "WHEN m2.sender = :user THEN m2.receiver " +
-           "ELSE m2.sender END) " +
-           "ORDER BY m.sentAt DESC")
-    Page<Message> findLatestConversationsForUser(@Param("user") User user, Pageable pageable);
+    // One page of a conversation, newest first, read from the (low, high, id) index.
+    // Pass the smaller user id as low; page size comes from the Pageable.
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE " +
+           "m.participantLow = :low AND m.participantHigh = :high AND m.id < :beforeId " +
+           "ORDER BY m.id DESC")
+    List<Message> findConversationPage(@Param("low") Long low, @Param("high") Long high,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
 
     // Get unread messages for a user
     @Query("SELECT m FROM Message m WHERE m.receiver = :user AND m.isRead = false ORDER BY m.sentAt DESC")
@@ -39,11 +30,17 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver = :user AND m.isRead = false")
     long countUnreadMessagesForUser(@Param("user") User user);
 
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver.id = :userId AND m.isRead = false")
+    long countUnreadMessagesForUserId(@Param("userId") Long userId);
+
     // Get messages related to a specific ride
     @Query("SELECT m FROM Message m WHERE m.ride.id = :rideId ORDER BY m.sentAt ASC")
     List<Message> findMessagesByRideId(@Param("rideId") Long rideId);
 
-    // Mark messages as read
-    @Query("UPDATE Message m SET m.isRead = true WHERE m.receiver = :user AND m.sender = :sender AND m.isRead = false")
-    void markMessagesAsRead(@Param("user") User user, @Param("sender") User sender);
+    // Mark messages up to a read watermark as read; returns the rows changed
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.receiver.id = :readerId AND m.sender.id = :senderId " +
+           "AND m.id <= :lastSeenId AND m.isRead = false")
+    int markReadUpTo(@Param("readerId") Long readerId, @Param("senderId") Long senderId,
+                     @Param("lastSeenId") Long lastSeenId);
 }
@@ -32,14 +32,20 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     long countUnreadByUserId(@Param("userId") Long userId);
 
+    // Both return the rows changed, which is what the unread counters subtract
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId")
-    void markAllAsReadByUserId(@Param("userId") Long userId);
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId);
 
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :notificationId")
     void markAsRead(@Param("notificationId") Long notificationId);
 
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.id = :notificationId AND n.user.id = :userId AND n.isRead = false")
+    int markAsReadForUser(@Param("notificationId") Long notificationId, @Param("userId") Long userId);
+
     @Query("SELECT n FROM Notification n WHERE n.createdAt <= :cutoffDate")
     List<Notification> findOldNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
 
@@ -3,6 +3,7 @@ package com.carpool.backend.repository;
 import java.math.BigDecimal;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,8 +19,10 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
 	@Query("SELECT AVG(r.rating) FROM Rating r WHERE r.ratee.id = :userId")
     BigDecimal findAverageRatingByUserId(@Param("userId") Long userId);
 
-	@Query("SELECT r FROM Rating r WHERE r.ratee.id = :userId ORDER BY r.createdAt DESC")
+	@Query("SELECT r FROM Rating r JOIN FETCH r.rater JOIN FETCH r.ratee " +
+           "WHERE r.ratee.id = :userId ORDER BY r.createdAt DESC")
     List<Rating> findRecentRatingsByUserId(@Param("userId") Long userId);
 
+    @EntityGraph(attributePaths = {"rater", "ratee"})
     List<Rating> findByRateeId(Long rateeId);
 }
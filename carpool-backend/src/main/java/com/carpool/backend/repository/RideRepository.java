@@ -1,11 +1,15 @@
 package com.carpool.backend.repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,50 +17,68 @@ import org.springframework.stereotype.Repository;
 import com.carpool.backend.entity.Ride;
 import com.carpool.backend.entity.User;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
-public interface RideRepository extends JpaRepository<Ride, Long> {
+public interface RideRepository extends JpaRepository<Ride, Long>, JpaSpecificationExecutor<Ride> {
 
     List<Ride> findByDriver(User driver);
 
-    @Query("SELECT r FROM Ride r WHERE r.fromLocation LIKE %:from% " +
-           "AND r.toLocation LIKE %:to% " +
-           "AND r.departureDate = :date " +
-           "AND r.availableSeats >= :seats " +
-           "AND r.status = 'ACTIVE'")
-    List<Ride> searchRides(@Param("from") String from,
-                          @Param("to") String to,
-                          @Param("date") LocalDate date,
-                          @Param("seats") Integer seats);
-
-    @Query("SELECT r FROM Ride r WHERE r.fromLocation LIKE %:from% " +
-           "AND r.toLocation LIKE %:to% " +
-           "AND r.departureDate = :date " +
-           "AND r.availableSeats >= :seats " +
-           "AND r.departureTime >= :startTime " +
-           "AND r.departureTime <= :endTime " +
-           "AND r.status = 'ACTIVE'")
-    List<Ride> searchRidesWithTimeRange(@Param("from") String from,
-                                       @Param("to") String to,
-                                       @Param("date") LocalDate date,
-                                       @Param("seats") Integer seats,
-                                       @Param("startTime") LocalTime startTime,
-                                       @Param("endTime") LocalTime endTime);
-
-    @Query("SELECT r FROM Ride r WHERE r.fromLocation LIKE %:from% " +
-           "AND r.toLocation LIKE %:to% " +
-           "AND r.departureDate = :date " +
-           "AND r.availableSeats >= :seats " +
-           "AND r.pricePerSeat <= :maxPrice " +
-           "AND r.status = 'ACTIVE' " +
-           "ORDER BY r.pricePerSeat ASC")
-    List<Ride> searchRidesWithPriceFilter(@Param("from") String from,
-                                         @Param("to") String to,
-                                         @Param("date") LocalDate date,
-                                         @Param("seats") Integer seats,
-                                         @Param("maxPrice") BigDecimal maxPrice);
-
-    @Query("SELECT r FROM Ride r WHERE r.status = 'ACTIVE'")
-    List<Ride> findActiveRides();
+    @EntityGraph(attributePaths = "driver")
+    List<Ride> findWithDriverByDriverId(Long driverId);
+
+    @Query("SELECT r.id FROM Ride r WHERE r.driver.id = :driverId")
+    List<Long> findIdsByDriverId(@Param("driverId") Long driverId);
+
+    @EntityGraph(attributePaths = "driver")
+    List<Ride> findWithDriverByIdIn(Collection<Long> ids);
+
+    // Rides that have departed are never searched again, so indexes load from today on
+    @Query("SELECT r FROM Ride r WHERE r.status = 'ACTIVE' AND r.departureDate >= :date")
+    List<Ride> findActiveRidesDepartingFrom(@Param("date") LocalDate date);
+
+    // Seat counts are only changed through these conditional updates, so concurrent
+    // bookings can never overbook a ride or lose each other's writes. Multi-stop rides
+    // book per segment instead, through RideStopRepository.
+    @Modifying
+    @Query("UPDATE Ride r SET r.availableSeats = r.availableSeats - :seats " +
+           "WHERE r.id = :rideId AND r.status = 'ACTIVE' AND r.multiStop = false AND r.availableSeats >= :seats")
+    int reserveSeats(@Param("rideId") Long rideId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Ride r SET r.availableSeats = CASE WHEN r.availableSeats + :seats > r.totalSeats " +
+           "THEN r.totalSeats ELSE r.availableSeats + :seats END WHERE r.id = :rideId")
+    int releaseSeats(@Param("rideId") Long rideId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Ride r SET r.availableSeats = r.availableSeats + (:totalSeats - r.totalSeats), " +
+           "r.totalSeats = :totalSeats " +
+           "WHERE r.id = :rideId AND r.availableSeats + (:totalSeats - r.totalSeats) >= 0")
+    int resizeSeats(@Param("rideId") Long rideId, @Param("totalSeats") int totalSeats);
+
+    @Query("SELECT r.availableSeats FROM Ride r WHERE r.id = :rideId")
+    Integer findAvailableSeatsById(@Param("rideId") Long rideId);
+
+    // Serializes changes to a multi-stop ride's segments, and to how the ride is cut into them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Ride r WHERE r.id = :rideId")
+    Optional<Ride> lockById(@Param("rideId") Long rideId);
+
+    // Most seats free on any one segment; call with the ride locked, after its segments changed
+    @Modifying
+    @Query("UPDATE Ride r SET r.availableSeats = r.totalSeats - " +
+           "(SELECT MIN(s.bookedSeats) FROM RideStop s WHERE s.ride.id = :rideId) WHERE r.id = :rideId")
+    int refreshSegmentSeats(@Param("rideId") Long rideId);
+
+    @Query("SELECT r.id FROM Ride r WHERE r.schedule.id = :scheduleId AND r.departureDate = :departureDate")
+    Optional<Long> findIdByScheduleIdAndDepartureDate(@Param("scheduleId") Long scheduleId,
+                                                      @Param("departureDate") LocalDate departureDate);
+
+    // Dates on or after :fromDate that already became rides, per schedule: [scheduleId, departureDate]
+    @Query("SELECT r.schedule.id, r.departureDate FROM Ride r " +
+           "WHERE r.schedule.id IN :scheduleIds AND r.departureDate >= :fromDate")
+    List<Object[]> findScheduledDates(@Param("scheduleIds") Collection<Long> scheduleIds,
+                                      @Param("fromDate") LocalDate fromDate);
 
     @Query("SELECT DISTINCT r.fromLocation FROM Ride r WHERE r.status = 'ACTIVE'")
     List<String> findDistinctFromLocations();
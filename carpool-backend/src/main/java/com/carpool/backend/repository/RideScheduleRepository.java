@@ -0,0 +1,26 @@
+package com.carpool.backend.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.carpool.backend.entity.RideSchedule;
+
+@Repository
+public interface RideScheduleRepository extends JpaRepository<RideSchedule, Long> {
+
+    // Active schedules that still have occurrences on or after :date
+    @Query("SELECT s FROM RideSchedule s WHERE s.status = 'ACTIVE' AND s.endDate >= :date")
+    List<RideSchedule> findCurrentSchedules(@Param("date") LocalDate date);
+
+    @EntityGraph(attributePaths = "driver")
+    List<RideSchedule> findWithDriverByIdIn(Collection<Long> ids);
+
+    List<RideSchedule> findByDriverIdOrderByStartDate(Long driverId);
+}
@@ -0,0 +1,131 @@
+package com.carpool.backend.repository;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.exception.BadRequestException;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Composable predicates for /rides/filter. Every filter, the ordering and the
+ * keyset ("seek") condition are evaluated by the database, so the cost of a
+ * page does not depend on how deep into the result set it is.
+ */
+public final class RideSpecifications {
+
+    // Keyset order; the cursor always carries all three columns
+    public static final Sort DEPARTURE_ORDER = Sort.by("departureDate", "departureTime", "id");
+
+    private RideSpecifications() {}
+
+    public static Specification<Ride> isActive() {
+        return (root, query, cb) -> cb.equal(root.get("status"), Ride.RideStatus.ACTIVE);
+    }
+
+    public static Specification<Ride> fromContains(String from) {
+        return containsIgnoreCase("fromLocation", from);
+    }
+
+    public static Specification<Ride> toContains(String to) {
+        return containsIgnoreCase("toLocation", to);
+    }
+
+    public static Specification<Ride> departingOnOrAfter(LocalDate startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("departureDate"), startDate);
+    }
+
+    public static Specification<Ride> departingOnOrBefore(LocalDate endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("departureDate"), endDate);
+    }
+
+    public static Specification<Ride> priceAtLeast(BigDecimal minPrice) {
+        if (minPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("pricePerSeat"), minPrice);
+    }
+
+    public static Specification<Ride> priceAtMost(BigDecimal maxPrice) {
+        if (maxPrice == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("pricePerSeat"), maxPrice);
+    }
+
+    public static Specification<Ride> seatsAtLeast(Integer minSeats) {
+        if (minSeats == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("availableSeats"), minSeats);
+    }
+
+    // (date, time, id) > (cursor.date, cursor.time, cursor.id), spelled out for portability
+    public static Specification<Ride> after(Cursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Expression<LocalDate> date = root.get("departureDate");
+            Expression<LocalTime> time = root.get("departureTime");
+            Expression<Long> id = root.get("id");
+            return cb.or(
+                    cb.greaterThan(date, cursor.departureDate()),
+                    cb.and(cb.equal(date, cursor.departureDate()), cb.greaterThan(time, cursor.departureTime())),
+                    cb.and(cb.equal(date, cursor.departureDate()), cb.equal(time, cursor.departureTime()),
+                            cb.greaterThan(id, cursor.rideId())));
+        };
+    }
+
+    private static Specification<Ride> containsIgnoreCase(String attribute, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(value.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern, '\\');
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Position of the last ride on a page, handed to clients as an opaque token.
+     */
+    public record Cursor(LocalDate departureDate, LocalTime departureTime, Long rideId) {
+
+        public static Cursor of(Ride ride) {
+            return new Cursor(ride.getDepartureDate(), ride.getDepartureTime(), ride.getId());
+        }
+
+        public String encode() {
+            String raw = departureDate + "|" + departureTime + "|" + rideId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                return new Cursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Long.valueOf(parts[2]));
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.carpool.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.carpool.backend.entity.RideStop;
+
+@Repository
+public interface RideStopRepository extends JpaRepository<RideStop, Long> {
+
+    // Booked seats per segment, in driving order
+    @Query("SELECT s.bookedSeats FROM RideStop s WHERE s.ride.id = :rideId AND s.bookedSeats IS NOT NULL " +
+           "ORDER BY s.position")
+    List<Integer> findSegmentBookedSeats(@Param("rideId") Long rideId);
+
+    // Like the seat updates in RideRepository these are conditional: a reservation changes
+    // every segment in [fromStop, toStop) or, when one of them is full, fewer rows than that,
+    // and the caller rolls back. Take RideRepository.lockById first.
+    @Modifying
+    @Query("UPDATE RideStop s SET s.bookedSeats = s.bookedSeats + :seats " +
+           "WHERE s.ride.id = :rideId AND s.position >= :fromStop AND s.position < :toStop " +
+           "AND s.bookedSeats + :seats <= " +
+           "(SELECT r.totalSeats FROM Ride r WHERE r.id = :rideId AND r.status = 'ACTIVE')")
+    int reserveSeats(@Param("rideId") Long rideId, @Param("fromStop") int fromStop,
+                     @Param("toStop") int toStop, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE RideStop s SET s.bookedSeats = CASE WHEN s.bookedSeats < :seats THEN 0 " +
+           "ELSE s.bookedSeats - :seats END " +
+           "WHERE s.ride.id = :rideId AND s.position >= :fromStop AND s.position < :toStop " +
+           "AND s.bookedSeats IS NOT NULL")
+    int releaseSeats(@Param("rideId") Long rideId, @Param("fromStop") int fromStop,
+                     @Param("toStop") int toStop, @Param("seats") int seats);
+}
@@ -2,9 +2,11 @@ package com.carpool.backend.repository;
 
 import com.carpool.backend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -41,5 +43,43 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT AVG(u.rating) FROM User u WHERE u.rating > 0")
     Double getAverageRating();
+
+    // rating is assigned first so it is computed from the old sum and count;
+    // MySQL applies SET assignments left to right
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET " +
+           "u.rating = ROUND((u.ratingSum + :score) * 1.0 / (u.ratingCount + 1), 1), " +
+           "u.ratingSum = u.ratingSum + :score, " +
+           "u.ratingCount = u.ratingCount + 1 " +
+           "WHERE u.id = :userId")
+    int addRating(@Param("userId") Long userId, @Param("score") int score);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.totalRides = u.totalRides + 1 WHERE u.id = :userId")
+    int incrementTotalRides(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.totalRides = u.totalRides + 1 WHERE u.id IN (" +
+           "SELECT b.passenger.id FROM Booking b WHERE b.ride.id = :rideId AND b.status = 'CONFIRMED')")
+    int incrementTotalRidesForConfirmedPassengers(@Param("rideId") Long rideId);
+
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+
+    // Recomputes the rating and ride aggregates from source rows for a range of users
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET " +
+           "u.ratingSum = COALESCE((SELECT SUM(r.rating) FROM Rating r WHERE r.ratee.id = u.id), 0), " +
+           "u.ratingCount = (SELECT COUNT(r) FROM Rating r WHERE r.ratee.id = u.id), " +
+           "u.rating = COALESCE((SELECT ROUND(AVG(r.rating), 1) FROM Rating r WHERE r.ratee.id = u.id), 0), " +
+           "u.totalRides = (SELECT COUNT(ri) FROM Ride ri WHERE ri.driver.id = u.id AND ri.status = 'COMPLETED') + " +
+           "(SELECT COUNT(DISTINCT b.ride.id) FROM Booking b " +
+           "WHERE b.passenger.id = u.id AND b.status = 'CONFIRMED' AND b.ride.status = 'COMPLETED') " +
+           "WHERE u.id BETWEEN :fromId AND :toId")
+    int reconcileStats(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
 
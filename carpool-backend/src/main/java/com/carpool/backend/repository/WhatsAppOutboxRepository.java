@@ -0,0 +1,60 @@
+package com.carpool.backend.repository;
+
+import com.carpool.backend.entity.WhatsAppOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WhatsAppOutboxRepository extends JpaRepository<WhatsAppOutboxMessage, Long> {
+
+    // Oldest due message per recipient; a recipient with an earlier message still
+    // pending or in flight is skipped so messages to one number go out in order.
+    @Query("SELECT m FROM WhatsAppOutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+           "AND NOT EXISTS (SELECT e.id FROM WhatsAppOutboxMessage e WHERE e.recipient = m.recipient " +
+           "AND e.id < m.id AND e.status IN ('PENDING', 'SENDING')) " +
+           "ORDER BY m.id")
+    List<WhatsAppOutboxMessage> findDueHeads(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.status = 'SENDING', m.claimedAt = :now " +
+           "WHERE m.id = :id AND m.status = 'PENDING'")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.status = 'SENT', m.sentAt = :now, " +
+           "m.attempts = m.attempts + 1, m.lastError = null WHERE m.id = :id")
+    int markSent(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.status = :status, m.attempts = m.attempts + 1, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error WHERE m.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") WhatsAppOutboxMessage.Status status,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+
+    // Messages claimed by a dispatcher that died mid-send become pending again
+    @Transactional
+    @Modifying
+    @Query("UPDATE WhatsAppOutboxMessage m SET m.status = 'PENDING' " +
+           "WHERE m.status = 'SENDING' AND m.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WhatsAppOutboxMessage m WHERE m.status = 'SENT' AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(WhatsAppOutboxMessage.Status status);
+}
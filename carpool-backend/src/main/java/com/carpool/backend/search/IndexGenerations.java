@@ -0,0 +1,73 @@
+package com.carpool.backend.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The live copy of an in-memory index, and the swap to a rebuilt one. A rebuild
+ * loads into a fresh copy while reads keep using the old one. Changes that
+ * arrive meanwhile go to the old copy and are recorded, then replayed onto the
+ * fresh copy before it goes live, so a change committed during the load is
+ * neither lost nor overwritten by the rows the load read before it.
+ */
+final class IndexGenerations<S> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile S current;
+
+    // Null when no rebuild is running
+    private List<Consumer<S>> changedDuringRebuild;
+
+    IndexGenerations(S initial) {
+        this.current = initial;
+    }
+
+    S current() {
+        return current;
+    }
+
+    void apply(Consumer<S> change) {
+        S target;
+        lock.lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(change);
+            }
+            target = current;
+        } finally {
+            lock.unlock();
+        }
+        change.accept(target);
+    }
+
+    /** Fills {@code rebuilt} with {@code load}, replays what changed meanwhile and makes it current. */
+    S rebuild(S rebuilt, Runnable load) {
+        lock.lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean loaded = false;
+        try {
+            load.run();
+            loaded = true;
+        } finally {
+            lock.lock();
+            try {
+                if (loaded) {
+                    changedDuringRebuild.forEach(change -> change.accept(rebuilt));
+                    current = rebuilt;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return rebuilt;
+    }
+}
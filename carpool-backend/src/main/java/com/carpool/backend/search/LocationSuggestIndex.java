@@ -0,0 +1,289 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trie of the locations used by active rides, serving
+ * /rides/locations/suggest. Each location is keyed by its normalized form and
+ * carries how many active rides start and end there, which is used to rank
+ * suggestions. Counts follow {@link RideChangedEvent}s, so offering, editing or
+ * cancelling a ride updates the trie without a rebuild.
+ * <p>
+ * Prefix matches are returned first; when they do not fill the limit, the trie
+ * is walked again allowing a small number of edits so typos still match.
+ */
+@Component
+public class LocationSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocationSuggestIndex.class);
+
+    public enum Side { FROM, TO }
+
+    private final Node root = new Node();
+
+    // Locations each indexed ride currently contributes, so edits and removals can be undone
+    private final Map<Long, RideLocations> ridesById = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Events applied while rebuild() loads rides, replayed after it resets the trie; null outside a rebuild
+    private List<RideChangedEvent> changedDuringRebuild;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    /**
+     * Reloads the trie from active rides. Ride changes committed while they are
+     * read may be missing from the result, so they are replayed on top of it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Ride> rides = null;
+        try {
+            rides = rideRepository.findActiveRidesDepartingFrom(LocalDate.now());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rides != null) {
+                    root.children.clear();
+                    ridesById.clear();
+                    for (Ride ride : rides) {
+                        apply(RideChangedEvent.updated(ride));
+                    }
+                    changedDuringRebuild.forEach(this::apply);
+                    logger.info("Location suggest index built with {} locations", count(root));
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(event);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} location names for the typed text, most used
+     * first. {@code side} restricts ranking to pickup or drop-off usage; null
+     * ranks by both.
+     */
+    public List<String> suggest(String query, Side side, int limit) {
+        String key = RideSearchIndex.normalize(query);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Node, Integer> matches = new LinkedHashMap<>();
+            Node prefix = find(key);
+            if (prefix != null) {
+                collect(prefix, 0, side, matches);
+            }
+            int maxEdits = maxEdits(key);
+            if (matches.size() < limit && maxEdits > 0) {
+                int[] firstRow = new int[key.length() + 1];
+                for (int i = 0; i < firstRow.length; i++) {
+                    firstRow[i] = i;
+                }
+                for (Map.Entry<Character, Node> child : root.children.entrySet()) {
+                    fuzzy(child.getValue(), child.getKey(), key, firstRow, maxEdits, side, matches);
+                }
+            }
+
+            return matches.entrySet().stream()
+                    .sorted(Map.Entry.<Node, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey(
+                                    Comparator.<Node>comparingInt(node -> node.rides(side)).reversed()))
+                            .thenComparing(entry -> entry.getKey().display))
+                    .limit(limit)
+                    .map(entry -> entry.getKey().display)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** All indexed locations used on the given side, most used first. */
+    public List<String> locations(Side side) {
+        lock.readLock().lock();
+        try {
+            Map<Node, Integer> all = new LinkedHashMap<>();
+            collect(root, 0, side, all);
+            return all.keySet().stream()
+                    .sorted(Comparator.<Node>comparingInt(node -> node.rides(side)).reversed()
+                            .thenComparing(node -> node.display))
+                    .map(node -> node.display)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Short queries are mostly still being typed, so only longer ones tolerate typos
+    static int maxEdits(String query) {
+        if (query.length() < 4) {
+            return 0;
+        }
+        return query.length() < 8 ? 1 : 2;
+    }
+
+    private void apply(RideChangedEvent event) {
+        RideLocations previous = ridesById.remove(event.getRideId());
+        if (previous != null) {
+            adjust(previous.from(), Side.FROM, -1);
+            adjust(previous.to(), Side.TO, -1);
+        }
+        if (event.isSearchable()) {
+            RideLocations current = new RideLocations(event.getFromLocation(), event.getToLocation());
+            ridesById.put(event.getRideId(), current);
+            adjust(current.from(), Side.FROM, 1);
+            adjust(current.to(), Side.TO, 1);
+        }
+    }
+
+    private void adjust(String location, Side side, int delta) {
+        String key = RideSearchIndex.normalize(location);
+        if (key.isEmpty()) {
+            return;
+        }
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            path.add(node);
+        }
+
+        if (side == Side.FROM) {
+            node.fromRides += delta;
+        } else {
+            node.toRides += delta;
+        }
+        if (delta > 0) {
+            node.display = location.trim().replaceAll("\\s+", " ");
+        } else if (node.rides(null) == 0) {
+            node.display = null;
+        }
+
+        // Prune branches that no longer lead to a used location
+        for (int i = path.size() - 1; i > 0 && path.get(i).isEmpty(); i--) {
+            path.get(i - 1).children.remove(key.charAt(i - 1));
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, int distance, Side side, Map<Node, Integer> matches) {
+        if (node.display != null && node.rides(side) > 0) {
+            matches.merge(node, distance, Math::min);
+        }
+        for (Node child : node.children.values()) {
+            collect(child, distance, side, matches);
+        }
+    }
+
+    /**
+     * Levenshtein walk: each trie edge extends the previous DP row by one
+     * character. Once the whole query fits within {@code maxEdits} of the path so
+     * far, every location below is a fuzzy prefix match. Branches whose row
+     * minimum already exceeds the budget are cut.
+     */
+    private static void fuzzy(Node node, char letter, String query, int[] previousRow, int maxEdits,
+                              Side side, Map<Node, Integer> matches) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previousRow[i - 1] + (query.charAt(i - 1) == letter ? 0 : 1);
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), substitution);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+
+        int distance = row[row.length - 1];
+        if (distance <= maxEdits) {
+            collect(node, distance, side, matches);
+            return;
+        }
+        if (rowMin > maxEdits) {
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            fuzzy(child.getValue(), child.getKey(), query, row, maxEdits, side, matches);
+        }
+    }
+
+    private static int count(Node node) {
+        int total = node.display != null ? 1 : 0;
+        for (Node child : node.children.values()) {
+            total += count(child);
+        }
+        return total;
+    }
+
+    private record RideLocations(String from, String to) {}
+
+    private static class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private String display;
+        private int fromRides;
+        private int toRides;
+
+        int rides(Side side) {
+            if (side == Side.FROM) {
+                return fromRides;
+            }
+            return side == Side.TO ? toRides : fromRides + toRides;
+        }
+
+        boolean isEmpty() {
+            return display == null && children.isEmpty();
+        }
+    }
+}
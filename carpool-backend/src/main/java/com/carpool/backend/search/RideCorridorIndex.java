@@ -0,0 +1,346 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoCells;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.geo.Polyline;
+import com.carpool.backend.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of ride routes serving /rides/corridor: rides that pass
+ * near both of a passenger's points, pickup first. Each route is cut into
+ * pieces of at most {@link #PIECE_KM} and every piece is filed once, under
+ * the geohash precision 6 cell of its midpoint, per departure date. A query
+ * widened by half a piece therefore sees every piece that comes within range.
+ * It visits the cells around the pickup, then only the rides found there
+ * around the drop-off, measuring distance to the pieces themselves.
+ * <p>
+ * Routes come from the ride's stored polyline; rides without one are taken
+ * as the straight line between their endpoints, placed like
+ * {@link RideGeoIndex} does.
+ */
+@Component
+public class RideCorridorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideCorridorIndex.class);
+
+    public static final double MAX_RADIUS_KM = 25;
+
+    // Finer than the pickup index: routes are dense, and a 2 km corridor would otherwise visit 25 km2 cells
+    private static final GeoCells CELLS = GeoCells.PRECISION_6;
+
+    // About one cell; no point of a piece is further than half of this from its midpoint
+    static final double PIECE_KM = 1.5;
+
+    private static final Comparator<Match> BY_DETOUR =
+            Comparator.comparingDouble((Match match) -> match.pickupDistanceKm() + match.dropOffDistanceKm())
+                    .thenComparing(Match::departureTime)
+                    .thenComparing(Match::rideId);
+
+    private final IndexGenerations<Rides> rides = new IndexGenerations<>(new Rides());
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    /**
+     * Loads upcoming active rides into a fresh index and swaps it in; changes
+     * committed during the load are replayed onto it, as in {@link RideSearchIndex}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Rides rebuilt = new Rides();
+        rides.rebuild(rebuilt, () -> {
+            for (Ride ride : rideRepository.findActiveRidesDepartingFrom(LocalDate.now())) {
+                RideChangedEvent event = RideChangedEvent.loaded(ride);
+                rebuilt.apply(event, route(event));
+            }
+        });
+        logger.info("Ride corridor index built with {} active rides", rebuilt.ridesById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        List<GeoPoint> route = event.isSearchable() ? route(event) : null;
+        rides.apply(current -> current.apply(event, route));
+    }
+
+    @Scheduled(cron = "${search.prune-cron:0 5 0 * * *}")
+    public void pruneDepartedRides() {
+        LocalDate today = LocalDate.now();
+        rides.apply(current -> current.prune(today));
+    }
+
+    /**
+     * Rides on {@code date} with at least {@code seats} free whose route passes
+     * within {@code radiusKm} of both points, reaching the pickup before the
+     * drop-off. Smallest combined distance from the route comes first.
+     */
+    public List<Match> search(GeoPoint pickup, GeoPoint dropOff, double radiusKm, LocalDate date, int seats,
+                              int limit) {
+        Map<Long, Set<Piece>> cells = rides.current().piecesByDay.get(date);
+        List<Match> matches = new ArrayList<>();
+        if (cells == null || limit <= 0) {
+            return matches;
+        }
+
+        Map<CorridorRide, Hit> pickups = nearest(cells, pickup, radiusKm, seats, null);
+        if (pickups.isEmpty()) {
+            return matches;
+        }
+        Map<CorridorRide, Hit> dropOffs = nearest(cells, dropOff, radiusKm, seats, pickups);
+
+        for (Map.Entry<CorridorRide, Hit> entry : dropOffs.entrySet()) {
+            Hit pickupHit = pickups.get(entry.getKey());
+            Hit dropOffHit = entry.getValue();
+            // The route may pass a point more than once; any pickup before any drop-off will do
+            if (pickupHit.firstAlongKm < dropOffHit.lastAlongKm) {
+                CorridorRide ride = entry.getKey();
+                matches.add(new Match(ride.rideId, ride.departureTime, pickupHit.distanceKm, dropOffHit.distanceKm));
+            }
+        }
+
+        matches.sort(BY_DETOUR);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public int size() {
+        return rides.current().ridesById.size();
+    }
+
+    private Map<CorridorRide, Hit> nearest(Map<Long, Set<Piece>> cells, GeoPoint point, double radiusKm, int seats,
+                                           Map<CorridorRide, Hit> candidates) {
+        double scale = Math.cos(Math.toRadians(point.latitude()));
+        double radiusDegrees = radiusKm / GeoCells.KM_PER_DEGREE;
+        Map<CorridorRide, Hit> hits = new HashMap<>();
+        CELLS.forEachCellWithin(point, radiusKm + PIECE_KM / 2, cell -> {
+            Set<Piece> bucket = cells.get(cell);
+            if (bucket == null) {
+                return;
+            }
+            for (Piece piece : bucket) {
+                CorridorRide ride = piece.ride;
+                if (ride.availableSeats < seats || (candidates != null && !candidates.containsKey(ride))) {
+                    continue;
+                }
+                // Flat projection around the query point, in degrees of latitude
+                double ax = (piece.fromLongitude - point.longitude()) * scale;
+                double ay = piece.fromLatitude - point.latitude();
+                double dx = (piece.toLongitude - piece.fromLongitude) * scale;
+                double dy = piece.toLatitude - piece.fromLatitude;
+                double lengthSquared = dx * dx + dy * dy;
+                double t = lengthSquared == 0 ? 0 : Math.clamp(-(ax * dx + ay * dy) / lengthSquared, 0.0, 1.0);
+                double x = ax + t * dx;
+                double y = ay + t * dy;
+                double distanceDegrees = Math.sqrt(x * x + y * y);
+                if (distanceDegrees > radiusDegrees) {
+                    continue;
+                }
+                double alongKm = piece.startKm + t * piece.lengthKm;
+                hits.computeIfAbsent(ride, r -> new Hit()).add(distanceDegrees * GeoCells.KM_PER_DEGREE, alongKm);
+            }
+        });
+        return hits;
+    }
+
+    private List<GeoPoint> route(RideChangedEvent event) {
+        if (event.getRoutePolyline() != null) {
+            try {
+                List<GeoPoint> route = Polyline.decode(event.getRoutePolyline());
+                if (route.size() >= 2) {
+                    return route;
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring unreadable route of ride {}: {}", event.getRideId(), e.getMessage());
+            }
+        }
+        GeoPoint from = GeoPoint.ofNullable(event.getFromLatitude(), event.getFromLongitude());
+        if (from == null) {
+            from = gazetteer.resolve(event.getFromLocation()).orElse(null);
+        }
+        GeoPoint to = GeoPoint.ofNullable(event.getToLatitude(), event.getToLongitude());
+        if (to == null) {
+            to = gazetteer.resolve(event.getToLocation()).orElse(null);
+        }
+        return from != null && to != null ? List.of(from, to) : null;
+    }
+
+    /** One generation of the index; rebuild() fills a new one and swaps it in. */
+    private static class Rides {
+        private final Map<Long, CorridorRide> ridesById = new ConcurrentHashMap<>();
+
+        private final Map<LocalDate, Map<Long, Set<Piece>>> piecesByDay = new ConcurrentHashMap<>();
+
+        private final RideVersions versions = new RideVersions();
+
+        // route is null when the ride is not searchable or cannot be placed
+        private void apply(RideChangedEvent event, List<GeoPoint> route) {
+            versions.applyIfNewer(event, () -> {
+                if (route == null) {
+                    remove(event.getRideId());
+                } else {
+                    put(new CorridorRide(event, route));
+                }
+            });
+        }
+
+        private void prune(LocalDate today) {
+            piecesByDay.keySet().removeIf(date -> date.isBefore(today));
+            ridesById.values().removeIf(ride -> ride.departureDate.isBefore(today));
+            versions.prune(today);
+        }
+
+        private void put(CorridorRide updated) {
+            ridesById.compute(updated.rideId, (id, existing) -> {
+                if (existing != null && existing.hasSameRoute(updated)) {
+                    existing.availableSeats = updated.availableSeats;
+                    return existing;
+                }
+                if (existing != null) {
+                    unlink(existing);
+                }
+                link(updated);
+                return updated;
+            });
+        }
+
+        private void remove(Long rideId) {
+            ridesById.computeIfPresent(rideId, (id, existing) -> {
+                unlink(existing);
+                return null;
+            });
+        }
+
+        private void link(CorridorRide ride) {
+            piecesByDay.compute(ride.departureDate, (date, cells) -> {
+                Map<Long, Set<Piece>> day = cells != null ? cells : new ConcurrentHashMap<>();
+                for (Piece piece : ride.pieces) {
+                    day.computeIfAbsent(piece.cell, c -> ConcurrentHashMap.newKeySet()).add(piece);
+                }
+                return day;
+            });
+        }
+
+        private void unlink(CorridorRide ride) {
+            piecesByDay.computeIfPresent(ride.departureDate, (date, day) -> {
+                for (Piece piece : ride.pieces) {
+                    day.computeIfPresent(piece.cell, (c, bucket) -> {
+                        bucket.remove(piece);
+                        return bucket.isEmpty() ? null : bucket;
+                    });
+                }
+                return day.isEmpty() ? null : day;
+            });
+        }
+    }
+
+    public record Match(Long rideId, LocalTime departureTime, double pickupDistanceKm, double dropOffDistanceKm) {}
+
+    // Closest approach of one route to a query point, and where along the route it is within range
+    private static final class Hit {
+        private double distanceKm = Double.MAX_VALUE;
+        private double firstAlongKm = Double.MAX_VALUE;
+        private double lastAlongKm = -1;
+
+        private void add(double distanceKm, double alongKm) {
+            this.distanceKm = Math.min(this.distanceKm, distanceKm);
+            this.firstAlongKm = Math.min(this.firstAlongKm, alongKm);
+            this.lastAlongKm = Math.max(this.lastAlongKm, alongKm);
+        }
+    }
+
+    /** Index entry; everything but the seat count is fixed, so a new route re-links a new entry. */
+    private static final class CorridorRide {
+        private final Long rideId;
+        private final LocalDate departureDate;
+        private final LocalTime departureTime;
+        private final List<GeoPoint> route;
+        private final List<Piece> pieces;
+        private volatile int availableSeats;
+
+        private CorridorRide(RideChangedEvent event, List<GeoPoint> route) {
+            this.rideId = event.getRideId();
+            this.departureDate = event.getDepartureDate();
+            this.departureTime = event.getDepartureTime();
+            this.route = route;
+            this.availableSeats = event.getAvailableSeats();
+            this.pieces = cut(route);
+        }
+
+        private boolean hasSameRoute(CorridorRide other) {
+            return departureDate.equals(other.departureDate)
+                    && departureTime.equals(other.departureTime)
+                    && route.equals(other.route);
+        }
+
+        private List<Piece> cut(List<GeoPoint> route) {
+            List<Piece> cut = new ArrayList<>();
+            double startKm = 0;
+            for (int i = 1; i < route.size(); i++) {
+                GeoPoint a = route.get(i - 1);
+                GeoPoint b = route.get(i);
+                double segmentKm = a.distanceKm(b);
+                int count = Math.max(1, (int) Math.ceil(segmentKm / PIECE_KM));
+                for (int k = 0; k < count; k++) {
+                    double from = (double) k / count;
+                    double to = (double) (k + 1) / count;
+                    cut.add(new Piece(this,
+                            a.latitude() + (b.latitude() - a.latitude()) * from,
+                            a.longitude() + (b.longitude() - a.longitude()) * from,
+                            a.latitude() + (b.latitude() - a.latitude()) * to,
+                            a.longitude() + (b.longitude() - a.longitude()) * to,
+                            startKm + segmentKm * from, segmentKm / count));
+                }
+                startKm += segmentKm;
+            }
+            return cut;
+        }
+    }
+
+    private static final class Piece {
+        private final CorridorRide ride;
+        private final double fromLatitude;
+        private final double fromLongitude;
+        private final double toLatitude;
+        private final double toLongitude;
+        private final double startKm;
+        private final double lengthKm;
+        private final long cell;
+
+        private Piece(CorridorRide ride, double fromLatitude, double fromLongitude, double toLatitude,
+                      double toLongitude, double startKm, double lengthKm) {
+            this.ride = ride;
+            this.fromLatitude = fromLatitude;
+            this.fromLongitude = fromLongitude;
+            this.toLatitude = toLatitude;
+            this.toLongitude = toLongitude;
+            this.startKm = startKm;
+            this.lengthKm = lengthKm;
+            this.cell = CELLS.cell((fromLatitude + toLatitude) / 2, (fromLongitude + toLongitude) / 2);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoCells;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory spatial index of active rides serving /rides/nearby. Rides are
+ * bucketed by departure date and by the {@link GeoCells} cell of their pickup
+ * point (geohash precision 5, roughly 4.9 x 4.9 km). A query visits only the
+ * cells overlapping the pickup circle for the requested day, then filters the
+ * candidates by exact distance to pickup and, when given, drop-off.
+ * <p>
+ * Coordinates come from the ride; rides saved without them are placed from
+ * their location names with the {@link Gazetteer}, and rides that cannot be
+ * placed are left out.
+ */
+@Component
+public class RideGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideGeoIndex.class);
+
+    public static final double MAX_RADIUS_KM = 100;
+
+    private static final GeoCells CELLS = GeoCells.PRECISION_5;
+
+    private static final Comparator<Match> BY_DISTANCE =
+            Comparator.comparingDouble(Match::originDistanceKm)
+                    .thenComparing(Match::departureTime)
+                    .thenComparing(Match::rideId);
+
+    private final IndexGenerations<Rides> rides = new IndexGenerations<>(new Rides());
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    /**
+     * Loads upcoming active rides into a fresh index and swaps it in; changes
+     * committed during the load are replayed onto it, as in {@link RideSearchIndex}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Rides rebuilt = new Rides();
+        int[] unplaced = {0};
+        rides.rebuild(rebuilt, () -> {
+            for (Ride ride : rideRepository.findActiveRidesDepartingFrom(LocalDate.now())) {
+                RideChangedEvent event = RideChangedEvent.loaded(ride);
+                rebuilt.apply(event, locateFrom(event), locateTo(event));
+                if (!rebuilt.ridesById.containsKey(ride.getId())) {
+                    unplaced[0]++;
+                }
+            }
+        });
+        logger.info("Ride geo index built with {} active rides ({} without known coordinates)",
+                rebuilt.ridesById.size(), unplaced[0]);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        GeoPoint from = locateFrom(event);
+        GeoPoint to = locateTo(event);
+        rides.apply(current -> current.apply(event, from, to));
+    }
+
+    @Scheduled(cron = "${search.prune-cron:0 5 0 * * *}")
+    public void pruneDepartedRides() {
+        LocalDate today = LocalDate.now();
+        rides.apply(current -> current.prune(today));
+    }
+
+    /**
+     * Rides on {@code date} with at least {@code seats} free whose pickup is within
+     * {@code originRadiusKm} of {@code origin} and, if {@code destination} is given,
+     * whose drop-off is within {@code destinationRadiusKm} of it. Closest pickups
+     * come first, then earlier departures.
+     */
+    public List<Match> search(GeoPoint origin, double originRadiusKm, GeoPoint destination, double destinationRadiusKm,
+                              LocalDate date, int seats, int limit) {
+        Map<Long, Set<GeoRide>> cells = rides.current().ridesByDay.get(date);
+        List<Match> matches = new ArrayList<>();
+        if (cells == null || limit <= 0) {
+            return matches;
+        }
+
+        CELLS.forEachCellWithin(origin, originRadiusKm, cell -> {
+            Set<GeoRide> bucket = cells.get(cell);
+            if (bucket == null) {
+                return;
+            }
+            for (GeoRide ride : bucket) {
+                if (ride.availableSeats < seats) {
+                    continue;
+                }
+                double originDistance = GeoPoint.distanceKm(origin.latitude(), origin.longitude(),
+                        ride.fromLatitude, ride.fromLongitude);
+                if (originDistance > originRadiusKm) {
+                    continue;
+                }
+                Double destinationDistance = null;
+                if (destination != null) {
+                    destinationDistance = GeoPoint.distanceKm(destination.latitude(), destination.longitude(),
+                            ride.toLatitude, ride.toLongitude);
+                    if (destinationDistance > destinationRadiusKm) {
+                        continue;
+                    }
+                }
+                matches.add(new Match(ride.rideId, ride.departureTime, originDistance, destinationDistance));
+            }
+        });
+
+        matches.sort(BY_DISTANCE);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public int size() {
+        return rides.current().ridesById.size();
+    }
+
+    private GeoPoint locateFrom(RideChangedEvent event) {
+        return event.isSearchable()
+                ? locate(event.getFromLatitude(), event.getFromLongitude(), event.getFromLocation()) : null;
+    }
+
+    private GeoPoint locateTo(RideChangedEvent event) {
+        return event.isSearchable()
+                ? locate(event.getToLatitude(), event.getToLongitude(), event.getToLocation()) : null;
+    }
+
+    private GeoPoint locate(Double latitude, Double longitude, String location) {
+        GeoPoint point = GeoPoint.ofNullable(latitude, longitude);
+        return point != null ? point : gazetteer.resolve(location).orElse(null);
+    }
+
+    /** One generation of the index; rebuild() fills a new one and swaps it in. */
+    private static class Rides {
+        private final Map<Long, GeoRide> ridesById = new ConcurrentHashMap<>();
+
+        private final Map<LocalDate, Map<Long, Set<GeoRide>>> ridesByDay = new ConcurrentHashMap<>();
+
+        private final RideVersions versions = new RideVersions();
+
+        // from and to are null when the ride is not searchable or cannot be placed
+        private void apply(RideChangedEvent event, GeoPoint from, GeoPoint to) {
+            versions.applyIfNewer(event, () -> {
+                if (from == null || to == null) {
+                    remove(event.getRideId());
+                } else {
+                    put(new GeoRide(event, from, to));
+                }
+            });
+        }
+
+        private void prune(LocalDate today) {
+            ridesByDay.keySet().removeIf(date -> date.isBefore(today));
+            ridesById.values().removeIf(ride -> ride.departureDate.isBefore(today));
+            versions.prune(today);
+        }
+
+        private void put(GeoRide updated) {
+            ridesById.compute(updated.rideId, (id, existing) -> {
+                if (existing != null && existing.hasSamePosition(updated)) {
+                    existing.availableSeats = updated.availableSeats;
+                    return existing;
+                }
+                if (existing != null) {
+                    unlink(existing);
+                }
+                link(updated);
+                return updated;
+            });
+        }
+
+        private void remove(Long rideId) {
+            ridesById.computeIfPresent(rideId, (id, existing) -> {
+                unlink(existing);
+                return null;
+            });
+        }
+
+        private void link(GeoRide ride) {
+            ridesByDay.compute(ride.departureDate, (date, cells) -> {
+                Map<Long, Set<GeoRide>> day = cells != null ? cells : new ConcurrentHashMap<>();
+                day.computeIfAbsent(ride.cell, cell -> ConcurrentHashMap.newKeySet()).add(ride);
+                return day;
+            });
+        }
+
+        private void unlink(GeoRide ride) {
+            ridesByDay.computeIfPresent(ride.departureDate, (date, day) -> {
+                day.computeIfPresent(ride.cell, (cell, bucket) -> {
+                    bucket.remove(ride);
+                    return bucket.isEmpty() ? null : bucket;
+                });
+                return day.isEmpty() ? null : day;
+            });
+        }
+    }
+
+    public record Match(Long rideId, LocalTime departureTime, double originDistanceKm, Double destinationDistanceKm) {}
+
+    /** Index entry; everything but the seat count is fixed, so a move re-links a new entry. */
+    private static final class GeoRide {
+        private final Long rideId;
+        private final LocalDate departureDate;
+        private final LocalTime departureTime;
+        private final double fromLatitude;
+        private final double fromLongitude;
+        private final double toLatitude;
+        private final double toLongitude;
+        private final long cell;
+        private volatile int availableSeats;
+
+        private GeoRide(RideChangedEvent event, GeoPoint from, GeoPoint to) {
+            this.rideId = event.getRideId();
+            this.departureDate = event.getDepartureDate();
+            this.departureTime = event.getDepartureTime();
+            this.fromLatitude = from.latitude();
+            this.fromLongitude = from.longitude();
+            this.toLatitude = to.latitude();
+            this.toLongitude = to.longitude();
+            this.cell = CELLS.cell(fromLatitude, fromLongitude);
+            this.availableSeats = event.getAvailableSeats();
+        }
+
+        private boolean hasSamePosition(GeoRide other) {
+            return departureDate.equals(other.departureDate)
+                    && departureTime.equals(other.departureTime)
+                    && fromLatitude == other.fromLatitude && fromLongitude == other.fromLongitude
+                    && toLatitude == other.toLatitude && toLongitude == other.toLongitude;
+        }
+    }
+}
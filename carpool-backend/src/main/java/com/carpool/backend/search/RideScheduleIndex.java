@@ -0,0 +1,227 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.RideSchedule;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.event.RideScheduleChangedEvent;
+import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.RideScheduleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of recurring ride schedules, so /rides/search can offer
+ * their occurrences without a ride row per day. Schedules are bucketed by
+ * normalized (from, to) route like {@link RideSearchIndex}; occurrences are
+ * expanded only for the date searched. Dates that already became rides are
+ * remembered per schedule and left to RideSearchIndex, which then holds the
+ * ride itself, booked seats and all.
+ */
+@Component
+public class RideScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideScheduleIndex.class);
+
+    private static final Comparator<IndexedSchedule> BY_DEPARTURE =
+            Comparator.comparing(IndexedSchedule::getDepartureTime).thenComparing(IndexedSchedule::getScheduleId);
+
+    private final IndexGenerations<Schedules> schedules = new IndexGenerations<>(new Schedules());
+
+    @Autowired
+    private RideScheduleRepository rideScheduleRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    /**
+     * Loads current schedules and their taken dates into a fresh index and swaps
+     * it in; changes committed during the load are replayed onto it, as in
+     * {@link RideSearchIndex}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Schedules rebuilt = new Schedules();
+        schedules.rebuild(rebuilt, () -> {
+            LocalDate today = LocalDate.now();
+            for (RideSchedule schedule : rideScheduleRepository.findCurrentSchedules(today)) {
+                rebuilt.apply(RideScheduleChangedEvent.of(schedule));
+            }
+            if (!rebuilt.schedulesById.isEmpty()) {
+                for (Object[] row : rideRepository.findScheduledDates(rebuilt.schedulesById.keySet(), today)) {
+                    rebuilt.markMaterialized((Long) row[0], (LocalDate) row[1]);
+                }
+            }
+        });
+        logger.info("Ride schedule index built with {} active schedules", rebuilt.schedulesById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChanged(RideScheduleChangedEvent event) {
+        schedules.apply(current -> current.apply(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        // Whatever happens to the ride afterwards, the occurrence stays taken by it
+        if (event.getScheduleId() != null) {
+            schedules.apply(current -> current.markMaterialized(event.getScheduleId(), event.getDepartureDate()));
+        }
+    }
+
+    /**
+     * Schedules running on {@code date} whose occurrence that day has not
+     * become a ride yet, with the same filters as {@link RideSearchIndex#search}.
+     */
+    public List<IndexedSchedule> search(String from, String to, LocalDate date, int seats,
+                                        LocalTime startTime, LocalTime endTime, BigDecimal maxPrice) {
+        LocalTime lower = startTime != null ? startTime : LocalTime.MIN;
+        LocalTime upper = endTime != null ? endTime : LocalTime.MAX;
+        String normalizedFrom = RideSearchIndex.normalize(from);
+        String normalizedTo = RideSearchIndex.normalize(to);
+
+        Schedules current = schedules.current();
+        List<IndexedSchedule> matches = new ArrayList<>();
+        for (Map.Entry<RouteKey, Set<IndexedSchedule>> route : current.schedulesByRoute.entrySet()) {
+            if (!route.getKey().matches(normalizedFrom, normalizedTo)) {
+                continue;
+            }
+            for (IndexedSchedule schedule : route.getValue()) {
+                if (schedule.occursOn(date)
+                        && schedule.totalSeats >= seats
+                        && !schedule.departureTime.isBefore(lower) && !schedule.departureTime.isAfter(upper)
+                        && (maxPrice == null || schedule.pricePerSeat.compareTo(maxPrice) <= 0)
+                        && !current.isMaterialized(schedule.scheduleId, date)) {
+                    matches.add(schedule);
+                }
+            }
+        }
+        matches.sort(BY_DEPARTURE);
+        return matches;
+    }
+
+    public int size() {
+        return schedules.current().schedulesById.size();
+    }
+
+    /** One generation of the index; rebuild() fills a new one and swaps it in. */
+    private static class Schedules {
+        private final Map<Long, IndexedSchedule> schedulesById = new ConcurrentHashMap<>();
+
+        private final Map<RouteKey, Set<IndexedSchedule>> schedulesByRoute = new ConcurrentHashMap<>();
+
+        private final Map<Long, Set<LocalDate>> materializedDates = new ConcurrentHashMap<>();
+
+        private void apply(RideScheduleChangedEvent event) {
+            if (event.isActive()) {
+                put(event);
+            } else {
+                remove(event.getScheduleId());
+            }
+        }
+
+        private boolean isMaterialized(Long scheduleId, LocalDate date) {
+            Set<LocalDate> dates = materializedDates.get(scheduleId);
+            return dates != null && dates.contains(date);
+        }
+
+        private void markMaterialized(Long scheduleId, LocalDate date) {
+            LocalDate today = LocalDate.now();
+            materializedDates.compute(scheduleId, (id, existing) -> {
+                Set<LocalDate> dates = existing != null ? existing : ConcurrentHashMap.newKeySet();
+                dates.add(date);
+                // Past occurrences are never searched again
+                dates.removeIf(taken -> taken.isBefore(today));
+                return dates;
+            });
+        }
+
+        private void put(RideScheduleChangedEvent event) {
+            IndexedSchedule updated = new IndexedSchedule(event);
+            schedulesById.compute(event.getScheduleId(), (id, existing) -> {
+                if (existing != null) {
+                    unlink(existing);
+                }
+                schedulesByRoute.computeIfAbsent(updated.route, key -> ConcurrentHashMap.newKeySet()).add(updated);
+                return updated;
+            });
+        }
+
+        private void remove(Long scheduleId) {
+            schedulesById.computeIfPresent(scheduleId, (id, existing) -> {
+                unlink(existing);
+                return null;
+            });
+            materializedDates.remove(scheduleId);
+        }
+
+        private void unlink(IndexedSchedule schedule) {
+            schedulesByRoute.computeIfPresent(schedule.route, (key, bucket) -> {
+                bucket.remove(schedule);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private record RouteKey(String from, String to) {
+
+        boolean matches(String fromQuery, String toQuery) {
+            return from.contains(fromQuery) && to.contains(toQuery);
+        }
+    }
+
+    /** Index entry for a single schedule; replaced as a whole when the schedule changes. */
+    public static class IndexedSchedule {
+        private final Long scheduleId;
+        private final RouteKey route;
+        private final LocalTime departureTime;
+        private final int daysOfWeek;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final int totalSeats;
+        private final BigDecimal pricePerSeat;
+
+        private IndexedSchedule(RideScheduleChangedEvent event) {
+            this.scheduleId = event.getScheduleId();
+            this.route = new RouteKey(RideSearchIndex.normalize(event.getFromLocation()),
+                    RideSearchIndex.normalize(event.getToLocation()));
+            this.departureTime = event.getDepartureTime();
+            this.daysOfWeek = event.getDaysOfWeek();
+            this.startDate = event.getStartDate();
+            this.endDate = event.getEndDate();
+            this.totalSeats = event.getTotalSeats();
+            this.pricePerSeat = event.getPricePerSeat();
+        }
+
+        private boolean occursOn(LocalDate date) {
+            return RideSchedule.occursOn(daysOfWeek, startDate, endDate, date);
+        }
+
+        public Long getScheduleId() {
+            return scheduleId;
+        }
+
+        public LocalTime getDepartureTime() {
+            return departureTime;
+        }
+
+        public BigDecimal getPricePerSeat() {
+            return pricePerSeat;
+        }
+    }
+}
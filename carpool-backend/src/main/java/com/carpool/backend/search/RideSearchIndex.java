@@ -0,0 +1,263 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory index of active rides used to serve /rides/search without scanning
+ * the rides table. Rides are bucketed by departure date and normalized
+ * (from, to) route, and each bucket is kept sorted by departure time so time
+ * windows are answered with a range lookup.
+ */
+@Component
+public class RideSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RideSearchIndex.class);
+
+    private static final Comparator<IndexedRide> BY_DEPARTURE =
+            Comparator.comparing(IndexedRide::getDepartureTime).thenComparing(IndexedRide::getRideId);
+
+    private final IndexGenerations<Rides> rides = new IndexGenerations<>(new Rides());
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    /**
+     * Loads upcoming active rides into a fresh index and swaps it in, so searches
+     * keep using the old one meanwhile. Ride changes committed during the load
+     * may be missing from what it read, so they are replayed onto the fresh index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Rides rebuilt = new Rides();
+        rides.rebuild(rebuilt, () -> {
+            for (Ride ride : rideRepository.findActiveRidesDepartingFrom(LocalDate.now())) {
+                rebuilt.apply(RideChangedEvent.loaded(ride));
+            }
+        });
+        logger.info("Ride search index built with {} active rides", rebuilt.ridesById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        rides.apply(current -> current.apply(event));
+    }
+
+    // Past days are never searched, so their buckets would only hold heap
+    @Scheduled(cron = "${search.prune-cron:0 5 0 * * *}")
+    public void pruneDepartedRides() {
+        LocalDate today = LocalDate.now();
+        rides.apply(current -> current.prune(today));
+    }
+
+    public List<IndexedRide> search(String from, String to, LocalDate date, int seats,
+                                    LocalTime startTime, LocalTime endTime, BigDecimal maxPrice) {
+        Map<RouteKey, NavigableSet<IndexedRide>> routes = rides.current().ridesByDay.get(date);
+        LocalTime lower = startTime != null ? startTime : LocalTime.MIN;
+        LocalTime upper = endTime != null ? endTime : LocalTime.MAX;
+        List<IndexedRide> matches = new ArrayList<>();
+        if (routes == null || lower.isAfter(upper)) {
+            return matches;
+        }
+
+        String normalizedFrom = normalize(from);
+        String normalizedTo = normalize(to);
+        IndexedRide lowerProbe = IndexedRide.probe(lower, Long.MIN_VALUE);
+        IndexedRide upperProbe = IndexedRide.probe(upper, Long.MAX_VALUE);
+
+        // Distinct routes per day are few compared to rides, so substring matching
+        // is done on route keys and only the matching buckets are range-scanned.
+        for (Map.Entry<RouteKey, NavigableSet<IndexedRide>> route : routes.entrySet()) {
+            if (!route.getKey().matches(normalizedFrom, normalizedTo)) {
+                continue;
+            }
+            for (IndexedRide ride : route.getValue().subSet(lowerProbe, true, upperProbe, true)) {
+                if (ride.getAvailableSeats() >= seats
+                        && (maxPrice == null || ride.getPricePerSeat().compareTo(maxPrice) <= 0)) {
+                    matches.add(ride);
+                }
+            }
+        }
+        matches.sort(BY_DEPARTURE);
+        return matches;
+    }
+
+    public int size() {
+        return rides.current().ridesById.size();
+    }
+
+    public static String normalize(String location) {
+        if (location == null) {
+            return "";
+        }
+        return location.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /** One generation of the index; rebuild() fills a new one and swaps it in. */
+    private static class Rides {
+        private final Map<Long, IndexedRide> ridesById = new ConcurrentHashMap<>();
+
+        private final Map<LocalDate, Map<RouteKey, NavigableSet<IndexedRide>>> ridesByDay = new ConcurrentHashMap<>();
+
+        private final RideVersions versions = new RideVersions();
+
+        private void apply(RideChangedEvent event) {
+            versions.applyIfNewer(event, () -> {
+                if (event.isSearchable()) {
+                    put(event);
+                } else {
+                    remove(event.getRideId());
+                }
+            });
+        }
+
+        private void prune(LocalDate today) {
+            ridesByDay.keySet().removeIf(date -> date.isBefore(today));
+            ridesById.values().removeIf(ride -> ride.getDepartureDate().isBefore(today));
+            versions.prune(today);
+        }
+
+        private void put(RideChangedEvent event) {
+            IndexedRide updated = new IndexedRide(event);
+            ridesById.compute(event.getRideId(), (id, existing) -> {
+                if (existing != null && existing.hasSamePosition(updated)) {
+                    existing.refresh(event);
+                    return existing;
+                }
+                if (existing != null) {
+                    unlink(existing);
+                }
+                link(updated);
+                return updated;
+            });
+        }
+
+        private void remove(Long rideId) {
+            ridesById.computeIfPresent(rideId, (id, existing) -> {
+                unlink(existing);
+                return null;
+            });
+        }
+
+        private void link(IndexedRide ride) {
+            ridesByDay.compute(ride.getDepartureDate(), (date, routes) -> {
+                Map<RouteKey, NavigableSet<IndexedRide>> day = routes != null ? routes : new ConcurrentHashMap<>();
+                day.compute(ride.getRoute(), (key, bucket) -> {
+                    NavigableSet<IndexedRide> rides = bucket != null
+                            ? bucket : new ConcurrentSkipListSet<>(BY_DEPARTURE);
+                    rides.add(ride);
+                    return rides;
+                });
+                return day;
+            });
+        }
+
+        private void unlink(IndexedRide ride) {
+            ridesByDay.computeIfPresent(ride.getDepartureDate(), (date, day) -> {
+                day.computeIfPresent(ride.getRoute(), (key, bucket) -> {
+                    bucket.remove(ride);
+                    return bucket.isEmpty() ? null : bucket;
+                });
+                return day.isEmpty() ? null : day;
+            });
+        }
+    }
+
+    private record RouteKey(String from, String to) {
+
+        boolean matches(String fromQuery, String toQuery) {
+            return from.contains(fromQuery) && to.contains(toQuery);
+        }
+    }
+
+    /**
+     * Index entry for a single ride. Position fields (date, route, time) are
+     * immutable; seat count and price are refreshed in place.
+     */
+    public static class IndexedRide {
+        private final Long rideId;
+        private final RouteKey route;
+        private final LocalDate departureDate;
+        private final LocalTime departureTime;
+        private volatile BigDecimal pricePerSeat;
+        private volatile int availableSeats;
+
+        private IndexedRide(RideChangedEvent event) {
+            this.rideId = event.getRideId();
+            this.route = new RouteKey(normalize(event.getFromLocation()), normalize(event.getToLocation()));
+            this.departureDate = event.getDepartureDate();
+            this.departureTime = event.getDepartureTime();
+            this.pricePerSeat = event.getPricePerSeat();
+            this.availableSeats = event.getAvailableSeats();
+        }
+
+        private IndexedRide(LocalTime departureTime, Long rideId) {
+            this.rideId = rideId;
+            this.route = null;
+            this.departureDate = null;
+            this.departureTime = departureTime;
+        }
+
+        private static IndexedRide probe(LocalTime departureTime, Long rideId) {
+            return new IndexedRide(departureTime, rideId);
+        }
+
+        private boolean hasSamePosition(IndexedRide other) {
+            return route.equals(other.route)
+                    && departureDate.equals(other.departureDate)
+                    && departureTime.equals(other.departureTime);
+        }
+
+        private void refresh(RideChangedEvent event) {
+            this.pricePerSeat = event.getPricePerSeat();
+            this.availableSeats = event.getAvailableSeats();
+        }
+
+        private RouteKey getRoute() {
+            return route;
+        }
+
+        public Long getRideId() {
+            return rideId;
+        }
+
+        public LocalDate getDepartureDate() {
+            return departureDate;
+        }
+
+        public LocalTime getDepartureTime() {
+            return departureTime;
+        }
+
+        public BigDecimal getPricePerSeat() {
+            return pricePerSeat;
+        }
+
+        public int getAvailableSeats() {
+            return availableSeats;
+        }
+    }
+}
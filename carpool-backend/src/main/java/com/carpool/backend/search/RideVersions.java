@@ -0,0 +1,39 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.event.RideChangedEvent;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The sequence of the last {@link RideChangedEvent} an index applied for each
+ * ride, removals included. After-commit listeners for two changes to one ride
+ * can run on different threads in either order; the older one is dropped here
+ * instead of overwriting the newer seat count or bringing a cancelled ride back.
+ */
+final class RideVersions {
+
+    private final Map<Long, Version> byRide = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code change} unless a later event for the ride was applied already.
+     * The check and the change run as one step per ride.
+     */
+    void applyIfNewer(RideChangedEvent event, Runnable change) {
+        byRide.compute(event.getRideId(), (id, last) -> {
+            if (last != null && last.sequence() > event.getSequence()) {
+                return last;
+            }
+            change.run();
+            return new Version(event.getSequence(), event.getDepartureDate());
+        });
+    }
+
+    /** Forgets rides departing before {@code date}, which no search asks for again. */
+    void prune(LocalDate date) {
+        byRide.values().removeIf(version -> version.departureDate().isBefore(date));
+    }
+
+    private record Version(long sequence, LocalDate departureDate) {}
+}
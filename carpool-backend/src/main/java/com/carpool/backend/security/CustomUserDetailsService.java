@@ -19,6 +19,9 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -27,32 +30,73 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserPrincipal(user);
     }
 
+    /**
+     * Resolves the principal for an authenticated request from verified token
+     * claims. Access tokens carry userId, so no users lookup is needed. Their
+     * isDriver and isVerified claims can be as old as the token, so a principal
+     * built from claims alone has ROLE_USER only; code that cares whether the
+     * user drives or is verified reads the user. When the principal cache is
+     * enabled the principal is loaded from the database and kept briefly, and
+     * carries ROLE_DRIVER as a principal from a login does.
+     * Tokens without a userId claim (refresh and reset tokens) fall back to the database.
+     */
+    public CustomUserPrincipal loadUserByToken(VerifiedToken token) {
+        if (token.userId() == null) {
+            return (CustomUserPrincipal) loadUserByUsername(token.subject());
+        }
+        if (!userPrincipalCache.isEnabled()) {
+            return CustomUserPrincipal.fromToken(token);
+        }
+        return userPrincipalCache.get(token.userId(), id -> userRepository.findById(id)
+                .map(CustomUserPrincipal::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id)));
+    }
+
     public static class CustomUserPrincipal implements UserDetails {
-        private final User user;
+        private final Long userId;
+        private final String email;
+        private final String passwordHash;
+        private final List<GrantedAuthority> authorities;
 
         public CustomUserPrincipal(User user) {
-            this.user = user;
+            this(user.getId(), user.getEmail(), user.getPasswordHash(), Boolean.TRUE.equals(user.getIsDriver()));
         }
 
-        @Override
-        public String getUsername() {
-            return user.getEmail();
+        private CustomUserPrincipal(Long userId, String email, String passwordHash, boolean driver) {
+            this.userId = userId;
+            this.email = email;
+            this.passwordHash = passwordHash;
+            this.authorities = buildAuthorities(driver);
         }
 
-        @Override
-        public String getPassword() {
-            return user.getPasswordHash();
+        // Lightweight principal for access tokens; carries no password hash and no claims that may be stale
+        public static CustomUserPrincipal fromToken(VerifiedToken token) {
+            return new CustomUserPrincipal(token.userId(), token.subject(), null, false);
         }
 
-        @Override
-        public List<GrantedAuthority> getAuthorities() {
+        private static List<GrantedAuthority> buildAuthorities(boolean driver) {
             List<GrantedAuthority> authorities = new ArrayList<>();
             authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
 
-            if (user.getIsDriver()) {
+            if (driver) {
                 authorities.add(new SimpleGrantedAuthority("ROLE_DRIVER"));
             }
 
+            return List.copyOf(authorities);
+        }
+
+        @Override
+        public String getUsername() {
+            return email;
+        }
+
+        @Override
+        public String getPassword() {
+            return passwordHash;
+        }
+
+        @Override
+        public List<GrantedAuthority> getAuthorities() {
             return authorities;
         }
 
@@ -76,22 +120,8 @@ public class CustomUserDetailsService implements UserDetailsService {
             return true; // You can add email verification logic here
         }
 
-        // Getter for the User entity
-        public User getUser() {
-            return user;
-        }
-
         public Long getUserId() {
-            return user.getId();
-        }
-
-        public boolean isVerified() {
-            return user.getIsVerified();
-        }
-
-        public boolean isDriver() {
-            return user.getIsDriver();
+            return userId;
         }
     }
 }
-
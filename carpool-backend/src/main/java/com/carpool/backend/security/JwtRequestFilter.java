@@ -1,6 +1,7 @@
 package com.carpool.backend.security;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,8 +20,10 @@ import java.io.IOException;
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    private static final String SSE_STREAM_PATH = "/push/stream";
+
     @Autowired
-    private UserDetailsService userDetailsService;
+    private CustomUserDetailsService userDetailsService;
 
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
@@ -29,20 +32,30 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain chain) throws ServletException, IOException {
 
-        final String requestTokenHeader = request.getHeader("Authorization");
+        String requestTokenHeader = request.getHeader("Authorization");
+
+        // EventSource cannot set headers, so the SSE stream may pass the token as a query parameter
+        if (requestTokenHeader == null && SSE_STREAM_PATH.equals(request.getServletPath())
+                && request.getParameter("access_token") != null) {
+            requestTokenHeader = "Bearer " + request.getParameter("access_token");
+        }
 
         String username = null;
-        String jwtToken = null;
+        VerifiedToken verified = null;
 
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
+                // Verify once; subject and expiry are read from the same verified token
+                verified = jwtTokenUtil.verify(jwtToken);
+                username = verified.subject();
             } catch (IllegalArgumentException e) {
                 logger.error("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
                 logger.error("JWT Token has expired");
+            } catch (JwtException e) {
+                logger.error("JWT Token is invalid");
             }
         } else {
             logger.warn("JWT Token does not begin with Bearer String");
@@ -51,10 +64,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // Once we get the token validate it
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Access tokens carry the principal in their claims; no users lookup per request
+            UserDetails userDetails = null;
+            try {
+                userDetails = this.userDetailsService.loadUserByToken(verified);
+            } catch (UsernameNotFoundException e) {
+                logger.warn("JWT Token refers to an unknown user");
+            }
 
             // if token is valid configure Spring Security to manually set authentication
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+            if (userDetails != null && jwtTokenUtil.validate(verified, userDetails)) {
 
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                         new UsernamePasswordAuthenticationToken(
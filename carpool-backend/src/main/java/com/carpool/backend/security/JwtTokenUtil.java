@@ -1,7 +1,11 @@
 package com.carpool.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +17,7 @@ import java.time.ZoneId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -27,18 +32,59 @@ public class JwtTokenUtil {
     @Value("${spring.security.jwt.refresh-expiration}")
     private int refreshExpiration;
 
+    @Value("${spring.security.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    // Verified tokens, each kept until its own exp; null when the cache is disabled
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        if (claimsCacheSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(claimsCacheSize)
+                    .expireAfter(new Expiry<String, VerifiedToken>() {
+                        @Override
+                        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                            long remainingMillis = verified.expiresAtMillis() - System.currentTimeMillis();
+                            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime,
+                                                      long currentDuration) {
+                            return currentDuration;
+                        }
+
+                        @Override
+                        public long expireAfterRead(String token, VerifiedToken verified, long currentTime,
+                                                    long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     // Extract username from token
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     // Extract expiration date from token
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return new Date(verify(token).expiresAtMillis());
     }
 
     // Extract any claim from token
@@ -47,13 +93,24 @@ public class JwtTokenUtil {
         return claimsResolver.apply(claims);
     }
 
-    // Get all claims from token
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Get all claims from token; parses and verifies the token on every call
+    public Claims getAllClaimsFromToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    // Verify a token and keep what authentication needs. Cached until the token expires,
+    // so repeat requests with the same bearer token skip signature verification.
+    public VerifiedToken verify(String token) {
+        if (verifiedTokens == null) {
+            return VerifiedToken.of(getAllClaimsFromToken(token));
+        }
+        VerifiedToken verified = verifiedTokens.get(token, key -> VerifiedToken.of(getAllClaimsFromToken(key)));
+        // Caffeine's clock may run a little behind exp; the parser would reject the token by now
+        if (verified.isExpired(System.currentTimeMillis())) {
+            verifiedTokens.invalidate(token);
+            return VerifiedToken.of(getAllClaimsFromToken(token));
+        }
+        return verified;
     }
 
     // Check if token is expired
@@ -103,17 +160,19 @@ public class JwtTokenUtil {
 
     // Validate token
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validate(verify(token), userDetails);
+    }
+
+    // Validate an already verified token against the loaded user
+    public Boolean validate(VerifiedToken verified, UserDetails userDetails) {
+        return verified.subject().equals(userDetails.getUsername())
+                && !verified.isExpired(System.currentTimeMillis());
     }
 
     // Validate token without user details
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            verify(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -122,8 +181,7 @@ public class JwtTokenUtil {
 
     // Extract user ID from token
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return Long.valueOf(claims.get("userId").toString());
+        return verify(token).userId();
     }
 
     // Extract user role from token
@@ -134,14 +192,12 @@ public class JwtTokenUtil {
 
     // Check if user is driver from token
     public Boolean isDriverFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("isDriver", Boolean.class);
+        return verify(token).driver();
     }
 
     // Check if user is verified from token
     public Boolean isVerifiedFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return claims.get("isVerified", Boolean.class);
+        return verify(token).verified();
     }
 
     // Get token expiration time in LocalDateTime
@@ -0,0 +1,91 @@
+package com.carpool.backend.security;
+
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Optional short-lived cache of principals by user id. Disabled when the TTL is
+ * zero, in which case principals are built from token claims alone. Callers that
+ * change a user's profile, verification or driver status, or delete the user, must
+ * evict the entry; the eviction takes effect when their transaction commits.
+ */
+@Component
+public class UserPrincipalCache {
+
+    @Value("${spring.security.jwt.principal-cache-ttl:0}")
+    private long ttlMillis;
+
+    @Value("${spring.security.jwt.principal-cache-size:10000}")
+    private int maxSize;
+
+    // Holds loads in flight too, so an eviction also discards a load that read the row before the change
+    private AsyncCache<Long, CustomUserPrincipal> principalsByUserId;
+
+    @PostConstruct
+    public void buildCache() {
+        if (isEnabled()) {
+            principalsByUserId = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                    .buildAsync();
+        }
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    public CustomUserPrincipal get(Long userId, Function<Long, CustomUserPrincipal> loader) {
+        CompletableFuture<CustomUserPrincipal> loading = new CompletableFuture<>();
+        CompletableFuture<CustomUserPrincipal> cached = principalsByUserId.asMap().putIfAbsent(userId, loading);
+        if (cached != null) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        // Loaded on the caller's thread, outside any cache lock, so a virtual thread never pins on the query
+        try {
+            CustomUserPrincipal principal = loader.apply(userId);
+            loading.complete(principal);
+            return principal;
+        } catch (RuntimeException e) {
+            // Failed futures are dropped from the cache
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the user's principal once the current transaction commits. Evicting
+     * earlier would let a concurrent request cache the row as it was before the change.
+     */
+    public void evict(Long userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalsByUserId.asMap().remove(userId);
+                }
+            });
+        } else {
+            principalsByUserId.asMap().remove(userId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.carpool.backend.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * The claims of a verified JWT that authentication needs, copied out of the
+ * parsed {@link Claims} so they can be cached and shared between requests.
+ * {@code userId} is null on refresh and reset tokens.
+ */
+public record VerifiedToken(String subject, Long userId, boolean driver, boolean verified, long expiresAtMillis) {
+
+    static VerifiedToken of(Claims claims) {
+        Object userId = claims.get("userId");
+        return new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? Long.valueOf(userId.toString()) : null,
+                Boolean.TRUE.equals(claims.get("isDriver", Boolean.class)),
+                Boolean.TRUE.equals(claims.get("isVerified", Boolean.class)),
+                claims.getExpiration().getTime());
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAtMillis <= now;
+    }
+}
@@ -11,6 +11,7 @@ import com.carpool.backend.exception.UnauthorizedException;
 import com.carpool.backend.exception.UserAlreadyExistsException;
 import com.carpool.backend.repository.UserRepository;
 import com.carpool.backend.security.JwtTokenUtil;
+import com.carpool.backend.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -48,6 +49,12 @@ public class AuthService {
     @Autowired
     private TwilioWhatsAppService twilioWhatsAppService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private ResponseCacheInvalidator responseCacheInvalidator;
+
     public LoginResponse register(RegisterRequest request) {
         // Check if user already exists
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -188,6 +195,8 @@ public class AuthService {
 
         user.setIsVerified(true);
         userRepository.save(user);
+        userPrincipalCache.evict(user.getId());
+        responseCacheInvalidator.userChanged(user.getId());
     }
 
     public void sendPasswordResetEmail(String email) {
@@ -8,7 +8,11 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,11 +23,14 @@ import com.carpool.backend.entity.Booking.BookingStatus;
 import com.carpool.backend.entity.Booking.PaymentStatus;
 import com.carpool.backend.entity.Ride;
 import com.carpool.backend.entity.User;
+import com.carpool.backend.event.BookingChangedEvent;
+import com.carpool.backend.event.RideChangedEvent;
 import com.carpool.backend.exception.ResourceNotFoundException;
 import com.carpool.backend.exception.RideNotAvailableException;
 import com.carpool.backend.exception.UnauthorizedException;
 import com.carpool.backend.repository.BookingRepository;
 import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.RideStopRepository;
 import com.carpool.backend.repository.UserRepository;
 
 import jakarta.validation.ValidationException;
@@ -40,8 +47,38 @@ public class BookingService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RideStopRepository rideStopRepository;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private SegmentSeatInventory segmentSeatInventory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter gateRejections;
+    private Counter databaseRejections;
+
+    @PostConstruct
+    public void registerMeters() {
+        // Bookers turned away for seats that were gone: by the in-memory gate, or by the rides row
+        // update after the gate let them through (the gate's counter was stale)
+        gateRejections = Counter.builder("booking.seats.rejected").tag("stage", "gate")
+                .description("Bookings rejected because the seats were already taken").register(meterRegistry);
+        databaseRejections = Counter.builder("booking.seats.rejected").tag("stage", "database")
+                .description("Bookings rejected because the seats were already taken").register(meterRegistry);
+    }
+
     @Transactional
     public BookingResponse createBooking(Long rideId, BookingCreateRequest request, Long passengerId) {
+        // Lets the seat gate tell whether seats came back after the ride was read
+        long readAt = System.nanoTime();
         Ride ride = rideRepository.findById(rideId)
                 .orElseThrow(() -> new ResourceNotFoundException("Ride not found with id: " + rideId));
 
@@ -73,20 +110,49 @@ public class BookingService {
         User passenger = userRepository.findById(passengerId)
                 .orElseThrow(() -> new ResourceNotFoundException("Passenger not found"));
 
+        int seats = request.getSeatsRequested();
+        Integer fromStop = null;
+        Integer toStop = null;
+        if (ride.isMultiStop()) {
+            int lastStop = ride.getStops().size() - 1;
+            fromStop = request.getFromStop() != null ? request.getFromStop() : 0;
+            toStop = request.getToStop() != null ? request.getToStop() : lastStop;
+            if (fromStop >= toStop || toStop > lastStop) {
+                throw new ValidationException("Invalid stops: the drop-off must come after the pickup, at stop "
+                        + lastStop + " or earlier");
+            }
+            reserveSegments(ride, fromStop, toStop, seats);
+        } else {
+            if (request.getFromStop() != null || request.getToStop() != null) {
+                throw new ValidationException("This ride has no intermediate stops");
+            }
+            // Hot rides turn bookers away in memory once sold out; the conditional update is authoritative
+            if (!seatInventory.tryReserve(rideId, seats, ride.getAvailableSeats(), readAt)) {
+                gateRejections.increment();
+                throw new RideNotAvailableException("Not enough seats available. Requested: " + seats);
+            }
+            if (rideRepository.reserveSeats(rideId, seats) == 0) {
+                databaseRejections.increment();
+                throw new RideNotAvailableException("Not enough seats available. Requested: " + seats);
+            }
+        }
+
         BigDecimal totalAmount = ride.getPricePerSeat().multiply(new BigDecimal(request.getSeatsRequested()));
 
         Booking booking = new Booking();
         booking.setRide(ride);
         booking.setPassenger(passenger);
         booking.setSeatsBooked(request.getSeatsRequested());
+        booking.setFromStop(fromStop);
+        booking.setToStop(toStop);
         booking.setTotalAmount(totalAmount);
         booking.setStatus(BookingStatus.PENDING);
         booking.setPaymentStatus(PaymentStatus.PENDING);
 
         booking = bookingRepository.save(booking);
 
-        ride.setAvailableSeats(ride.getAvailableSeats() - request.getSeatsRequested());
-        rideRepository.save(ride);
+        eventPublisher.publishEvent(RideChangedEvent.updated(ride, rideRepository.findAvailableSeatsById(rideId)));
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
 
         return convertToBookingResponse(booking);
     }
@@ -132,6 +198,7 @@ public class BookingService {
         }
         booking.setStatus(BookingStatus.CONFIRMED);
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
 
         return convertToBookingResponse(booking);
     }
@@ -169,14 +236,41 @@ public class BookingService {
         }
 
         Ride ride = booking.getRide();
-        ride.setAvailableSeats(ride.getAvailableSeats() + booking.getSeatsBooked());
-        rideRepository.save(ride);
+        if (booking.getFromStop() != null) {
+            rideRepository.lockById(ride.getId());
+            rideStopRepository.releaseSeats(ride.getId(), booking.getFromStop(), booking.getToStop(),
+                    booking.getSeatsBooked());
+            rideRepository.refreshSegmentSeats(ride.getId());
+            segmentSeatInventory.seatsReturned(ride.getId());
+        } else {
+            rideRepository.releaseSeats(ride.getId(), booking.getSeatsBooked());
+            seatInventory.seatsReturned(ride.getId());
+        }
+        eventPublisher.publishEvent(RideChangedEvent.updated(ride, rideRepository.findAvailableSeatsById(ride.getId())));
 
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
         return convertToBookingResponse(booking);
     }
 
-    
+    // Same two stages as for whole rides, over segments [fromStop, toStop): the in-memory tree turns
+    // bookers away once a segment is full, and the conditional update of the stops is authoritative
+    private void reserveSegments(Ride ride, int fromStop, int toStop, int seats) {
+        Long rideId = ride.getId();
+        if (!segmentSeatInventory.tryReserve(rideId, fromStop, toStop, seats, ride.getTotalSeats(),
+                () -> rideStopRepository.findSegmentBookedSeats(rideId))) {
+            gateRejections.increment();
+            throw new RideNotAvailableException("Not enough seats available between these stops. Requested: " + seats);
+        }
+        // Bookers of one ride take its row lock first, so their stop and ride updates cannot deadlock
+        rideRepository.lockById(rideId);
+        if (rideStopRepository.reserveSeats(rideId, fromStop, toStop, seats) != toStop - fromStop) {
+            databaseRejections.increment();
+            throw new RideNotAvailableException("Not enough seats available between these stops. Requested: " + seats);
+        }
+        rideRepository.refreshSegmentSeats(rideId);
+    }
+
     private BookingResponse convertToBookingResponse(Booking booking) {
         BookingResponse response = new BookingResponse();
         response.setId(booking.getId());
@@ -187,6 +281,8 @@ public class BookingService {
         response.setStatus(booking.getStatus());
         response.setPaymentStatus(booking.getPaymentStatus());
         response.setPaymentId(booking.getPaymentId());
+        response.setFromStop(booking.getFromStop());
+        response.setToStop(booking.getToStop());
         response.setCreatedAt(booking.getCreatedAt());
         response.setUpdatedAt(booking.getUpdatedAt());
 
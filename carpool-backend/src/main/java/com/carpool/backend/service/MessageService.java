@@ -1,13 +1,20 @@
 package com.carpool.backend.service;
 
+import com.carpool.backend.dto.response.CursorPage;
+import com.carpool.backend.entity.Conversation;
 import com.carpool.backend.entity.Message;
 import com.carpool.backend.entity.Ride;
 import com.carpool.backend.entity.User;
+import com.carpool.backend.event.MessageSentEvent;
+import com.carpool.backend.repository.ConversationRepository;
 import com.carpool.backend.repository.MessageRepository;
 import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.unread.UnreadCounterStore.Kind;
+import com.carpool.backend.unread.UnreadCounters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +36,18 @@ public class MessageService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private ReadReceiptBuffer readReceiptBuffer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private TwilioWhatsAppService twilioWhatsAppService;
 
@@ -52,6 +71,8 @@ public class MessageService {
             }
 
             Message savedMessage = messageRepository.save(message);
+            recordInConversations(savedMessage);
+            eventPublisher.publishEvent(MessageSentEvent.of(savedMessage));
 
             // Send WhatsApp notification to receiver
             if (receiver.getPhone() != null && !receiver.getPhone().isEmpty()) {
@@ -73,25 +94,27 @@ public class MessageService {
         }
     }
 
-    public List<Message> getConversation(Long userId1, Long userId2) {
-        Optional<User> user1Opt = userRepository.findById(userId1);
-        Optional<User> user2Opt = userRepository.findById(userId2);
-
-        if (user1Opt.isEmpty() || user2Opt.isEmpty()) {
-            throw new RuntimeException("One or both users not found");
-        }
-
-        return messageRepository.findConversationBetweenUsers(user1Opt.get(), user2Opt.get());
+    /**
+     * Returns up to {@code limit} messages between the two users older than
+     * {@code beforeId} (or the newest ones when null), newest first. The next
+     * cursor is the id of the oldest message returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Message> getConversation(Long userId1, Long userId2, Long beforeId, int limit) {
+        List<Message> messages = messageRepository.findConversationPage(
+                Math.min(userId1, userId2), Math.max(userId1, userId2),
+                beforeId != null ? beforeId : Long.MAX_VALUE, PageRequest.of(0, limit + 1));
+
+        boolean hasMore = messages.size() > limit;
+        List<Message> page = hasMore ? messages.subList(0, limit) : messages;
+        String nextCursor = hasMore ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        return new CursorPage<>(page, nextCursor);
     }
 
-    public Page<Message> getUserConversations(Long userId, int page, int size) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("User not found");
-        }
-
+    @Transactional(readOnly = true)
+    public Page<Conversation> getUserConversations(Long userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return messageRepository.findLatestConversationsForUser(userOpt.get(), pageable);
+        return conversationRepository.findInbox(userId, pageable);
     }
 
     public List<Message> getUnreadMessages(Long userId) {
@@ -103,22 +126,44 @@ public class MessageService {
         return messageRepository.findUnreadMessagesForUser(userOpt.get());
     }
 
+    // Served from the unread counters; the database is only counted when a counter is seeded
+    @Transactional(readOnly = true)
     public long getUnreadMessageCount(Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isEmpty()) {
-            return 0;
-        }
+        return unreadCounters.get(Kind.MESSAGES, userId,
+                () -> messageRepository.countUnreadMessagesForUserId(userId));
+    }
 
-        return messageRepository.countUnreadMessagesForUser(userOpt.get());
+    /**
+     * Marks everything the reader has received from {@code partnerId} up to
+     * {@code lastSeenId} as read. Only the reader's conversation row is written
+     * here; the messages themselves are updated in batches by
+     * {@link ReadReceiptBuffer}, so a view costs one indexed update however many
+     * messages were unread.
+     */
+    public void markConversationRead(Long readerId, Long partnerId, Long lastSeenId) {
+        if (conversationRepository.markReadUpTo(readerId, partnerId, lastSeenId) > 0) {
+            readReceiptBuffer.add(readerId, partnerId, lastSeenId);
+        }
     }
 
-    @Transactional
-    public void markMessagesAsRead(Long userId, Long senderId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        Optional<User> senderOpt = userRepository.findById(senderId);
+    /** The newest message id {@code ownerId} has read from {@code partnerId}, or null. */
+    @Transactional(readOnly = true)
+    public Long getReadWatermark(Long ownerId, Long partnerId) {
+        return conversationRepository.findByOwnerIdAndPartnerId(ownerId, partnerId)
+                .map(Conversation::getLastReadMessageId)
+                .orElse(null);
+    }
 
-        if (userOpt.isPresent() && senderOpt.isPresent()) {
-            messageRepository.markMessagesAsRead(userOpt.get(), senderOpt.get());
+    // Both participants' inbox rows, lower user id first so concurrent replies
+    // in the same conversation take the row locks in the same order
+    private void recordInConversations(Message message) {
+        Long senderId = message.getSender().getId();
+        Long receiverId = message.getReceiver().getId();
+        Long rideId = message.getRide() != null ? message.getRide().getId() : null;
+        for (Long ownerId : senderId <= receiverId ? List.of(senderId, receiverId) : List.of(receiverId, senderId)) {
+            boolean received = ownerId.equals(receiverId);
+            conversationRepository.recordMessage(ownerId, received ? senderId : receiverId, message.getId(), senderId,
+                    message.getMessageText(), message.getSentAt(), rideId, received ? 1 : 0);
         }
     }
 
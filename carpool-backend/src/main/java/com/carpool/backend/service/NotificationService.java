@@ -0,0 +1,82 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.dto.response.NotificationResponse;
+import com.carpool.backend.entity.Notification;
+import com.carpool.backend.event.NotificationCreatedEvent;
+import com.carpool.backend.repository.NotificationRepository;
+import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.unread.UnreadCounterStore.Kind;
+import com.carpool.backend.unread.UnreadCounters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class NotificationService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public Notification createNotification(Long userId, String title, String message, String type) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+
+        Notification notification = notificationRepository.save(
+                new Notification(userRepository.getReferenceById(userId), title, message, type));
+        eventPublisher.publishEvent(NotificationCreatedEvent.of(notification));
+        return notification;
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationResponse> getUserNotifications(Long userId) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(this::convertToResponse)
+                .toList();
+    }
+
+    // Served from the unread counters; the database is only counted when a counter is seeded
+    @Transactional(readOnly = true)
+    public long getUnreadCount(Long userId) {
+        return unreadCounters.get(Kind.NOTIFICATIONS, userId,
+                () -> notificationRepository.countUnreadByUserId(userId));
+    }
+
+    public void markAsRead(Long notificationId, Long userId) {
+        int read = notificationRepository.markAsReadForUser(notificationId, userId);
+        if (read == 0 && !notificationRepository.existsById(notificationId)) {
+            throw new RuntimeException("Notification not found");
+        }
+        unreadCounters.markedRead(Kind.NOTIFICATIONS, userId, read);
+    }
+
+    public int markAllAsRead(Long userId) {
+        int read = notificationRepository.markAllAsReadByUserId(userId);
+        unreadCounters.markedRead(Kind.NOTIFICATIONS, userId, read);
+        return read;
+    }
+
+    private NotificationResponse convertToResponse(Notification notification) {
+        return new NotificationResponse(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getType(),
+                notification.getIsRead(),
+                notification.getCreatedAt()
+        );
+    }
+}
@@ -1,7 +1,5 @@
 package com.carpool.backend.service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +30,9 @@ public class RatingService {
     @Autowired
     private RideRepository rideRepository;
 
+    @Autowired
+    private ResponseCacheInvalidator responseCacheInvalidator;
+
     @Transactional
     public RatingResponse createRating(RatingRequest request, Long raterId) {
         User rater = userRepository.findById(raterId)
@@ -73,38 +74,14 @@ public class RatingService {
 
         Rating savedRating = ratingRepository.save(rating);
 
-        updateUserRating(ratee.getId());
-        updateUserTotalRides(ratee.getId());
+        // O(1) regardless of how many ratings the user already has; totalRides is
+        // maintained when rides complete, see RideService.updateRideStatus
+        userRepository.addRating(ratee.getId(), request.getRating());
+        responseCacheInvalidator.userChanged(ratee.getId());
 
         return convertToResponse(savedRating);
     }
 
-    @Transactional
-    public void updateUserRating(Long userId) {
-        BigDecimal avgRating = ratingRepository.findAverageRatingByUserId(userId);
-        if (avgRating != null) {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-            user.setRating(avgRating.setScale(1, RoundingMode.HALF_UP));
-            userRepository.save(user);
-        }
-    }
-
-    @Transactional
-    public void updateUserTotalRides(Long userId) {
-        Long ridesAsDriver = rideRepository.countCompletedRidesByDriverId(userId);
-        
-        Long ridesAsPassenger = rideRepository.countCompletedBookingsByPassengerId(userId);
-        
-        int totalRides = ridesAsDriver.intValue() + ridesAsPassenger.intValue();
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        user.setTotalRides(totalRides);
-        userRepository.save(user);
-    }
-    
-
     public List<RatingResponse> getUserRatings(Long userId) {
         List<Rating> ratings = ratingRepository.findByRateeId(userId);
         return ratings.stream()
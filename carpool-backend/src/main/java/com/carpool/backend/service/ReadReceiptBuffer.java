@@ -0,0 +1,114 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.repository.MessageRepository;
+import com.carpool.backend.unread.UnreadCounterStore.Kind;
+import com.carpool.backend.unread.UnreadCounters;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces read receipts before they reach the messages table. Viewing a
+ * conversation only advances the conversation's read watermark; the receipt
+ * is kept here per (reader, sender), merged to the highest message id seen,
+ * and flushed every {@code messages.read-receipts.flush-interval-ms} as
+ * bounded {@code UPDATE ... WHERE id <= :lastSeenId} statements, one
+ * transaction per batch. Opening the same chat repeatedly within a window
+ * costs a single update.
+ */
+@Component
+public class ReadReceiptBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReceiptBuffer.class);
+
+    // Flushed in a fixed order so concurrent flushers take message row locks consistently
+    private static final Comparator<Receipt> LOCK_ORDER =
+            Comparator.comparing(Receipt::readerId).thenComparing(Receipt::senderId);
+
+    private final Map<Pair, Long> pending = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UnreadCounters unreadCounters;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${messages.read-receipts.batch-size:200}")
+    private int batchSize;
+
+    /** Queues a receipt once the current transaction commits. */
+    public void add(Long readerId, Long senderId, Long lastSeenId) {
+        Pair pair = new Pair(readerId, senderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.merge(pair, lastSeenId, Math::max);
+                }
+            });
+        } else {
+            pending.merge(pair, lastSeenId, Math::max);
+        }
+    }
+
+    /** Writes every queued receipt; returns how many messages were marked read. */
+    @Scheduled(fixedDelayString = "${messages.read-receipts.flush-interval-ms:500}")
+    public int flush() {
+        List<Receipt> receipts = new ArrayList<>();
+        for (Pair pair : pending.keySet()) {
+            Long lastSeenId = pending.remove(pair);
+            if (lastSeenId != null) {
+                receipts.add(new Receipt(pair.readerId(), pair.senderId(), lastSeenId));
+            }
+        }
+        receipts.sort(LOCK_ORDER);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int marked = 0;
+        for (int from = 0; from < receipts.size(); from += batchSize) {
+            List<Receipt> batch = receipts.subList(from, Math.min(from + batchSize, receipts.size()));
+            try {
+                marked += transaction.execute(status -> {
+                    int read = 0;
+                    for (Receipt receipt : batch) {
+                        int rows = messageRepository.markReadUpTo(
+                                receipt.readerId(), receipt.senderId(), receipt.lastSeenId());
+                        unreadCounters.markedRead(Kind.MESSAGES, receipt.readerId(), rows);
+                        read += rows;
+                    }
+                    return read;
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Failed to flush {} read receipts, retrying on the next run", batch.size(), e);
+                batch.forEach(receipt -> add(receipt.readerId(), receipt.senderId(), receipt.lastSeenId()));
+            }
+        }
+        return marked;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record Pair(Long readerId, Long senderId) {}
+
+    private record Receipt(Long readerId, Long senderId, Long lastSeenId) {}
+}
@@ -0,0 +1,70 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.config.CacheConfig;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.repository.BookingRepository;
+import com.carpool.backend.repository.RideRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Evicts cached ride and user responses once the change that made them stale
+ * has committed, so a concurrent read cannot put the old row back. Ride
+ * entries follow {@link RideChangedEvent}s, which also cover seat changes from
+ * bookings. Services call {@link #userChanged} after editing anything shown in
+ * a user's profile, or in the driver or passenger entries of the rides they
+ * drive or have booked.
+ */
+@Component
+public class ResponseCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        evict(CacheConfig.RIDE_DETAILS, List.of(event.getRideId()));
+    }
+
+    public void userChanged(Long userId) {
+        // Read inside the caller's transaction; the evictions wait for its commit
+        List<Long> drivenRideIds = rideRepository.findIdsByDriverId(userId);
+        List<Long> bookedRideIds = bookingRepository.findRideIdsByPassengerId(userId);
+        Runnable eviction = () -> {
+            evict(CacheConfig.USERS, List.of(userId));
+            evict(CacheConfig.RIDE_DETAILS, drivenRideIds);
+            evict(CacheConfig.RIDE_DETAILS, bookedRideIds);
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private void evict(String cacheName, List<Long> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+}
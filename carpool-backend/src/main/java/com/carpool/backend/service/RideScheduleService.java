@@ -0,0 +1,191 @@
+package com.carpool.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carpool.backend.dto.request.RideScheduleRequest;
+import com.carpool.backend.dto.response.RideScheduleResponse;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.RideSchedule;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.event.RideScheduleChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.RideScheduleRepository;
+import com.carpool.backend.repository.UserRepository;
+
+@Service
+public class RideScheduleService {
+
+    // A year of commuting; occurrences are never stored, but search has to skip them
+    static final int MAX_SCHEDULE_DAYS = 366;
+
+    @Autowired
+    private RideScheduleRepository rideScheduleRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional
+    public RideScheduleResponse createSchedule(RideScheduleRequest request, Long driverId) {
+        User driver = userRepository.findById(driverId)
+                .orElseThrow(() -> new RuntimeException("Driver not found"));
+
+        if (request.getEndDate().isBefore(request.getStartDate())) {
+            throw new RuntimeException("End date cannot be before start date");
+        }
+        if (request.getStartDate().isBefore(LocalDate.now())) {
+            throw new RuntimeException("Start date cannot be in the past");
+        }
+        if (request.getStartDate().plusDays(MAX_SCHEDULE_DAYS).isBefore(request.getEndDate())) {
+            throw new RuntimeException("A schedule can run for at most " + MAX_SCHEDULE_DAYS + " days");
+        }
+
+        RideSchedule schedule = new RideSchedule();
+        schedule.setDriver(driver);
+        schedule.setFromLocation(request.getFrom());
+        schedule.setToLocation(request.getTo());
+        GeoPoint from = GeoPoint.ofNullable(request.getFromLatitude(), request.getFromLongitude());
+        if (from == null) {
+            from = gazetteer.resolve(request.getFrom()).orElse(null);
+        }
+        GeoPoint to = GeoPoint.ofNullable(request.getToLatitude(), request.getToLongitude());
+        if (to == null) {
+            to = gazetteer.resolve(request.getTo()).orElse(null);
+        }
+        schedule.setFromLatitude(from != null ? from.latitude() : null);
+        schedule.setFromLongitude(from != null ? from.longitude() : null);
+        schedule.setToLatitude(to != null ? to.latitude() : null);
+        schedule.setToLongitude(to != null ? to.longitude() : null);
+        schedule.setDepartureTime(request.getDepartureTime());
+        schedule.setDaysOfWeek(RideSchedule.daysOfWeekMask(request.getDaysOfWeek()));
+        schedule.setStartDate(request.getStartDate());
+        schedule.setEndDate(request.getEndDate());
+        schedule.setTotalSeats(request.getPassengers());
+        schedule.setPricePerSeat(request.getPricePerSeat());
+        schedule.setCarModel(request.getCarModel());
+        schedule.setCarNumber(request.getCarNumber());
+        schedule.setAdditionalInfo(request.getAdditionalInfo());
+        schedule.setInstantBooking(request.isInstantBooking());
+
+        RideSchedule savedSchedule = rideScheduleRepository.save(schedule);
+        eventPublisher.publishEvent(RideScheduleChangedEvent.of(savedSchedule));
+        return mapToScheduleResponse(savedSchedule);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RideScheduleResponse> getDriverSchedules(Long driverId) {
+        return rideScheduleRepository.findByDriverIdOrderByStartDate(driverId).stream()
+                .map(this::mapToScheduleResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Occurrences that already became rides keep running; the driver cancels those one by one
+    @Transactional
+    public void cancelSchedule(Long scheduleId, Long driverId) {
+        RideSchedule schedule = rideScheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new RuntimeException("Ride schedule not found"));
+
+        if (!schedule.getDriver().getId().equals(driverId)) {
+            throw new RuntimeException("Unauthorized to cancel this ride schedule");
+        }
+
+        schedule.setStatus(RideSchedule.ScheduleStatus.CANCELLED);
+        rideScheduleRepository.save(schedule);
+        eventPublisher.publishEvent(RideScheduleChangedEvent.of(schedule));
+    }
+
+    /**
+     * The id of the ride for the schedule's occurrence on {@code date}, creating
+     * it if this is the first booking. The ride is committed on its own, before
+     * the booking, so that when two first bookings race, the one that loses on
+     * the unique (schedule, date) key can use the winner's ride.
+     */
+    public Long materialize(Long scheduleId, LocalDate date) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            return transaction.execute(status -> rideRepository.findIdByScheduleIdAndDepartureDate(scheduleId, date)
+                    .orElseGet(() -> createOccurrence(scheduleId, date)));
+        } catch (DataIntegrityViolationException e) {
+            return rideRepository.findIdByScheduleIdAndDepartureDate(scheduleId, date).orElseThrow(() -> e);
+        }
+    }
+
+    private Long createOccurrence(Long scheduleId, LocalDate date) {
+        RideSchedule schedule = rideScheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new RuntimeException("Ride schedule not found"));
+
+        if (!schedule.isActive() || !schedule.occursOn(date)) {
+            throw new RuntimeException("This schedule has no ride on " + date);
+        }
+        if (LocalDateTime.of(date, schedule.getDepartureTime()).isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("This ride has already departed");
+        }
+
+        Ride ride = new Ride();
+        ride.setSchedule(schedule);
+        ride.setDriver(schedule.getDriver());
+        ride.setFromLocation(schedule.getFromLocation());
+        ride.setToLocation(schedule.getToLocation());
+        ride.setFromLatitude(schedule.getFromLatitude());
+        ride.setFromLongitude(schedule.getFromLongitude());
+        ride.setToLatitude(schedule.getToLatitude());
+        ride.setToLongitude(schedule.getToLongitude());
+        ride.setDepartureDate(date);
+        ride.setDepartureTime(schedule.getDepartureTime());
+        ride.setTotalSeats(schedule.getTotalSeats());
+        ride.setAvailableSeats(schedule.getTotalSeats());
+        ride.setPricePerSeat(schedule.getPricePerSeat());
+        ride.setCarModel(schedule.getCarModel());
+        ride.setCarNumber(schedule.getCarNumber());
+        ride.setAdditionalInfo(schedule.getAdditionalInfo());
+        ride.setInstantBooking(schedule.isInstantBooking());
+
+        Ride savedRide = rideRepository.saveAndFlush(ride);
+        eventPublisher.publishEvent(RideChangedEvent.updated(savedRide));
+        return savedRide.getId();
+    }
+
+    private RideScheduleResponse mapToScheduleResponse(RideSchedule schedule) {
+        RideScheduleResponse response = new RideScheduleResponse();
+        response.setId(schedule.getId());
+        response.setFrom(schedule.getFromLocation());
+        response.setTo(schedule.getToLocation());
+        response.setDepartureTime(schedule.getDepartureTime());
+        response.setDaysOfWeek(RideSchedule.daysOfWeek(schedule.getDaysOfWeek()));
+        response.setStartDate(schedule.getStartDate());
+        response.setEndDate(schedule.getEndDate());
+        response.setTotalSeats(schedule.getTotalSeats());
+        response.setPricePerSeat(schedule.getPricePerSeat());
+        response.setCarModel(schedule.getCarModel());
+        response.setCarNumber(schedule.getCarNumber());
+        response.setAdditionalInfo(schedule.getAdditionalInfo());
+        response.setInstantBooking(schedule.isInstantBooking());
+        response.setStatus(schedule.getStatus().toString());
+        return response;
+    }
+}
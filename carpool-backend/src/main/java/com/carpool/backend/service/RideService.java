@@ -4,13 +4,39 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import com.carpool.backend.config.CacheConfig;
 import com.carpool.backend.dto.request.RideOfferRequest;
+import com.carpool.backend.dto.response.CursorPage;
 import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.RideSchedule;
+import com.carpool.backend.entity.RideStop;
+import com.carpool.backend.event.BookingChangedEvent;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.geo.Polyline;
 import com.carpool.backend.repository.BookingRepository;
+import com.carpool.backend.repository.RideScheduleRepository;
+import com.carpool.backend.repository.RideStopRepository;
+import com.carpool.backend.repository.RideSpecifications;
+import com.carpool.backend.search.LocationSuggestIndex;
+import com.carpool.backend.search.RideCorridorIndex;
+import com.carpool.backend.search.RideGeoIndex;
+import com.carpool.backend.search.RideScheduleIndex;
+import com.carpool.backend.search.RideSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +50,8 @@ import com.carpool.backend.repository.UserRepository;
 @Transactional
 public class RideService {
 
+    private static final int MAX_NEARBY_RESULTS = 200;
+
     @Autowired
     private RideRepository rideRepository;
     
@@ -33,6 +61,42 @@ public class RideService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private RideStopRepository rideStopRepository;
+
+    @Autowired
+    private RideScheduleRepository rideScheduleRepository;
+
+    @Autowired
+    private RideSearchIndex rideSearchIndex;
+
+    @Autowired
+    private RideGeoIndex rideGeoIndex;
+
+    @Autowired
+    private RideCorridorIndex rideCorridorIndex;
+
+    @Autowired
+    private RideScheduleIndex rideScheduleIndex;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    private LocationSuggestIndex locationSuggestIndex;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private SegmentSeatInventory segmentSeatInventory;
+
+    @Autowired
+    private ResponseCacheInvalidator responseCacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public RideResponse offerRide(RideOfferRequest request, Long driverId) {
         User driver = userRepository.findById(driverId)
                 .orElseThrow(() -> new RuntimeException("Driver not found"));
@@ -41,6 +105,7 @@ public class RideService {
         ride.setDriver(driver);
         ride.setFromLocation(request.getFrom());
         ride.setToLocation(request.getTo());
+        placeRide(ride, request);
         ride.setDepartureDate(request.getDepartureDate());
         ride.setDepartureTime(request.getDepartureTime());
         ride.setTotalSeats(request.getPassengers());
@@ -50,64 +115,172 @@ public class RideService {
         ride.setCarNumber(request.getCarNumber());
         ride.setAdditionalInfo(request.getAdditionalInfo());
         ride.setInstantBooking(request.isInstantBooking());
+        placeStops(ride, request);
 
         Ride savedRide = rideRepository.save(ride);
-        return mapToRideResponse(savedRide);
+        eventPublisher.publishEvent(RideChangedEvent.updated(savedRide));
+        return mapToRideDetails(savedRide);
     }
+
+    @Transactional(readOnly = true)
     public List<RideResponse> searchRides(String from, String to, LocalDate date, 
                                         Integer passengers, LocalTime time, BigDecimal maxPrice) {
-        List<Ride> rides;
-        
-        if (time != null && maxPrice != null) {
-            LocalTime startTime = time.minusHours(1);
-            LocalTime endTime = time.plusHours(1);
-            rides = rideRepository.searchRidesWithTimeRange(from, to, date, passengers, startTime, endTime)
-                    .stream()
-                    .filter(ride -> ride.getPricePerSeat().compareTo(maxPrice) <= 0)
-                    .collect(Collectors.toList());
-        } else if (maxPrice != null) {
-            rides = rideRepository.searchRidesWithPriceFilter(from, to, date, passengers, maxPrice);
-        } else {
-            rides = rideRepository.searchRides(from, to, date, passengers);
+        // Time window only applies together with a price limit, as before
+        LocalTime startTime = time != null && maxPrice != null ? time.minusHours(1) : null;
+        LocalTime endTime = time != null && maxPrice != null ? time.plusHours(1) : null;
+
+        List<RideSearchIndex.IndexedRide> matches =
+                rideSearchIndex.search(from, to, date, passengers, startTime, endTime, maxPrice);
+        if (maxPrice != null && time == null) {
+            matches.sort(Comparator.comparing(RideSearchIndex.IndexedRide::getPricePerSeat));
         }
 
-        return rides.stream()
+        List<Long> rideIds = matches.stream()
+                .map(RideSearchIndex.IndexedRide::getRideId)
+                .collect(Collectors.toList());
+        Map<Long, Ride> ridesById = rideRepository.findWithDriverByIdIn(rideIds).stream()
+                .collect(Collectors.toMap(Ride::getId, Function.identity()));
+
+        // The index may lag a commit behind, so re-check against the loaded rows
+        List<RideResponse> rides = rideIds.stream()
+                .map(ridesById::get)
+                .filter(Objects::nonNull)
+                .filter(ride -> ride.isActive() && ride.hasAvailableSeats(passengers))
                 .map(this::mapToRideResponse)
                 .collect(Collectors.toList());
+
+        // Recurring schedules whose occurrence that day nobody has booked yet
+        List<Long> scheduleIds = rideScheduleIndex.search(from, to, date, passengers, startTime, endTime, maxPrice)
+                .stream()
+                .map(RideScheduleIndex.IndexedSchedule::getScheduleId)
+                .collect(Collectors.toList());
+        if (scheduleIds.isEmpty()) {
+            return rides;
+        }
+        for (RideSchedule schedule : rideScheduleRepository.findWithDriverByIdIn(scheduleIds)) {
+            if (schedule.isActive() && schedule.occursOn(date)) {
+                rides.add(mapToOccurrenceResponse(schedule, date));
+            }
+        }
+        rides.sort(maxPrice != null && time == null
+                ? Comparator.comparing(RideResponse::getPricePerSeat)
+                : Comparator.comparing(RideResponse::getDepartureTime));
+        return rides;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RideResponse> searchNearby(GeoPoint origin, double originRadiusKm,
+                                           GeoPoint destination, double destinationRadiusKm,
+                                           LocalDate date, int passengers, int limit) {
+        if (originRadiusKm <= 0 || originRadiusKm > RideGeoIndex.MAX_RADIUS_KM
+                || destinationRadiusKm <= 0 || destinationRadiusKm > RideGeoIndex.MAX_RADIUS_KM) {
+            throw new RuntimeException("Radius must be between 0 and " + (int) RideGeoIndex.MAX_RADIUS_KM + " km");
+        }
+
+        List<RideGeoIndex.Match> matches = rideGeoIndex.search(origin, originRadiusKm, destination,
+                destinationRadiusKm, date, passengers, Math.min(limit, MAX_NEARBY_RESULTS));
+
+        Map<Long, Ride> ridesById = loadBookable(matches.stream().map(RideGeoIndex.Match::rideId).toList(),
+                passengers);
+        return matches.stream()
+                .filter(match -> ridesById.containsKey(match.rideId()))
+                .map(match -> {
+                    RideResponse response = mapToRideResponse(ridesById.get(match.rideId()));
+                    response.setOriginDistanceKm(roundKm(match.originDistanceKm()));
+                    if (match.destinationDistanceKm() != null) {
+                        response.setDestinationDistanceKm(roundKm(match.destinationDistanceKm()));
+                    }
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /** Rides whose route passes within {@code radiusKm} of the pickup and then of the drop-off. */
+    @Transactional(readOnly = true)
+    public List<RideResponse> searchCorridor(GeoPoint pickup, GeoPoint dropOff, double radiusKm,
+                                             LocalDate date, int passengers, int limit) {
+        if (radiusKm <= 0 || radiusKm > RideCorridorIndex.MAX_RADIUS_KM) {
+            throw new RuntimeException("Radius must be between 0 and " + (int) RideCorridorIndex.MAX_RADIUS_KM + " km");
+        }
+
+        List<RideCorridorIndex.Match> matches = rideCorridorIndex.search(pickup, dropOff, radiusKm, date, passengers,
+                Math.min(limit, MAX_NEARBY_RESULTS));
+
+        Map<Long, Ride> ridesById = loadBookable(matches.stream().map(RideCorridorIndex.Match::rideId).toList(),
+                passengers);
+        return matches.stream()
+                .filter(match -> ridesById.containsKey(match.rideId()))
+                .map(match -> {
+                    RideResponse response = mapToRideResponse(ridesById.get(match.rideId()));
+                    response.setOriginDistanceKm(roundKm(match.pickupDistanceKm()));
+                    response.setDestinationDistanceKm(roundKm(match.dropOffDistanceKm()));
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A search point from explicit coordinates or, failing that, a place name
+     * known to the gazetteer. Returns null when neither is given.
+     */
+    public GeoPoint locate(Double latitude, Double longitude, String place) {
+        if (latitude != null || longitude != null) {
+            if (latitude == null || longitude == null) {
+                throw new RuntimeException("Both latitude and longitude are required");
+            }
+            try {
+                return new GeoPoint(latitude, longitude);
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException(e.getMessage());
+            }
+        }
+        if (place == null || place.isBlank()) {
+            return null;
+        }
+        return gazetteer.resolve(place)
+                .orElseThrow(() -> new RuntimeException("Unknown location: " + place.trim()));
     }
 
+    // Evicted by ResponseCacheInvalidator when the ride or its driver changes
+    @Cacheable(cacheNames = CacheConfig.RIDE_DETAILS, key = "#rideId")
+    @Transactional(readOnly = true)
     public RideResponse getRideDetails(Long rideId) {
         Ride ride = rideRepository.findById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
-        return mapToRideResponse(ride);
+        return mapToRideDetails(ride);
     }
 
     public void deleteRide(Long rideId, Long driverId) {
-        Ride ride = rideRepository.findById(rideId)
+        // Locked so the change event is numbered after any other change to the ride commits
+        Ride ride = rideRepository.lockById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
         if (!ride.getDriver().getId().equals(driverId)) {
             throw new RuntimeException("Unauthorized to delete this ride");
         }
 
-        List<Booking> confirmedBookings = bookingRepository.findByRideIdAndStatus(rideId, Booking.BookingStatus.CONFIRMED);
-        List<Booking> pendingBookings = bookingRepository.findByRideIdAndStatus(rideId, Booking.BookingStatus.PENDING);
-
-        if (!confirmedBookings.isEmpty() || !pendingBookings.isEmpty()) {
+        if (hasActiveBookings(rideId)) {
             throw new RuntimeException("Cannot delete ride with active bookings. Please cancel the ride instead.");
         }
 
+        // Deleting would bring the occurrence back into search; cancelling skips it
+        if (ride.getSchedule() != null) {
+            throw new RuntimeException("Cannot delete a ride from a schedule. Please cancel the ride instead.");
+        }
+
         LocalDateTime rideDateTime = LocalDateTime.of(ride.getDepartureDate(), ride.getDepartureTime());
         if (rideDateTime.isBefore(LocalDateTime.now())) {
             throw new RuntimeException("Cannot delete past rides");
         }
 
         rideRepository.delete(ride);
+        eventPublisher.publishEvent(RideChangedEvent.deleted(ride));
     }
 
     public RideResponse updateRide(Long rideId, RideOfferRequest request, Long driverId) {
-        Ride ride = rideRepository.findById(rideId)
+        // Locked so the seat and stop checks below see every booking committed before them
+        Ride ride = rideRepository.lockById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
         if (!ride.getDriver().getId().equals(driverId)) {
@@ -118,22 +291,57 @@ public class RideService {
             throw new RuntimeException("Cannot update inactive ride");
         }
 
-        int currentBookedSeats = ride.getTotalSeats() - ride.getAvailableSeats();
+        if (ride.getSchedule() != null && !ride.getDepartureDate().equals(request.getDepartureDate())) {
+            throw new RuntimeException("Cannot move a ride from a schedule to another date");
+        }
+
         int newTotalSeats = request.getPassengers();
+        int currentBookedSeats;
+
+        if (stopNames(request).size() != ride.getStops().size()) {
+            // Bookings hold seats on segments between numbered stops, so stops can only be
+            // added or removed while there are none
+            if (hasActiveBookings(rideId)) {
+                throw new RuntimeException("Cannot add or remove stops on a ride with active bookings");
+            }
+            currentBookedSeats = 0;
+            ride.setAvailableSeats(newTotalSeats);
+            seatInventory.seatsReturned(rideId);
+            segmentSeatInventory.seatsReturned(rideId);
+        } else if (ride.isMultiStop()) {
+            List<Integer> bookedSeats = rideStopRepository.findSegmentBookedSeats(rideId);
+            currentBookedSeats = Collections.max(bookedSeats);
+            if (newTotalSeats < currentBookedSeats) {
+                throw new RuntimeException("Cannot reduce total seats below already booked seats (" + currentBookedSeats + ")");
+            }
+            ride.setAvailableSeats(newTotalSeats - Collections.min(bookedSeats));
+            if (newTotalSeats != ride.getTotalSeats()) {
+                segmentSeatInventory.seatsReturned(rideId);
+            }
+        } else {
+            currentBookedSeats = ride.getTotalSeats() - ride.getAvailableSeats();
+            if (newTotalSeats < currentBookedSeats) {
+                throw new RuntimeException("Cannot reduce total seats below already booked seats (" + currentBookedSeats + ")");
+            }
 
-        if (newTotalSeats < currentBookedSeats) {
-            throw new RuntimeException("Cannot reduce total seats below already booked seats (" + currentBookedSeats + ")");
+            // Resize with a conditional update so bookings committed since the read are not overwritten
+            if (newTotalSeats != ride.getTotalSeats()) {
+                if (rideRepository.resizeSeats(rideId, newTotalSeats) == 0) {
+                    throw new RuntimeException("Cannot reduce total seats below already booked seats");
+                }
+                seatInventory.seatsReturned(rideId);
+            }
         }
 
         boolean priceChanged = !ride.getPricePerSeat().equals(request.getPricePerSeat());
 
         ride.setFromLocation(request.getFrom());
         ride.setToLocation(request.getTo());
+        placeRide(ride, request);
         ride.setDepartureDate(request.getDepartureDate());
         ride.setDepartureTime(request.getDepartureTime());
 
         ride.setTotalSeats(newTotalSeats);
-        ride.setAvailableSeats(newTotalSeats - currentBookedSeats);
 
         BigDecimal oldPricePerSeat = ride.getPricePerSeat();
         ride.setPricePerSeat(request.getPricePerSeat());
@@ -142,17 +350,23 @@ public class RideService {
         ride.setCarNumber(request.getCarNumber());
         ride.setAdditionalInfo(request.getAdditionalInfo());
         ride.setInstantBooking(request.isInstantBooking());
+        placeStops(ride, request);
 
         Ride updatedRide = rideRepository.save(ride);
+        // The loaded seat count may predate concurrent bookings; report the current one
+        int availableSeats = rideRepository.findAvailableSeatsById(rideId);
+        eventPublisher.publishEvent(RideChangedEvent.updated(updatedRide, availableSeats));
 
         if (priceChanged && currentBookedSeats > 0) {
             updateExistingBookingAmounts(ride.getId(), oldPricePerSeat, request.getPricePerSeat());
         }
-        return mapToRideResponse(updatedRide);
+        RideResponse response = mapToRideDetails(updatedRide);
+        response.setAvailableSeats(availableSeats);
+        return response;
     }
 
     public void cancelRide(Long rideId, Long driverId) {
-        Ride ride = rideRepository.findById(rideId)
+        Ride ride = rideRepository.lockById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
         if (!ride.getDriver().getId().equals(driverId)) {
@@ -161,10 +375,11 @@ public class RideService {
 
         ride.setStatus(Ride.RideStatus.CANCELLED);
         rideRepository.save(ride);
+        eventPublisher.publishEvent(RideChangedEvent.updated(ride));
     }
 
     public void updateRideStatus(Long rideId, String statusString, Long driverId) {
-        Ride ride = rideRepository.findById(rideId)
+        Ride ride = rideRepository.lockById(rideId)
                 .orElseThrow(() -> new RuntimeException("Ride not found"));
 
         if (!ride.getDriver().getId().equals(driverId)) {
@@ -206,6 +421,7 @@ public class RideService {
                 for (Booking booking : activeBookings) {
                     booking.setStatus(Booking.BookingStatus.CANCELLED);
                     bookingRepository.save(booking);
+                    eventPublisher.publishEvent(BookingChangedEvent.of(booking));
                 }
             }
         }
@@ -213,50 +429,77 @@ public class RideService {
         // Update the ride status
         ride.setStatus(newStatus);
         rideRepository.save(ride);
-    }
 
-    public List<RideResponse> filterRides(String from, String to, LocalDate startDate, LocalDate endDate,
-                                        BigDecimal minPrice, BigDecimal maxPrice, Integer minSeats,
-                                        int page, int size) {
-        
-        List<Ride> rides = rideRepository.findActiveRides();
+        // Completed is terminal, so each ride is counted exactly once
+        if (newStatus == Ride.RideStatus.COMPLETED) {
+            userRepository.incrementTotalRides(driverId);
+            userRepository.incrementTotalRidesForConfirmedPassengers(rideId);
+            responseCacheInvalidator.userChanged(driverId);
+        }
+        eventPublisher.publishEvent(RideChangedEvent.updated(ride));
+    }
 
-        return rides.stream()
-                .filter(ride -> from == null || ride.getFromLocation().toLowerCase().contains(from.toLowerCase()))
-                .filter(ride -> to == null || ride.getToLocation().toLowerCase().contains(to.toLowerCase()))
-                .filter(ride -> startDate == null || !ride.getDepartureDate().isBefore(startDate))
-                .filter(ride -> endDate == null || !ride.getDepartureDate().isAfter(endDate))
-                .filter(ride -> minPrice == null || ride.getPricePerSeat().compareTo(minPrice) >= 0)
-                .filter(ride -> maxPrice == null || ride.getPricePerSeat().compareTo(maxPrice) <= 0)
-                .filter(ride -> minSeats == null || ride.getAvailableSeats() >= minSeats)
-                .skip(page * size)
-                .limit(size)
+    @Transactional(readOnly = true)
+    public CursorPage<RideResponse> filterRides(String from, String to, LocalDate startDate, LocalDate endDate,
+                                              BigDecimal minPrice, BigDecimal maxPrice, Integer minSeats,
+                                              String cursor, int size) {
+        Specification<Ride> spec = Specification.where(RideSpecifications.isActive())
+                .and(RideSpecifications.fromContains(from))
+                .and(RideSpecifications.toContains(to))
+                .and(RideSpecifications.departingOnOrAfter(startDate))
+                .and(RideSpecifications.departingOnOrBefore(endDate))
+                .and(RideSpecifications.priceAtLeast(minPrice))
+                .and(RideSpecifications.priceAtMost(maxPrice))
+                .and(RideSpecifications.seatsAtLeast(minSeats))
+                .and(RideSpecifications.after(RideSpecifications.Cursor.decode(cursor)));
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Ride> rides = rideRepository.findBy(spec, query -> query
+                .sortBy(RideSpecifications.DEPARTURE_ORDER)
+                .limit(size + 1)
+                .project("driver")
+                .all());
+
+        boolean hasNext = rides.size() > size;
+        List<Ride> pageRides = hasNext ? rides.subList(0, size) : rides;
+        String nextCursor = hasNext
+                ? RideSpecifications.Cursor.of(pageRides.get(pageRides.size() - 1)).encode()
+                : null;
+
+        List<RideResponse> content = pageRides.stream()
                 .map(this::mapToRideResponse)
                 .collect(Collectors.toList());
+        return new CursorPage<>(content, nextCursor);
     }
 
-
+    @Transactional(readOnly = true)
     public List<RideResponse> getDriverRides(Long driverId) {
-        User driver = userRepository.findById(driverId)
-                .orElseThrow(() -> new RuntimeException("Driver not found"));
+        if (!userRepository.existsById(driverId)) {
+            throw new RuntimeException("Driver not found");
+        }
 
-        List<Ride> rides = rideRepository.findByDriver(driver);
+        List<Ride> rides = rideRepository.findWithDriverByDriverId(driverId);
         return rides.stream()
                 .map(this::mapToRideResponse)
                 .collect(Collectors.toList());
     }
 
     public List<String> getDistinctFromLocations() {
-        return rideRepository.findDistinctFromLocations();
+        return locationSuggestIndex.locations(LocationSuggestIndex.Side.FROM);
     }
 
     public List<String> getDistinctToLocations() {
-        return rideRepository.findDistinctToLocations();
+        return locationSuggestIndex.locations(LocationSuggestIndex.Side.TO);
+    }
+
+    public List<String> suggestLocations(String query, LocationSuggestIndex.Side side, int limit) {
+        return locationSuggestIndex.suggest(query, side, limit);
     }
 
     private RideResponse mapToRideResponse(Ride ride) {
         RideResponse response = new RideResponse();
         response.setId(ride.getId());
+        response.setScheduleId(ride.getSchedule() != null ? ride.getSchedule().getId() : null);
         response.setDepartureDate(ride.getDepartureDate());
         response.setDepartureTime(ride.getDepartureTime());
         response.setCarModel(ride.getCarModel());
@@ -268,21 +511,177 @@ public class RideService {
         response.setStatus(ride.getStatus().toString());
         response.setInstantBooking(ride.isInstantBooking());
 
-        RideResponse.DriverInfo driverInfo = new RideResponse.DriverInfo();
-        driverInfo.setName(ride.getDriver().getFullName());
-        driverInfo.setPhone(ride.getDriver().getPhone());
-        driverInfo.setRating(ride.getDriver().getRating());
-        driverInfo.setTotalTrips(ride.getDriver().getTotalRides());
-        response.setDriver(driverInfo);
+        response.setDriver(mapToDriverInfo(ride.getDriver()));
 
         RideResponse.RouteInfo routeInfo = new RideResponse.RouteInfo();
         routeInfo.setFrom(ride.getFromLocation());
         routeInfo.setTo(ride.getToLocation());
+        routeInfo.setFromLatitude(ride.getFromLatitude());
+        routeInfo.setFromLongitude(ride.getFromLongitude());
+        routeInfo.setToLatitude(ride.getToLatitude());
+        routeInfo.setToLongitude(ride.getToLongitude());
+        routeInfo.setPolyline(ride.getRoutePolyline());
         response.setRoute(routeInfo);
 
         return response;
     }
 
+    // An occurrence nobody has booked yet: every seat is free, and it has no id until its first booking
+    private RideResponse mapToOccurrenceResponse(RideSchedule schedule, LocalDate date) {
+        RideResponse response = new RideResponse();
+        response.setScheduleId(schedule.getId());
+        response.setDepartureDate(date);
+        response.setDepartureTime(schedule.getDepartureTime());
+        response.setCarModel(schedule.getCarModel());
+        response.setCarNumber(schedule.getCarNumber());
+        response.setTotalSeats(schedule.getTotalSeats());
+        response.setAvailableSeats(schedule.getTotalSeats());
+        response.setPricePerSeat(schedule.getPricePerSeat());
+        response.setAdditionalInfo(schedule.getAdditionalInfo());
+        response.setStatus(Ride.RideStatus.ACTIVE.toString());
+        response.setInstantBooking(schedule.isInstantBooking());
+        response.setDriver(mapToDriverInfo(schedule.getDriver()));
+
+        RideResponse.RouteInfo routeInfo = new RideResponse.RouteInfo();
+        routeInfo.setFrom(schedule.getFromLocation());
+        routeInfo.setTo(schedule.getToLocation());
+        routeInfo.setFromLatitude(schedule.getFromLatitude());
+        routeInfo.setFromLongitude(schedule.getFromLongitude());
+        routeInfo.setToLatitude(schedule.getToLatitude());
+        routeInfo.setToLongitude(schedule.getToLongitude());
+        response.setRoute(routeInfo);
+
+        return response;
+    }
+
+    private static RideResponse.DriverInfo mapToDriverInfo(User driver) {
+        RideResponse.DriverInfo driverInfo = new RideResponse.DriverInfo();
+        driverInfo.setName(driver.getFullName());
+        driverInfo.setPhone(driver.getPhone());
+        driverInfo.setRating(driver.getRating());
+        driverInfo.setTotalTrips(driver.getTotalRides());
+        return driverInfo;
+    }
+
+    // Single-ride views also list the stops, which mapToRideResponse leaves alone so lists stay one query
+    private RideResponse mapToRideDetails(Ride ride) {
+        RideResponse response = mapToRideResponse(ride);
+        if (!ride.isMultiStop()) {
+            return response;
+        }
+        List<RideResponse.StopInfo> stops = new ArrayList<>();
+        for (RideStop stop : ride.getStops()) {
+            RideResponse.StopInfo stopInfo = new RideResponse.StopInfo();
+            stopInfo.setPosition(stop.getPosition());
+            stopInfo.setLocation(stop.getLocation());
+            stopInfo.setLatitude(stop.getLatitude());
+            stopInfo.setLongitude(stop.getLongitude());
+            stopInfo.setAvailableSeatsToNext(stop.getBookedSeats() != null
+                    ? ride.getTotalSeats() - stop.getBookedSeats() : null);
+            stops.add(stopInfo);
+        }
+        response.setStops(stops);
+        return response;
+    }
+
+    // Pins sent by the client win, then the ends of its planned route; otherwise each end is
+    // looked up by name and may stay unknown
+    private void placeRide(Ride ride, RideOfferRequest request) {
+        List<GeoPoint> route = null;
+        if (request.getRoutePolyline() != null && !request.getRoutePolyline().isBlank()) {
+            try {
+                route = Polyline.decode(request.getRoutePolyline().trim());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid route polyline");
+            }
+            if (route.size() < 2) {
+                throw new RuntimeException("Route polyline needs at least two points");
+            }
+        }
+
+        GeoPoint from = GeoPoint.ofNullable(request.getFromLatitude(), request.getFromLongitude());
+        if (from == null && route != null) {
+            from = route.get(0);
+        }
+        if (from == null) {
+            from = gazetteer.resolve(request.getFrom()).orElse(null);
+        }
+        GeoPoint to = GeoPoint.ofNullable(request.getToLatitude(), request.getToLongitude());
+        if (to == null && route != null) {
+            to = route.get(route.size() - 1);
+        }
+        if (to == null) {
+            to = gazetteer.resolve(request.getTo()).orElse(null);
+        }
+        ride.setFromLatitude(from != null ? from.latitude() : null);
+        ride.setFromLongitude(from != null ? from.longitude() : null);
+        ride.setToLatitude(to != null ? to.latitude() : null);
+        ride.setToLongitude(to != null ? to.longitude() : null);
+        ride.setRoutePolyline(route != null
+                ? Polyline.encode(Polyline.simplify(route, Polyline.SIMPLIFY_TOLERANCE_KM)) : null);
+    }
+
+    // Origin, waypoints and destination; empty when the ride has no waypoints
+    private static List<String> stopNames(RideOfferRequest request) {
+        if (request.getWaypoints() == null || request.getWaypoints().isEmpty()) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        names.add(request.getFrom());
+        request.getWaypoints().forEach(waypoint -> names.add(waypoint.trim()));
+        names.add(request.getTo());
+        return names;
+    }
+
+    // Call after placeRide. Rows are changed in place rather than replaced, as Hibernate would
+    // insert the new rows before deleting the old ones and break the unique stop positions.
+    // Adding or removing stops resets the booked seats, which updateRide only allows without bookings.
+    private void placeStops(Ride ride, RideOfferRequest request) {
+        List<String> names = stopNames(request);
+        List<RideStop> stops = ride.getStops();
+        boolean resized = names.size() != stops.size();
+        while (stops.size() > names.size()) {
+            stops.remove(stops.size() - 1);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            if (i == stops.size()) {
+                stops.add(new RideStop(ride, i, names.get(i)));
+            }
+            RideStop stop = stops.get(i);
+            stop.setLocation(names.get(i));
+            GeoPoint point;
+            if (i == 0) {
+                point = GeoPoint.ofNullable(ride.getFromLatitude(), ride.getFromLongitude());
+            } else if (i == names.size() - 1) {
+                point = GeoPoint.ofNullable(ride.getToLatitude(), ride.getToLongitude());
+            } else {
+                point = gazetteer.resolve(names.get(i)).orElse(null);
+            }
+            stop.setLatitude(point != null ? point.latitude() : null);
+            stop.setLongitude(point != null ? point.longitude() : null);
+            if (resized) {
+                stop.setBookedSeats(i < names.size() - 1 ? 0 : null);
+            }
+        }
+        ride.setMultiStop(!names.isEmpty());
+    }
+
+    private boolean hasActiveBookings(Long rideId) {
+        return !bookingRepository.findByRideIdAndStatus(rideId, Booking.BookingStatus.CONFIRMED).isEmpty()
+                || !bookingRepository.findByRideIdAndStatus(rideId, Booking.BookingStatus.PENDING).isEmpty();
+    }
+
+    // Same re-check as searchRides, as the spatial indexes may lag a commit behind
+    private Map<Long, Ride> loadBookable(List<Long> rideIds, int passengers) {
+        return rideRepository.findWithDriverByIdIn(rideIds).stream()
+                .filter(ride -> ride.isActive() && ride.hasAvailableSeats(passengers))
+                .collect(Collectors.toMap(Ride::getId, Function.identity()));
+    }
+
+    private static double roundKm(double km) {
+        return Math.round(km * 10) / 10.0;
+    }
+
     private void updateExistingBookingAmounts(Long rideId, BigDecimal oldPrice, BigDecimal newPrice) {
         try {
             List<Booking> activeBookings = bookingRepository.findByRideIdAndStatus(rideId, Booking.BookingStatus.CONFIRMED);
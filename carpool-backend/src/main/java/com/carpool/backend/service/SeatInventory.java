@@ -0,0 +1,185 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.event.RideChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory seat counters for rides that are currently being booked. A booking
+ * takes its seats here with a compare-and-set before touching the rides row, so
+ * when a popular ride sells out, the remaining bookers are turned away without
+ * queueing on the row lock. The conditional update in RideRepository stays the
+ * source of truth. A counter can admit too many bookers, who are then rejected
+ * by the database, but it never lets a ride overbook.
+ *
+ * Counters are seeded from the seat count the booking just read and live for
+ * {@code booking.seat-gate.ttl-ms}. Seats taken by a transaction that rolls back
+ * are given back. When the ride stops taking bookings, the counter is dropped.
+ * When a committed change frees seats, the counter is replaced by a note of when
+ * that happened. A booking that read the ride before then may have seen too few
+ * seats, so it neither seeds a counter nor is turned away here; the conditional
+ * update decides.
+ */
+@Component
+public class SeatInventory {
+
+    private final Map<Long, RideSeats> seatsByRide = new ConcurrentHashMap<>();
+
+    @Value("${booking.seat-gate.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.seat-gate.ttl-ms:2000}")
+    private long ttlMillis;
+
+    @Value("${booking.seat-gate.max-rides:10000}")
+    private int maxRides;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter casRetries;
+
+    @PostConstruct
+    public void registerMeters() {
+        casRetries = Counter.builder("booking.seats.gate.retries")
+                .description("Seat counter updates retried because another booking changed it first")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("booking.seats.gate.rides", List.of(), seatsByRide);
+    }
+
+    /**
+     * Takes seats from the ride's counter. Returns false if they are known to be
+     * gone. Otherwise the seats stay held until the current transaction completes.
+     * {@code readAt} is the {@link System#nanoTime()} taken before the booking read
+     * {@code availableSeats}.
+     */
+    public boolean tryReserve(Long rideId, int seats, int availableSeats, long readAt) {
+        if (!enabled) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        long ttl = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        if (seatsByRide.size() >= maxRides) {
+            seatsByRide.values().removeIf(entry -> entry.isExpired(now));
+        }
+        RideSeats rideSeats = seatsByRide.compute(rideId, (id, existing) -> {
+            if (existing != null && !existing.isExpired(now)) {
+                return existing.isCounting() || readAt - existing.returnedAt <= 0
+                        ? existing : RideSeats.counting(availableSeats, now + ttl);
+            }
+            // A return of seats older than the ttl is no longer on record, so neither is a read that old
+            return now - readAt < ttl ? RideSeats.counting(availableSeats, now + ttl) : null;
+        });
+        if (rideSeats == null || !rideSeats.isCounting()) {
+            return true;
+        }
+        if (!rideSeats.tryTake(seats, casRetries)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        rideSeats.give(seats);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Drops the ride's counter once the current transaction commits. Call this after
+     * seats are given back or the seat total changes. The next booking that read the
+     * ride after the commit then seeds a new counter.
+     */
+    public void seatsReturned(Long rideId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markReturned(rideId);
+                }
+            });
+        } else {
+            markReturned(rideId);
+        }
+    }
+
+    private void markReturned(Long rideId) {
+        long now = System.nanoTime();
+        seatsByRide.put(rideId, RideSeats.returned(now, now + TimeUnit.MILLISECONDS.toNanos(ttlMillis)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        if (!event.isSearchable()) {
+            seatsByRide.remove(event.getRideId());
+        }
+    }
+
+    private static final class RideSeats {
+        // Null while no count is known since seats were returned at returnedAt
+        private final AtomicInteger remaining;
+        private final long returnedAt;
+        private final long expiresAt;
+
+        private RideSeats(AtomicInteger remaining, long returnedAt, long expiresAt) {
+            this.remaining = remaining;
+            this.returnedAt = returnedAt;
+            this.expiresAt = expiresAt;
+        }
+
+        private static RideSeats counting(int remaining, long expiresAt) {
+            return new RideSeats(new AtomicInteger(remaining), 0, expiresAt);
+        }
+
+        private static RideSeats returned(long returnedAt, long expiresAt) {
+            return new RideSeats(null, returnedAt, expiresAt);
+        }
+
+        private boolean isCounting() {
+            return remaining != null;
+        }
+
+        private boolean tryTake(int seats, Counter retries) {
+            while (true) {
+                int current = remaining.get();
+                if (current < seats) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - seats)) {
+                    return true;
+                }
+                retries.increment();
+            }
+        }
+
+        private void give(int seats) {
+            remaining.addAndGet(seats);
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
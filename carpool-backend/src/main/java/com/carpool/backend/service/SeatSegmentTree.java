@@ -0,0 +1,78 @@
+package com.carpool.backend.service;
+
+import java.util.List;
+
+/**
+ * Booked seats per segment of a multi-stop ride, as a segment tree over the
+ * segments with range add and range max, both O(log k). Each node holds the
+ * seats added to its whole range plus the most booked of its children, so an
+ * update never has to push anything down. Not thread-safe.
+ */
+final class SeatSegmentTree {
+
+    private final int segments;
+    private final int[] added;
+    private final int[] max;
+
+    SeatSegmentTree(List<Integer> bookedSeats) {
+        this.segments = bookedSeats.size();
+        this.added = new int[4 * Math.max(segments, 1)];
+        this.max = new int[added.length];
+        for (int i = 0; i < segments; i++) {
+            add(i, i + 1, bookedSeats.get(i));
+        }
+    }
+
+    int segments() {
+        return segments;
+    }
+
+    /** Most seats booked on any segment in [from, to). */
+    int maxBooked(int from, int to) {
+        checkRange(from, to);
+        return maxBooked(1, 0, segments, from, to);
+    }
+
+    /** Adds {@code seats}, which may be negative, to every segment in [from, to). */
+    void add(int from, int to, int seats) {
+        checkRange(from, to);
+        add(1, 0, segments, from, to, seats);
+    }
+
+    private int maxBooked(int node, int nodeFrom, int nodeTo, int from, int to) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            return max[node];
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        int most = Integer.MIN_VALUE;
+        if (from < middle) {
+            most = maxBooked(2 * node, nodeFrom, middle, from, to);
+        }
+        if (to > middle) {
+            most = Math.max(most, maxBooked(2 * node + 1, middle, nodeTo, from, to));
+        }
+        return most + added[node];
+    }
+
+    private void add(int node, int nodeFrom, int nodeTo, int from, int to, int seats) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            added[node] += seats;
+            max[node] += seats;
+            return;
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        if (from < middle) {
+            add(2 * node, nodeFrom, middle, from, to, seats);
+        }
+        if (to > middle) {
+            add(2 * node + 1, middle, nodeTo, from, to, seats);
+        }
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]) + added[node];
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to > segments || from >= to) {
+            throw new IllegalArgumentException("Invalid segment range [" + from + ", " + to + ") of " + segments);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.event.RideChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The {@link SeatInventory} gate for multi-stop rides: per-segment seat counts
+ * of rides currently being booked, held in a {@link SeatSegmentTree} so that
+ * checking and taking seats over a range of segments is O(log k). A booking
+ * whose segments are known to be full is turned away here, without queueing
+ * on the ride's row lock. The conditional updates in RideStopRepository stay
+ * the source of truth; like the seat counters, a tree can admit too many
+ * bookers but never lets a segment overbook.
+ *
+ * Trees are seeded from the segment counts in the database, live for
+ * {@code booking.seat-gate.ttl-ms}, give seats back when the booking's
+ * transaction rolls back, and are dropped when seats are returned or the
+ * ride's segments change.
+ */
+@Component
+public class SegmentSeatInventory {
+
+    private final Map<Long, RideSegments> segmentsByRide = new ConcurrentHashMap<>();
+
+    @Value("${booking.seat-gate.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.seat-gate.ttl-ms:2000}")
+    private long ttlMillis;
+
+    @Value("${booking.seat-gate.max-rides:10000}")
+    private int maxRides;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerMeters() {
+        meterRegistry.gaugeMapSize("booking.seats.gate.segmented-rides", List.of(), segmentsByRide);
+    }
+
+    /**
+     * Takes seats on segments [fromStop, toStop). Returns false if one of them is
+     * known to be full. Otherwise the seats stay held until the current transaction
+     * completes. {@code bookedSeats} is only read to seed a new tree.
+     */
+    public boolean tryReserve(Long rideId, int fromStop, int toStop, int seats, int totalSeats,
+                              Supplier<List<Integer>> bookedSeats) {
+        if (!enabled) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        if (segmentsByRide.size() >= maxRides) {
+            segmentsByRide.values().removeIf(entry -> entry.isExpired(now));
+        }
+        RideSegments rideSegments = segmentsByRide.compute(rideId, (id, existing) ->
+                existing == null || existing.isExpired(now)
+                        ? new RideSegments(bookedSeats.get(), totalSeats, now + ttlMillis) : existing);
+        if (!rideSegments.tryTake(fromStop, toStop, seats)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        rideSegments.give(fromStop, toStop, seats);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Drops the ride's tree once the current transaction commits. Call this after
+     * seats are given back, or the seat total or the stops change.
+     */
+    public void seatsReturned(Long rideId) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    segmentsByRide.remove(rideId);
+                }
+            });
+        } else {
+            segmentsByRide.remove(rideId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRideChanged(RideChangedEvent event) {
+        if (!event.isSearchable()) {
+            segmentsByRide.remove(event.getRideId());
+        }
+    }
+
+    private static final class RideSegments {
+        private final SeatSegmentTree booked;
+        private final int totalSeats;
+        private final long expiresAt;
+        // A range check and add on a tree of a few nodes; a lock per ride is cheaper than anything lock-free
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private RideSegments(List<Integer> bookedSeats, int totalSeats, long expiresAt) {
+            this.booked = new SeatSegmentTree(bookedSeats);
+            this.totalSeats = totalSeats;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean tryTake(int fromStop, int toStop, int seats) {
+            lock.lock();
+            try {
+                // The segments changed since the booking read them; leave it to the database
+                if (toStop > booked.segments()) {
+                    return true;
+                }
+                if (booked.maxBooked(fromStop, toStop) + seats > totalSeats) {
+                    return false;
+                }
+                booked.add(fromStop, toStop, seats);
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void give(int fromStop, int toStop, int seats) {
+            lock.lock();
+            try {
+                if (toStop <= booked.segments()) {
+                    booked.add(fromStop, toStop, -seats);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
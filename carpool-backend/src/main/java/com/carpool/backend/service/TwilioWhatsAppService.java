@@ -1,67 +1,61 @@
 package com.carpool.backend.service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.carpool.backend.entity.WhatsAppOutboxMessage;
+import com.carpool.backend.repository.WhatsAppOutboxRepository;
+import com.carpool.backend.whatsapp.WhatsAppSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PostConstruct;
-
+/**
+ * Formats WhatsApp notifications and queues them in the whatsapp_outbox table.
+ * The row is written in the caller's transaction, so a message is only sent if
+ * the change that triggered it commits, and delivery happens later on the
+ * outbox dispatcher instead of on the request thread.
+ */
 @Service
 public class TwilioWhatsAppService {
 
     private static final Logger logger = LoggerFactory.getLogger(TwilioWhatsAppService.class);
 
-    @Value("${twilio.account-sid}")
-    private String accountSid;
-
-    @Value("${twilio.auth-token}")
-    private String authToken;
+    // Width of whatsapp_outbox.recipient
+    private static final int MAX_RECIPIENT_LENGTH = 20;
 
-    @Value("${twilio.whatsapp-from}")
-    private String whatsappFrom;
+    @Autowired
+    private WhatsAppOutboxRepository outboxRepository;
 
-    @PostConstruct
-    public void initTwilio() {
-        if (accountSid == null || authToken == null || accountSid.isEmpty() || authToken.isEmpty()) {
-            logger.warn("Twilio credentials not configured. WhatsApp messaging will not work.");
-            return;
-        }
-        
-        try {
-            Twilio.init(accountSid, authToken);
-            logger.info("Twilio WhatsApp service initialized successfully");
-        } catch (Exception e) {
-            logger.error("Failed to initialize Twilio: {}", e.getMessage());
-        }
-    }
+    @Autowired
+    private WhatsAppSender whatsAppSender;
 
+    /**
+     * Queues a message, returning false if WhatsApp is not configured or the
+     * recipient or body cannot be sent. Those are checked before the row is
+     * written; a failure to write it propagates, since it leaves the caller's
+     * transaction marked for rollback.
+     */
     public boolean sendWhatsAppMessage(String toPhoneNumber, String messageBody) {
-        if (accountSid == null || authToken == null || accountSid.isEmpty() || authToken.isEmpty()) {
+        if (!whatsAppSender.isAvailable()) {
             logger.warn("Twilio credentials not configured. Cannot send WhatsApp message.");
             return false;
         }
+        if (toPhoneNumber == null || messageBody == null || messageBody.isBlank()) {
+            logger.warn("WhatsApp message to {} not queued: recipient or body missing", toPhoneNumber);
+            return false;
+        }
 
-        try {
-            // Format phone number for WhatsApp
-            String formattedToNumber = formatPhoneNumber(toPhoneNumber);
-            
-            Message message = Message.creator(
-                    new PhoneNumber("whatsapp:" + formattedToNumber),
-                    new PhoneNumber(whatsappFrom),
-                    messageBody
-            ).create();
-
-            logger.info("WhatsApp message sent successfully. SID: {}", message.getSid());
-            return true;
-
-        } catch (Exception e) {
-            logger.error("Failed to send WhatsApp message to {}: {}", toPhoneNumber, e.getMessage());
+        // Format phone number for WhatsApp
+        String formattedToNumber = formatPhoneNumber(toPhoneNumber);
+        if (formattedToNumber.length() < 2 || formattedToNumber.length() > MAX_RECIPIENT_LENGTH) {
+            logger.warn("WhatsApp message to {} not queued: not a valid phone number", toPhoneNumber);
             return false;
         }
+
+        WhatsAppOutboxMessage message = outboxRepository.save(
+                new WhatsAppOutboxMessage(formattedToNumber, messageBody));
+
+        logger.debug("WhatsApp message {} queued for {}", message.getId(), formattedToNumber);
+        return true;
     }
 
     public boolean sendRideNotification(String toPhoneNumber, String driverName, String pickupLocation, String destination, String departureTime) {
@@ -1,12 +1,15 @@
 package com.carpool.backend.service;
 
+import com.carpool.backend.config.CacheConfig;
 import com.carpool.backend.dto.request.ProfileUpdateRequest;
 import com.carpool.backend.dto.response.UserResponse;
 import com.carpool.backend.entity.User;
 import com.carpool.backend.exception.ResourceNotFoundException;
 import com.carpool.backend.exception.PhoneAlreadyExistsException;
 import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +20,14 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private ResponseCacheInvalidator responseCacheInvalidator;
+
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Transactional(readOnly = true)
     public UserResponse getUserProfile(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
@@ -58,9 +69,13 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        userPrincipalCache.evict(userId);
+        responseCacheInvalidator.userChanged(userId);
         return mapToUserResponse(updatedUser);
     }
 
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
@@ -76,6 +91,8 @@ public class UserService {
         // (rides, bookings, ratings, etc.) before deleting the user
         
         userRepository.delete(user);
+        userPrincipalCache.evict(userId);
+        responseCacheInvalidator.userChanged(userId);
     }
 
     private UserResponse mapToUserResponse(User user) {
@@ -0,0 +1,42 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the per-user rating and ride aggregates from the ratings, rides and
+ * bookings tables. Those columns are normally maintained incrementally, so this
+ * only repairs drift from manual data fixes or failed writes. Users are
+ * processed in id ranges, each in its own transaction, to keep row locks short.
+ */
+@Component
+public class UserStatsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStatsReconciler.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${user-stats.reconcile.batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(cron = "${user-stats.reconcile.cron:0 0 4 * * *}")
+    public int reconcile() {
+        Long maxId = userRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+
+        int updated = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += batchSize) {
+            updated += userRepository.reconcileStats(fromId, fromId + batchSize - 1);
+        }
+        logger.info("Reconciled rating and ride aggregates for {} users", updated);
+        return updated;
+    }
+}
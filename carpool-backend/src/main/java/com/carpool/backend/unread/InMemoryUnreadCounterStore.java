@@ -0,0 +1,57 @@
+package com.carpool.backend.unread;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Single-node counter store backed by a concurrent map. Counters on other
+ * instances do not see this node's updates, so multi-instance deployments
+ * should set unread.store=redis.
+ */
+@Component
+@ConditionalOnProperty(name = "unread.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUnreadCounterStore implements UnreadCounterStore {
+
+    private final Map<Key, Counter> counters = new ConcurrentHashMap<>();
+
+    @Value("${unread.cache.ttl-ms:600000}")
+    private long ttlMillis;
+
+    @Value("${unread.cache.max-size:100000}")
+    private int maxSize;
+
+    @Override
+    public long get(Kind kind, Long userId, LongSupplier loader) {
+        Key key = new Key(kind, userId);
+        long now = System.currentTimeMillis();
+        Counter counter = counters.get(key);
+        if (counter != null && counter.expiresAt() > now) {
+            return counter.count();
+        }
+
+        long count = loader.getAsLong();
+        if (counters.size() >= maxSize) {
+            counters.values().removeIf(cached -> cached.expiresAt() <= now);
+        }
+        if (counters.size() < maxSize) {
+            counters.put(key, new Counter(count, now + ttlMillis));
+        }
+        return count;
+    }
+
+    @Override
+    public void add(Kind kind, Long userId, long delta) {
+        counters.computeIfPresent(new Key(kind, userId),
+                (key, counter) -> new Counter(Math.max(0, counter.count() + delta), counter.expiresAt()));
+    }
+
+
+    private record Key(Kind kind, Long userId) {}
+
+    private record Counter(long count, long expiresAt) {}
+}
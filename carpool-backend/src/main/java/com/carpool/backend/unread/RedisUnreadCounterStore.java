@@ -0,0 +1,58 @@
+package com.carpool.backend.unread;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Counter store shared by all instances. Keys are unread:{kind}:{userId} and
+ * carry the cache TTL. Updates run as a Lua script so a counter that expired
+ * between the existence check and the write is never recreated from zero.
+ */
+@Component
+@ConditionalOnProperty(name = "unread.store", havingValue = "redis")
+public class RedisUnreadCounterStore implements UnreadCounterStore {
+
+    private static final RedisScript<Long> ADD_IF_PRESENT = RedisScript.of(
+            "local v = redis.call('get', KEYS[1]) " +
+            "if not v then return nil end " +
+            "local n = math.max(0, tonumber(v) + tonumber(ARGV[1])) " +
+            "redis.call('set', KEYS[1], n, 'KEEPTTL') " +
+            "return n", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${unread.cache.ttl-ms:600000}")
+    private long ttlMillis;
+
+    @Override
+    public long get(Kind kind, Long userId, LongSupplier loader) {
+        String key = key(kind, userId);
+        String cached = redisTemplate.opsForValue().get(key);
+        if (cached != null) {
+            return Long.parseLong(cached);
+        }
+
+        long count = loader.getAsLong();
+        redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), Duration.ofMillis(ttlMillis));
+        return count;
+    }
+
+    @Override
+    public void add(Kind kind, Long userId, long delta) {
+        redisTemplate.execute(ADD_IF_PRESENT, List.of(key(kind, userId)), String.valueOf(delta));
+    }
+
+
+    private static String key(Kind kind, Long userId) {
+        return "unread:" + kind.name().toLowerCase() + ":" + userId;
+    }
+}
@@ -0,0 +1,20 @@
+package com.carpool.backend.unread;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user unread counters kept outside MySQL so badge polling never runs a
+ * COUNT. A counter is a cache of the database count: it is seeded from
+ * {@code loader} on first read and expires after unread.cache.ttl-ms, which
+ * bounds any drift from races between seeding and concurrent updates.
+ * Updates only touch counters that are already seeded.
+ */
+public interface UnreadCounterStore {
+
+    enum Kind { MESSAGES, NOTIFICATIONS }
+
+    long get(Kind kind, Long userId, LongSupplier loader);
+
+    /** Adds {@code delta} to a seeded counter, never going below zero; unseeded counters are left alone. */
+    void add(Kind kind, Long userId, long delta);
+}
@@ -0,0 +1,56 @@
+package com.carpool.backend.unread;
+
+import com.carpool.backend.event.MessageSentEvent;
+import com.carpool.backend.event.NotificationCreatedEvent;
+import com.carpool.backend.unread.UnreadCounterStore.Kind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Unread message and notification badges served from {@link UnreadCounterStore}.
+ * New messages and notifications increment the receiver's counter once their
+ * transaction commits; marking items read subtracts the number of rows the
+ * update actually changed, so overlapping reads cannot double count.
+ */
+@Component
+public class UnreadCounters {
+
+    @Autowired
+    private UnreadCounterStore store;
+
+    public long get(Kind kind, Long userId, LongSupplier loader) {
+        return store.get(kind, userId, loader);
+    }
+
+    /** Subtracts {@code count} once the current transaction commits. */
+    public void markedRead(Kind kind, Long userId, long count) {
+        if (count <= 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    store.add(kind, userId, -count);
+                }
+            });
+        } else {
+            store.add(kind, userId, -count);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMessageSent(MessageSentEvent event) {
+        store.add(Kind.MESSAGES, event.getReceiverId(), 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        store.add(Kind.NOTIFICATIONS, event.getUserId(), 1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.carpool.backend.whatsapp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for Twilio used in development and load tests. Logs instead of
+ * sending and can simulate provider latency and a failure rate so the dispatcher's
+ * retry path is exercised without touching the network.
+ */
+@Component
+@ConditionalOnProperty(name = "whatsapp.sender", havingValue = "fake")
+public class FakeWhatsAppSender implements WhatsAppSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeWhatsAppSender.class);
+
+    private final AtomicLong sentCount = new AtomicLong();
+
+    @Value("${whatsapp.fake.latency-ms:0}")
+    private long latencyMillis;
+
+    @Value("${whatsapp.fake.failure-rate:0}")
+    private double failureRate;
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String messageBody) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending", e);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Simulated WhatsApp failure");
+        }
+
+        long sequence = sentCount.incrementAndGet();
+        logger.debug("Fake WhatsApp message {} to {}: {}", sequence, toPhoneNumber, messageBody);
+        return "FAKE" + sequence;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.carpool.backend.whatsapp;
+
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+@ConditionalOnProperty(name = "whatsapp.sender", havingValue = "twilio", matchIfMissing = true)
+public class TwilioWhatsAppSender implements WhatsAppSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwilioWhatsAppSender.class);
+
+    @Value("${twilio.account-sid}")
+    private String accountSid;
+
+    @Value("${twilio.auth-token}")
+    private String authToken;
+
+    @Value("${twilio.whatsapp-from}")
+    private String whatsappFrom;
+
+    private volatile boolean initialized;
+
+    @PostConstruct
+    public void initTwilio() {
+        if (accountSid == null || authToken == null || accountSid.isEmpty() || authToken.isEmpty()) {
+            logger.warn("Twilio credentials not configured. WhatsApp messaging will not work.");
+            return;
+        }
+
+        try {
+            Twilio.init(accountSid, authToken);
+            initialized = true;
+            logger.info("Twilio WhatsApp service initialized successfully");
+        } catch (Exception e) {
+            logger.error("Failed to initialize Twilio: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return initialized;
+    }
+
+    @Override
+    public String send(String toPhoneNumber, String messageBody) {
+        Message message = Message.creator(
+                new PhoneNumber("whatsapp:" + toPhoneNumber),
+                new PhoneNumber(whatsappFrom),
+                messageBody
+        ).create();
+
+        logger.info("WhatsApp message sent successfully. SID: {}", message.getSid());
+        return message.getSid();
+    }
+}
@@ -0,0 +1,212 @@
+package com.carpool.backend.whatsapp;
+
+import com.carpool.backend.entity.WhatsAppOutboxMessage;
+import com.carpool.backend.repository.WhatsAppOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains the WhatsApp outbox in the background. Each poll picks up to one batch
+ * of due messages, at most one per recipient, claims them with a conditional
+ * update so concurrent dispatchers never send the same row twice, and sends them
+ * in parallel on the dispatch executor. Failed sends are retried with exponential
+ * backoff until {@code whatsapp.outbox.max-attempts} is reached.
+ */
+@Component
+public class WhatsAppOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WhatsAppOutboxDispatcher.class);
+
+    @Autowired
+    private WhatsAppOutboxRepository outboxRepository;
+
+    @Autowired
+    private WhatsAppSender whatsAppSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${whatsapp.outbox.dispatcher-threads:4}")
+    private int dispatcherThreads;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${whatsapp.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${whatsapp.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${whatsapp.outbox.initial-backoff-ms:2000}")
+    private long initialBackoffMillis;
+
+    @Value("${whatsapp.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMillis;
+
+    @Value("${whatsapp.outbox.claim-timeout-ms:120000}")
+    private long claimTimeoutMillis;
+
+    @Value("${whatsapp.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private AsyncTaskExecutor dispatchExecutor;
+
+    private Timer sendSuccess;
+    private Timer sendFailure;
+    private Counter retries;
+    private Counter givenUp;
+
+    @PostConstruct
+    public void registerMeters() {
+        String sender = ClassUtils.getUserClass(whatsAppSender).getSimpleName();
+        sendSuccess = Timer.builder("whatsapp.send").tag("sender", sender).tag("outcome", "success")
+                .description("Time spent in the WhatsApp provider call").register(meterRegistry);
+        sendFailure = Timer.builder("whatsapp.send").tag("sender", sender).tag("outcome", "failure")
+                .description("Time spent in the WhatsApp provider call").register(meterRegistry);
+        retries = Counter.builder("whatsapp.outbox.retries")
+                .description("Failed sends scheduled for another attempt").register(meterRegistry);
+        givenUp = Counter.builder("whatsapp.outbox.failed")
+                .description("Messages marked FAILED after whatsapp.outbox.max-attempts").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startExecutor() {
+        if (virtualThreads) {
+            // Sends block on the provider's HTTP call; one virtual thread per message
+            // in the batch costs nothing, and the batch size already bounds concurrency.
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("whatsapp-dispatch-");
+            executor.setVirtualThreads(true);
+            executor.setTaskTerminationTimeout(30_000);
+            dispatchExecutor = executor;
+            return;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dispatcherThreads);
+        executor.setMaxPoolSize(dispatcherThreads);
+        executor.setThreadNamePrefix("whatsapp-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        dispatchExecutor = executor;
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        if (dispatchExecutor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (dispatchExecutor instanceof SimpleAsyncTaskExecutor executor) {
+            executor.close();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    /**
+     * Sends one batch and waits for it to finish, which keeps the number of rows
+     * in flight bounded by the batch size. Returns how many messages were claimed.
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        int released = outboxRepository.releaseStaleClaims(now.minus(Duration.ofMillis(claimTimeoutMillis)));
+        if (released > 0) {
+            logger.warn("Released {} WhatsApp outbox messages stuck in SENDING", released);
+        }
+
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        for (WhatsAppOutboxMessage message : outboxRepository.findDueHeads(now, PageRequest.of(0, batchSize))) {
+            if (outboxRepository.claim(message.getId(), now) == 0) {
+                continue; // another dispatcher got it first
+            }
+            try {
+                inFlight.add(CompletableFuture.runAsync(() -> deliver(message), dispatchExecutor));
+            } catch (RejectedExecutionException e) {
+                markFailedAttempt(message, e);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+        return inFlight.size();
+    }
+
+    @Scheduled(cron = "${whatsapp.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = outboxRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            logger.info("Purged {} sent WhatsApp outbox messages", deleted);
+        }
+    }
+
+    private void deliver(WhatsAppOutboxMessage message) {
+        long started = System.nanoTime();
+        boolean sent = false;
+        try {
+            whatsAppSender.send(message.getRecipient(), message.getBody());
+            sent = true;
+            sendSuccess.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            outboxRepository.markSent(message.getId(), LocalDateTime.now());
+        } catch (Exception e) {
+            if (!sent) {
+                sendFailure.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            markFailedAttempt(message, e);
+        }
+    }
+
+    private void markFailedAttempt(WhatsAppOutboxMessage message, Exception e) {
+        int attempt = message.getAttempts() + 1;
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+
+        if (attempt >= maxAttempts) {
+            logger.error("Giving up on WhatsApp message {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempt, error);
+            outboxRepository.markAttemptFailed(message.getId(), WhatsAppOutboxMessage.Status.FAILED,
+                    message.getNextAttemptAt(), error);
+            givenUp.increment();
+            return;
+        }
+
+        LocalDateTime retryAt = LocalDateTime.now().plus(backoff(attempt));
+        logger.warn("Failed to send WhatsApp message {} to {} (attempt {}), retrying at {}: {}",
+                message.getId(), message.getRecipient(), attempt, retryAt, error);
+        outboxRepository.markAttemptFailed(message.getId(), WhatsAppOutboxMessage.Status.PENDING, retryAt, error);
+        retries.increment();
+    }
+
+    Duration backoff(int attempt) {
+        long delay = initialBackoffMillis << Math.min(attempt - 1, 30);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMillis));
+    }
+}
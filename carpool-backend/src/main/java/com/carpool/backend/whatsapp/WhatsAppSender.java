@@ -0,0 +1,20 @@
+package com.carpool.backend.whatsapp;
+
+/**
+ * Transport used by the outbox dispatcher to deliver a single WhatsApp message.
+ * Selected with {@code whatsapp.sender}: {@code twilio} (default) or {@code fake}.
+ */
+public interface WhatsAppSender {
+
+    /**
+     * Whether the sender can deliver messages at all, e.g. credentials are configured.
+     * Messages are not queued while this returns false.
+     */
+    boolean isAvailable();
+
+    /**
+     * Delivers one message and returns the provider's message id.
+     * Throws on failure so the dispatcher can schedule a retry.
+     */
+    String send(String toPhoneNumber, String messageBody);
+}
@@ -0,0 +1,39 @@
+-- Recurring ride offers: one row per weekly pattern instead of one ride per day. Occurrences are
+-- only expanded in memory for search; a ride row is created for a date when it is first booked.
+create table ride_schedules (
+    id bigint not null auto_increment,
+    driver_id bigint not null,
+    from_location varchar(255) not null,
+    to_location varchar(255) not null,
+    from_latitude double,
+    from_longitude double,
+    to_latitude double,
+    to_longitude double,
+    departure_time time(6) not null,
+    -- Bit 0 is Monday, bit 6 Sunday
+    days_of_week integer not null,
+    start_date date not null,
+    end_date date not null,
+    total_seats integer not null,
+    price_per_seat decimal(8,2) not null,
+    car_model varchar(100) not null,
+    car_number varchar(20) not null,
+    additional_info TEXT,
+    instant_booking bit not null,
+    status enum ('ACTIVE','CANCELLED') not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+-- RideScheduleRepository.findCurrentSchedules
+create index idx_ride_schedules_status_end on ride_schedules (status, end_date);
+-- RideScheduleRepository.findByDriverIdOrderByStartDate
+create index idx_ride_schedules_driver_start on ride_schedules (driver_id, start_date);
+
+alter table ride_schedules add constraint fk_ride_schedules_driver foreign key (driver_id) references users (id);
+
+-- The ride an occurrence became; at most one per schedule and date, however many first bookings race
+alter table rides add column schedule_id bigint;
+alter table rides add constraint uk_rides_schedule_date unique (schedule_id, departure_date);
+alter table rides add constraint fk_rides_schedule foreign key (schedule_id) references ride_schedules (id);
@@ -0,0 +1,14 @@
+-- Hi/lo id blocks for the tables written in bulk (see the @TableGenerator on Ride, Booking and
+-- Notification). Each row holds the first id of the next block; Hibernate takes allocationSize ids
+-- at a time in its own transaction, so inserts no longer need the auto_increment value back and can
+-- be sent as JDBC batches. Rows must not be inserted into these tables with auto_increment ids
+-- any more, or they will collide with a block handed out here.
+create table id_sequences (
+    sequence_name varchar(64) not null,
+    next_val bigint not null,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into id_sequences (sequence_name, next_val) select 'rides', coalesce(max(id), 0) + 1 from rides;
+insert into id_sequences (sequence_name, next_val) select 'bookings', coalesce(max(id), 0) + 1 from bookings;
+insert into id_sequences (sequence_name, next_val) select 'notifications', coalesce(max(id), 0) + 1 from notifications;
@@ -0,0 +1,5 @@
+-- is_driver and is_verified have two values each, so the V2 indexes on them match a large share
+-- of users and MySQL reads the table instead. They only cost writes; the counts and lists they
+-- were meant for scan users (see FULL_SCAN_ALLOWED in QueryPlanTest).
+drop index idx_users_is_driver on users;
+drop index idx_users_is_verified on users;
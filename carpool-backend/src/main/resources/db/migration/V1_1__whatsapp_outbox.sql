@@ -0,0 +1,18 @@
+-- WhatsApp outbox for WhatsAppOutboxMessage. The table came after the Hibernate-generated schema,
+-- so it is not in V1: databases baselined at version 1 get it here, before V2 indexes it.
+create table whatsapp_outbox (
+    id bigint not null auto_increment,
+    recipient varchar(20) not null,
+    body TEXT not null,
+    status enum ('PENDING','SENDING','SENT','FAILED') not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    claimed_at datetime(6),
+    sent_at datetime(6),
+    last_error varchar(500),
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_whatsapp_outbox_status_due on whatsapp_outbox (status, next_attempt_at);
+create index idx_whatsapp_outbox_recipient on whatsapp_outbox (recipient, id);
@@ -0,0 +1,135 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update).
+-- Databases created that way are baselined at version 1 and skip this script.
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(255),
+    password_hash varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    phone varchar(255),
+    location varchar(255),
+    bio TEXT,
+    profile_picture_url varchar(255),
+    is_verified bit not null,
+    is_driver bit not null,
+    rating decimal(2,1),
+    total_rides integer not null,
+    total_earnings decimal(10,2),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id),
+    constraint uk_users_email unique (email),
+    constraint uk_users_phone unique (phone)
+) engine=InnoDB;
+
+create table rides (
+    id bigint not null auto_increment,
+    driver_id bigint not null,
+    from_location varchar(255) not null,
+    to_location varchar(255) not null,
+    departure_date date not null,
+    departure_time time(6) not null,
+    total_seats integer not null,
+    available_seats integer not null,
+    price_per_seat decimal(8,2) not null,
+    car_model varchar(100) not null,
+    car_number varchar(20) not null,
+    additional_info TEXT,
+    instant_booking bit not null,
+    status enum ('ACTIVE','COMPLETED','CANCELLED') not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table bookings (
+    id bigint not null auto_increment,
+    ride_id bigint not null,
+    passenger_id bigint not null,
+    seats_booked integer not null,
+    total_amount decimal(8,2) not null,
+    status enum ('PENDING','CONFIRMED','CANCELLED','COMPLETED') not null,
+    payment_status enum ('PENDING','COMPLETED','FAILED','REFUNDED') not null,
+    payment_id varchar(255),
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table driver_verifications (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    license_number varchar(50) not null,
+    vehicle_registration varchar(50) not null,
+    license_document_url varchar(255),
+    vehicle_document_url varchar(255),
+    verification_status enum ('PENDING','APPROVED','REJECTED') not null,
+    verified_by bigint,
+    verified_at datetime(6),
+    created_at datetime(6) not null,
+    primary key (id),
+    constraint uk_driver_verifications_user unique (user_id)
+) engine=InnoDB;
+
+create table messages (
+    id bigint not null auto_increment,
+    sender_id bigint not null,
+    receiver_id bigint not null,
+    ride_id bigint,
+    message_text varchar(1000) not null,
+    message_type enum ('TEXT','LOCATION','RIDE_REQUEST','BOOKING_CONFIRMATION'),
+    is_read bit not null,
+    whatsapp_message_id varchar(255),
+    sent_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table notifications (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    title varchar(255) not null,
+    message TEXT not null,
+    type varchar(50) not null,
+    is_read bit not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table ratings (
+    id bigint not null auto_increment,
+    rating integer,
+    comment TEXT,
+    rater_id bigint not null,
+    ratee_id bigint not null,
+    ride_id bigint not null,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table reviews (
+    id bigint not null auto_increment,
+    booking_id bigint not null,
+    reviewer_id bigint not null,
+    reviewed_user_id bigint not null,
+    rating integer not null,
+    comment TEXT,
+    created_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table rides add constraint fk_rides_driver foreign key (driver_id) references users (id);
+alter table bookings add constraint fk_bookings_ride foreign key (ride_id) references rides (id);
+alter table bookings add constraint fk_bookings_passenger foreign key (passenger_id) references users (id);
+alter table driver_verifications add constraint fk_driver_verifications_user foreign key (user_id) references users (id);
+alter table driver_verifications add constraint fk_driver_verifications_verified_by foreign key (verified_by) references users (id);
+alter table messages add constraint fk_messages_sender foreign key (sender_id) references users (id);
+alter table messages add constraint fk_messages_receiver foreign key (receiver_id) references users (id);
+alter table messages add constraint fk_messages_ride foreign key (ride_id) references rides (id);
+alter table notifications add constraint fk_notifications_user foreign key (user_id) references users (id);
+alter table ratings add constraint fk_ratings_rater foreign key (rater_id) references users (id);
+alter table ratings add constraint fk_ratings_ratee foreign key (ratee_id) references users (id);
+alter table ratings add constraint fk_ratings_ride foreign key (ride_id) references rides (id);
+alter table reviews add constraint fk_reviews_booking foreign key (booking_id) references bookings (id);
+alter table reviews add constraint fk_reviews_reviewer foreign key (reviewer_id) references users (id);
+alter table reviews add constraint fk_reviews_reviewed_user foreign key (reviewed_user_id) references users (id);
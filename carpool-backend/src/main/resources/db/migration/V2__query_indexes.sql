@@ -0,0 +1,46 @@
+-- Composite indexes for the repository queries. Each comment names the queries an index serves.
+-- Leading columns match the equality predicates; trailing columns match the sort order,
+-- so lookups are range scans that need no filesort.
+
+-- RideRepository.findActiveRides, findDistinct*Locations, RideSpecifications keyset filter
+create index idx_rides_status_departure on rides (status, departure_date, departure_time, id);
+-- Ride search on (status, departureDate, fromLocation, toLocation)
+create index idx_rides_status_date_route on rides (status, departure_date, from_location, to_location);
+-- RideRepository.findWithDriverByDriverId, countCompletedRidesByDriverId, BookingRepository.findByDriverIdOrderByCreatedAtDesc
+create index idx_rides_driver_status on rides (driver_id, status);
+
+-- BookingRepository.findByRideIdAndPassengerIdAndStatus, findByRideIdAndStatus
+create index idx_bookings_ride_status_passenger on bookings (ride_id, status, passenger_id);
+-- BookingRepository.findByPassengerIdOrderByCreatedAtDesc, countCompletedBookingsByPassengerId
+create index idx_bookings_passenger_created on bookings (passenger_id, created_at);
+
+-- MessageRepository.findConversationBetweenUsers, markMessagesAsRead
+create index idx_messages_sender_receiver_sent on messages (sender_id, receiver_id, sent_at);
+-- MessageRepository.findUnreadMessagesForUser, countUnreadMessagesForUser
+create index idx_messages_receiver_read_sent on messages (receiver_id, is_read, sent_at);
+-- MessageRepository.findMessagesByRideId
+create index idx_messages_ride_sent on messages (ride_id, sent_at);
+
+-- NotificationRepository.findByUserIdOrderByCreatedAtDesc, findByUserIdAndDateRange
+create index idx_notifications_user_created on notifications (user_id, created_at);
+-- NotificationRepository.findUnreadByUserId, countUnreadByUserId
+create index idx_notifications_user_read_created on notifications (user_id, is_read, created_at);
+-- NotificationRepository.findByUserIdAndType
+create index idx_notifications_user_type_created on notifications (user_id, type, created_at);
+-- NotificationRepository.findOldNotifications, deleteOldNotifications
+create index idx_notifications_created on notifications (created_at);
+
+-- RatingRepository.findRecentRatingsByUserId, findByRateeId, findAverageRatingByUserId
+create index idx_ratings_ratee_created on ratings (ratee_id, created_at);
+-- RatingRepository.existsByRideIdAndRaterIdAndRateeId
+create index idx_ratings_ride_rater_ratee on ratings (ride_id, rater_id, ratee_id);
+
+-- UserRepository.findByRatingGreaterThanEqual, getAverageRating
+create index idx_users_rating on users (rating);
+-- UserRepository.findByIsDriverTrue, countDrivers
+create index idx_users_is_driver on users (is_driver);
+-- UserRepository.findByIsVerifiedTrue, countVerifiedUsers
+create index idx_users_is_verified on users (is_verified);
+
+-- WhatsAppOutboxRepository.deleteSentBefore
+create index idx_whatsapp_outbox_status_sent on whatsapp_outbox (status, sent_at);
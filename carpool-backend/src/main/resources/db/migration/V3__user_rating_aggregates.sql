@@ -0,0 +1,7 @@
+-- Running rating totals so a new rating updates users.rating without re-averaging
+alter table users add column rating_sum bigint not null default 0;
+alter table users add column rating_count integer not null default 0;
+
+update users u set
+    rating_sum = coalesce((select sum(r.rating) from ratings r where r.ratee_id = u.id), 0),
+    rating_count = (select count(*) from ratings r where r.ratee_id = u.id);
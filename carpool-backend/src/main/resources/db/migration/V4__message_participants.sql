@@ -0,0 +1,12 @@
+-- Unordered participant pair, so both directions of a conversation share one index range
+alter table messages add column participant_low bigint;
+alter table messages add column participant_high bigint;
+
+update messages set
+    participant_low = least(sender_id, receiver_id),
+    participant_high = greatest(sender_id, receiver_id);
+
+alter table messages modify participant_low bigint not null;
+alter table messages modify participant_high bigint not null;
+
+create index idx_messages_participants_id on messages (participant_low, participant_high, id);
@@ -0,0 +1,31 @@
+-- Inbox read model: one row per user per conversation partner
+create table conversations (
+    id bigint not null auto_increment,
+    owner_id bigint not null,
+    partner_id bigint not null,
+    last_message_id bigint not null,
+    last_sender_id bigint not null,
+    last_message_text varchar(1000) not null,
+    last_message_at datetime(6),
+    ride_id bigint,
+    unread_count integer not null default 0,
+    primary key (id),
+    constraint uk_conversations_owner_partner unique (owner_id, partner_id)
+) engine=InnoDB;
+
+create index idx_conversations_owner_last on conversations (owner_id, last_message_at, id);
+
+alter table conversations add constraint fk_conversations_owner foreign key (owner_id) references users (id);
+alter table conversations add constraint fk_conversations_partner foreign key (partner_id) references users (id);
+
+insert into conversations (owner_id, partner_id, last_message_id, last_sender_id,
+                           last_message_text, last_message_at, ride_id, unread_count)
+select p.owner_id, p.partner_id, m.id, m.sender_id, m.message_text, m.sent_at, m.ride_id,
+       (select count(*) from messages u
+        where u.receiver_id = p.owner_id and u.sender_id = p.partner_id and u.is_read = false)
+from (select pairs.owner_id, pairs.partner_id, max(pairs.id) as last_id
+      from (select sender_id as owner_id, receiver_id as partner_id, id from messages
+            union all
+            select receiver_id, sender_id, id from messages) pairs
+      group by pairs.owner_id, pairs.partner_id) p
+join messages m on m.id = p.last_id;
@@ -0,0 +1,7 @@
+-- Read watermark: the newest message id the owner has seen from the partner.
+-- Messages up to it are read; messages.is_read catches up in batches.
+alter table conversations add column last_read_message_id bigint;
+
+update conversations c
+set last_read_message_id = (select max(m.id) from messages m
+                            where m.receiver_id = c.owner_id and m.sender_id = c.partner_id and m.is_read = true);
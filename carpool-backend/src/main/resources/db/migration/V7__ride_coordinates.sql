@@ -0,0 +1,6 @@
+-- Pickup and drop-off coordinates, from the client or the bundled gazetteer.
+-- Nullable: older rides are placed from their location names when the geo index is built.
+alter table rides add column from_latitude double;
+alter table rides add column from_longitude double;
+alter table rides add column to_latitude double;
+alter table rides add column to_longitude double;
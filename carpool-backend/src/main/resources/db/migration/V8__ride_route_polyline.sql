@@ -0,0 +1,3 @@
+-- Simplified route of the ride as an encoded polyline (Google polyline format, 1e-5 degrees).
+-- Null when the driver sent no route; the corridor index then uses the straight line between the endpoints.
+alter table rides add column route_polyline text;
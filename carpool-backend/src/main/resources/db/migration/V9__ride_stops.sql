@@ -0,0 +1,23 @@
+-- Multi-stop rides: every stop from origin to destination in driving order. booked_seats counts
+-- the seats taken on the segment leaving the stop, and is null on the last stop, which has none.
+create table ride_stops (
+    id bigint not null auto_increment,
+    ride_id bigint not null,
+    position integer not null,
+    location varchar(255) not null,
+    latitude double,
+    longitude double,
+    booked_seats integer,
+    primary key (id),
+    constraint uk_ride_stops_ride_position unique (ride_id, position)
+) engine=InnoDB;
+
+alter table ride_stops add constraint fk_ride_stops_ride foreign key (ride_id) references rides (id);
+
+-- Rides without stops keep using rides.available_seats alone; on multi-stop rides it holds the
+-- most seats free on any one segment, so search filters keep working
+alter table rides add column multi_stop boolean not null default false;
+
+-- Stop positions a booking rides between; null on rides without stops
+alter table bookings add column from_stop integer;
+alter table bookings add column to_stop integer;
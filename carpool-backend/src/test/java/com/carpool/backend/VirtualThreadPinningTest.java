@@ -0,0 +1,51 @@
+package com.carpool.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the virtual-thread execution mode against carrier pinning: a blocking
+ * call inside a synchronized block (ours or the JDBC driver's) parks the carrier
+ * thread instead of just the virtual thread. Use java.util.concurrent locks instead.
+ */
+class VirtualThreadPinningTest {
+
+    private static final Pattern SYNCHRONIZED = Pattern.compile("^(?!\\s*(//|\\*)).*\\bsynchronized\\b");
+
+    @Test
+    void mainSourcesDoNotUseSynchronized() throws IOException {
+        try (Stream<Path> sources = Files.walk(Path.of("src/main/java"))) {
+            List<String> offenders = sources
+                    .filter(path -> path.toString().endsWith(".java"))
+                    .flatMap(VirtualThreadPinningTest::synchronizedLines)
+                    .toList();
+            assertThat(offenders).isEmpty();
+        }
+    }
+
+    @Test
+    void mysqlDriverDoesNotPinVirtualThreads() throws Exception {
+        // Connector/J replaced its synchronized blocks with ReentrantLock in 9.0
+        assertThat(new com.mysql.cj.jdbc.Driver().getMajorVersion()).isGreaterThanOrEqualTo(9);
+    }
+
+    private static Stream<String> synchronizedLines(Path path) {
+        try {
+            List<String> lines = Files.readAllLines(path);
+            return IntStream.range(0, lines.size())
+                    .filter(i -> SYNCHRONIZED.matcher(lines.get(i)).find())
+                    .mapToObj(i -> path + ":" + (i + 1));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
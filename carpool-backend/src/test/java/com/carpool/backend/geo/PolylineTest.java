@@ -0,0 +1,39 @@
+package com.carpool.backend.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PolylineTest {
+
+    // The worked example from the polyline format documentation
+    private static final String ENCODED = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+    private static final List<GeoPoint> POINTS = List.of(
+            new GeoPoint(38.5, -120.2), new GeoPoint(40.7, -120.95), new GeoPoint(43.252, -126.453));
+
+    @Test
+    void encodesAndDecodesTheReferenceExample() {
+        assertThat(Polyline.encode(POINTS)).isEqualTo(ENCODED);
+        assertThat(Polyline.decode(ENCODED)).isEqualTo(POINTS);
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        assertThatThrownBy(() -> Polyline.decode("_p~iF~ps|U_")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Polyline.decode("_p~iF ps|U")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void simplificationDropsPointsNearTheLineAndKeepsCorners() {
+        GeoPoint start = new GeoPoint(18.50, 73.80);
+        GeoPoint almostOnLine = new GeoPoint(18.55, 73.8005);
+        GeoPoint corner = new GeoPoint(18.60, 73.80);
+        GeoPoint end = new GeoPoint(18.60, 73.90);
+
+        assertThat(Polyline.simplify(List.of(start, almostOnLine, corner, end), Polyline.SIMPLIFY_TOLERANCE_KM))
+                .containsExactly(start, corner, end);
+    }
+}
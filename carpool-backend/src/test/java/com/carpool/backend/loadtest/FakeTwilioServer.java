@@ -0,0 +1,93 @@
+package com.carpool.backend.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.twilio.http.HttpClient;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP stand-in for the Twilio Messages API. Answers
+ * {@code POST /2010-04-01/Accounts/{sid}/Messages.json} with a queued message
+ * after an optional delay, so the real Twilio SDK and the outbox dispatcher run
+ * end to end without reaching the network. Point the SDK at it with
+ * {@link #httpClient()}, which rewrites api.twilio.com URLs to this server.
+ */
+class FakeTwilioServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Duration latency;
+    private final AtomicLong received = new AtomicLong();
+
+    FakeTwilioServer(Duration latency) throws IOException {
+        this.latency = latency;
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/2010-04-01/Accounts/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long receivedCount() {
+        return received.get();
+    }
+
+    /** Twilio SDK HTTP client that sends every request to this server instead of api.twilio.com. */
+    HttpClient httpClient() {
+        NetworkHttpClient delegate = new NetworkHttpClient();
+        String baseUrl = baseUrl();
+        return new HttpClient() {
+            @Override
+            public Response makeRequest(Request request) {
+                Request local = new Request(request.getMethod(), request.getUrl().replaceFirst("^https?://[^/]+", baseUrl));
+                local.setAuth(request.getUsername(), request.getPassword());
+                local.setContentType(request.getContentType());
+                request.getQueryParams().forEach((name, values) -> values.forEach(value -> local.addQueryParam(name, value)));
+                request.getPostParams().forEach((name, values) -> values.forEach(value -> local.addPostParam(name, value)));
+                request.getHeaderParams().forEach((name, values) -> values.forEach(value -> local.addHeaderParam(name, value)));
+                return delegate.makeRequest(local);
+            }
+        };
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod()) || !exchange.getRequestURI().getPath().endsWith("/Messages.json")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getRequestBody().readAllBytes();
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+
+            long sequence = received.incrementAndGet();
+            byte[] body = String.format("{\"sid\":\"SMFAKE%026d\",\"status\":\"queued\",\"num_segments\":\"1\"}", sequence)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
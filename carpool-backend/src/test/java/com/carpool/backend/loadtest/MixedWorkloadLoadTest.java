@@ -0,0 +1,400 @@
+package com.carpool.backend.loadtest;
+
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.entity.WhatsAppOutboxMessage;
+import com.carpool.backend.repository.BookingRepository;
+import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.repository.WhatsAppOutboxRepository;
+import com.carpool.backend.search.LocationSuggestIndex;
+import com.carpool.backend.search.RideSearchIndex;
+import com.carpool.backend.security.JwtTokenUtil;
+import com.carpool.backend.service.MessageService;
+import com.twilio.Twilio;
+import com.twilio.http.TwilioRestClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays a mixed workload against the full application: ride search, ride
+ * details, booking, messaging and login, in roughly the proportions the mobile
+ * app produces them. The app runs on H2 in MySQL mode with the Flyway schema,
+ * and WhatsApp notifications go through the real Twilio SDK to a
+ * {@link FakeTwilioServer}, so the outbox dispatcher does its usual work in the
+ * background. Users, rides, bookings and conversations are seeded from a fixed
+ * seed so runs are comparable.
+ * <p>
+ * Throughput and p50/p99/p999 latency per endpoint are printed and written to
+ * target/loadtest/mixed-workload.txt. Run with
+ * {@code mvn test -Ploadtest -Dtest=MixedWorkloadLoadTest}; size the run with
+ * {@code -Dloadtest.clients}, {@code -Dloadtest.requests} and {@code -Dloadtest.warmup-requests},
+ * and the fake provider's response time with {@code -Dloadtest.twilio-latency-ms}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "whatsapp.sender=twilio",
+        "twilio.account-sid=AC00000000000000000000000000000000",
+        "twilio.auth-token=loadtest",
+        "twilio.whatsapp-from=whatsapp:+14155238886",
+        "twilio.test-phone=+910000000000",
+        "whatsapp.outbox.poll-interval-ms=100",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.datasource.hikari.maximum-pool-size=50"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MixedWorkloadLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 200);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 20000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("loadtest.warmup-requests", 2000);
+    private static final long SEED = 20240601L;
+
+    private static final String[] CITIES = {"Pune", "Mumbai", "Nashik", "Nagpur", "Aurangabad", "Kolhapur"};
+    private static final String PASSWORD = "LoadTest@123";
+    private static final int DRIVERS = 100;
+    private static final int PASSENGERS = 1000;
+    private static final int RIDES = 1500;
+    private static final int DAYS = 14;
+    private static final int SEEDED_BOOKINGS = 2000;
+    private static final int SEEDED_MESSAGES = 300;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+
+    private enum Endpoint {
+        SEARCH("GET /rides/search", 40),
+        RIDE_DETAILS("GET /rides/{id}", 25),
+        BOOK("POST /rides/{id}/book", 8),
+        SEND_MESSAGE("POST /messages/send", 10),
+        UNREAD_COUNT("GET /messages/unread/count", 12),
+        LOGIN("POST /auth/login", 5);
+
+        private final String label;
+        private final int weight;
+
+        Endpoint(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private record Call(Endpoint endpoint, HttpRequest request) {}
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private WhatsAppOutboxRepository outboxRepository;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private RideSearchIndex rideSearchIndex;
+
+    @Autowired
+    private LocationSuggestIndex locationSuggestIndex;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private FakeTwilioServer twilio;
+    private List<User> drivers;
+    private List<User> passengers;
+    private List<Ride> rides;
+    private Map<Long, String> tokens;
+
+    @BeforeAll
+    void seed() throws IOException {
+        twilio = new FakeTwilioServer(Duration.ofMillis(Long.getLong("loadtest.twilio-latency-ms", 100)));
+        Twilio.setRestClient(new TwilioRestClient.Builder("AC00000000000000000000000000000000", "loadtest")
+                .httpClient(twilio.httpClient())
+                .build());
+
+        Random random = new Random(SEED);
+        // One hash for everyone: BCrypt at the default cost would otherwise dominate seeding
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        drivers = new ArrayList<>();
+        for (int i = 0; i < DRIVERS; i++) {
+            User driver = new User("driver" + i + "@load.test", passwordHash, "Driver", "No" + i, phone(i));
+            driver.setIsDriver(true);
+            driver.setIsVerified(true);
+            drivers.add(userRepository.save(driver));
+        }
+        passengers = new ArrayList<>();
+        for (int i = 0; i < PASSENGERS; i++) {
+            User passenger = new User("passenger" + i + "@load.test", passwordHash, "Passenger", "No" + i, phone(DRIVERS + i));
+            passenger.setIsVerified(true);
+            passengers.add(userRepository.save(passenger));
+        }
+
+        rides = new ArrayList<>();
+        for (int i = 0; i < RIDES; i++) {
+            int from = random.nextInt(CITIES.length);
+            int to = (from + 1 + random.nextInt(CITIES.length - 1)) % CITIES.length;
+            Ride ride = new Ride(drivers.get(random.nextInt(DRIVERS)), CITIES[from], CITIES[to],
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)), LocalTime.of(5 + random.nextInt(16), 15 * random.nextInt(4)),
+                    3 + random.nextInt(4), BigDecimal.valueOf(150 + 25L * random.nextInt(20)), "Swift", "MH12AB" + (1000 + i));
+            rides.add(rideRepository.save(ride));
+        }
+
+        Set<String> booked = new HashSet<>();
+        for (int i = 0; i < SEEDED_BOOKINGS; i++) {
+            Ride ride = rides.get(random.nextInt(RIDES));
+            User passenger = passengers.get(random.nextInt(PASSENGERS));
+            if (ride.getAvailableSeats() < 2 || !booked.add(ride.getId() + ":" + passenger.getId())) {
+                continue;
+            }
+            Booking booking = new Booking(ride, passenger, 1, ride.getPricePerSeat());
+            booking.setStatus(Booking.BookingStatus.CONFIRMED);
+            bookingRepository.save(booking);
+            ride.setAvailableSeats(ride.getAvailableSeats() - 1);
+            rideRepository.save(ride);
+        }
+
+        for (int i = 0; i < SEEDED_MESSAGES; i++) {
+            User driver = drivers.get(random.nextInt(DRIVERS));
+            User passenger = passengers.get(random.nextInt(PASSENGERS));
+            messageService.sendMessage(passenger.getId(), driver.getId(), "Is the pickup point near the station?", null);
+            messageService.sendMessage(driver.getId(), passenger.getId(), "Yes, right outside gate 2.", null);
+        }
+
+        tokens = new HashMap<>();
+        for (User user : drivers) {
+            tokens.put(user.getId(), token(user));
+        }
+        for (User user : passengers) {
+            tokens.put(user.getId(), token(user));
+        }
+        rideSearchIndex.rebuild();
+        locationSuggestIndex.rebuild();
+    }
+
+    @AfterAll
+    void stopTwilio() {
+        Twilio.setRestClient(null);
+        if (twilio != null) {
+            twilio.close();
+        }
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        Random random = new Random(SEED + 1);
+        run(plan(random, WARMUP_REQUESTS));
+        List<String> report = run(plan(random, REQUESTS));
+
+        // Let the dispatcher drain the notifications the run queued before the fake Twilio goes away
+        long drainStarted = System.nanoTime();
+        long deadline = drainStarted + Duration.ofMinutes(2).toNanos();
+        while (undelivered() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        report.add(String.format("whatsapp: sent to fake Twilio=%d undelivered=%d failed=%d drained in %.1fs",
+                twilio.receivedCount(), undelivered(),
+                outboxRepository.countByStatus(WhatsAppOutboxMessage.Status.FAILED),
+                (System.nanoTime() - drainStarted) / 1e9));
+
+        report.forEach(System.out::println);
+        Path out = Path.of("target", "loadtest", "mixed-workload.txt");
+        Files.createDirectories(out.getParent());
+        Files.write(out, report);
+
+        assertThat(undelivered()).isZero();
+        assertThat(outboxRepository.countByStatus(WhatsAppOutboxMessage.Status.FAILED)).isZero();
+    }
+
+    private long undelivered() {
+        return outboxRepository.countByStatus(WhatsAppOutboxMessage.Status.PENDING)
+                + outboxRepository.countByStatus(WhatsAppOutboxMessage.Status.SENDING);
+    }
+
+    private List<Call> plan(Random random, int size) {
+        int totalWeight = Arrays.stream(Endpoint.values()).mapToInt(endpoint -> endpoint.weight).sum();
+        List<Call> calls = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int pick = random.nextInt(totalWeight);
+            Endpoint endpoint = Endpoint.values()[0];
+            for (Endpoint candidate : Endpoint.values()) {
+                if (pick < candidate.weight) {
+                    endpoint = candidate;
+                    break;
+                }
+                pick -= candidate.weight;
+            }
+            calls.add(new Call(endpoint, request(endpoint, random)));
+        }
+        return calls;
+    }
+
+    private HttpRequest request(Endpoint endpoint, Random random) {
+        User passenger = passengers.get(random.nextInt(PASSENGERS));
+        Ride ride = rides.get(random.nextInt(RIDES));
+        return switch (endpoint) {
+            case SEARCH -> authorized(passenger, "/rides/search?from=" + ride.getFromLocation().toLowerCase()
+                    + "&to=" + ride.getToLocation().toLowerCase() + "&date=" + ride.getDepartureDate()).GET().build();
+            case RIDE_DETAILS -> authorized(passenger, "/rides/" + ride.getId()).GET().build();
+            case BOOK -> authorized(passenger, "/rides/" + ride.getId() + "/book")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"seatsRequested\":1}")).build();
+            case SEND_MESSAGE -> authorized(passenger, "/messages/send")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"receiverId\":" + ride.getDriver().getId()
+                            + ",\"message\":\"Can I bring a small suitcase?\",\"rideId\":" + ride.getId() + "}")).build();
+            case UNREAD_COUNT -> {
+                // Drivers poll their inbox too
+                User reader = random.nextBoolean() ? passenger : ride.getDriver();
+                yield authorized(reader, "/messages/unread/count").GET().build();
+            }
+            case LOGIN -> HttpRequest.newBuilder(uri("/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + passenger.getEmail()
+                            + "\",\"password\":\"" + PASSWORD + "\"}")).build();
+        };
+    }
+
+    /**
+     * Sends the calls from {@code CLIENTS} concurrent clients and returns one
+     * report line per endpoint plus a total. Booking rejections (sold out,
+     * already booked) are expected and counted as 4xx; any 5xx fails the run.
+     */
+    private List<String> run(List<Call> calls) throws Exception {
+        Semaphore clients = new Semaphore(CLIENTS);
+        long[] latencies = new long[calls.size()];
+        AtomicIntegerArray status = new AtomicIntegerArray(calls.size());
+        long started = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < calls.size(); i++) {
+                int request = i;
+                clients.acquire();
+                futures.add(executor.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        status.set(request, client.send(calls.get(request).request(), HttpResponse.BodyHandlers.discarding()).statusCode());
+                    } catch (IOException | InterruptedException e) {
+                        status.set(request, -1);
+                    } finally {
+                        latencies[request] = System.nanoTime() - sent;
+                        clients.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<String> report = new ArrayList<>();
+        int failed = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            List<Long> samples = new ArrayList<>();
+            int rejected = 0;
+            for (int i = 0; i < calls.size(); i++) {
+                if (calls.get(i).endpoint() != endpoint) {
+                    continue;
+                }
+                samples.add(latencies[i]);
+                if (status.get(i) >= 400 && status.get(i) < 500) {
+                    rejected++;
+                } else if (status.get(i) < 200 || status.get(i) >= 500) {
+                    failed++;
+                }
+            }
+            long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            report.add(line(endpoint.label, sorted, seconds, rejected));
+        }
+        long[] all = latencies.clone();
+        Arrays.sort(all);
+        report.add(line("total (clients=" + CLIENTS + ")", all, seconds, 0));
+
+        assertThat(failed).as("5xx responses and I/O errors").isZero();
+        return report;
+    }
+
+    private static String line(String endpoint, long[] sorted, double seconds, int rejected) {
+        if (sorted.length == 0) {
+            return String.format("%-28s requests=0", endpoint);
+        }
+        return String.format("%-28s requests=%-6d 4xx=%-5d throughput=%7.1f/s p50=%7.2fms p99=%7.2fms p999=%7.2fms",
+                endpoint, sorted.length, rejected, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private HttpRequest.Builder authorized(User user, String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + tokens.get(user.getId()));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api" + path);
+    }
+
+    private String token(User user) {
+        return jwtTokenUtil.generateToken(user.getEmail(),
+                Map.of("userId", user.getId(), "isDriver", Boolean.TRUE.equals(user.getIsDriver()), "isVerified", true));
+    }
+
+    private static String phone(int i) {
+        return String.valueOf(9_500_000_000L + i);
+    }
+}
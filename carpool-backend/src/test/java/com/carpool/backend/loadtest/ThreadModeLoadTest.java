@@ -0,0 +1,234 @@
+package com.carpool.backend.loadtest;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.search.RideSearchIndex;
+import com.carpool.backend.security.JwtTokenUtil;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares how many /rides/search and /rides/{id}/book requests the server keeps
+ * in flight under platform and virtual request threads. H2 answers in microseconds,
+ * so a filter adds a fixed blocking delay per request to stand in for the MySQL
+ * and Twilio round trips the handlers wait on in production. Results are printed
+ * and written to target/loadtest/. Run with {@code mvn test -Ploadtest}.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "whatsapp.sender=fake",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "server.tomcat.threads.max=200",
+        "spring.datasource.hikari.maximum-pool-size=50"
+})
+@ActiveProfiles("test")
+@Import(ThreadModeLoadTest.SimulatedIoConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class ThreadModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 1000);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 5000);
+    private static final int RIDES = 500;
+    private static final int DAYS = 50; // ~10 rides per search result, like a real route and date
+    private static final LocalDate DATE = LocalDate.now().plusDays(3);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private RideSearchIndex rideSearchIndex;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private InFlightCounter inFlight;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private List<Long> rideIds;
+    private List<String> passengerTokens;
+
+    @BeforeAll
+    void seed() {
+        User driver = userRepository.save(new User("driver@load.test", "password-hash", "Load", "Driver", "9700000000"));
+        rideIds = new ArrayList<>();
+        for (int i = 0; i < RIDES; i++) {
+            Ride ride = new Ride(driver, "Pune", "Mumbai", DATE.plusDays(i % DAYS), LocalTime.of(6, 0).plusMinutes(i),
+                    8, new BigDecimal("250.00"), "Swift", "MH12AB1234");
+            rideIds.add(rideRepository.save(ride).getId());
+        }
+        passengerTokens = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            User passenger = userRepository.save(new User("p" + i + "@load.test", "password-hash", "Load", "Passenger",
+                    String.valueOf(9_600_000_000L + i)));
+            passengerTokens.add(jwtTokenUtil.generateToken(passenger.getEmail(),
+                    Map.of("userId", passenger.getId(), "isDriver", false, "isVerified", true)));
+        }
+        rideSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchAndBookUnderLoad() throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        List<String> report = new ArrayList<>();
+        report.add(run(mode, "GET /rides/search", i -> HttpRequest.newBuilder(uri("/rides/search?from=pune&to=mumbai&date=" + DATE.plusDays(i % DAYS)))
+                .header("Authorization", "Bearer " + passengerTokens.get(i)).GET().build()));
+        report.add(run(mode, "POST /rides/{id}/book", i -> HttpRequest.newBuilder(uri("/rides/" + rideIds.get(i % RIDES) + "/book"))
+                .header("Authorization", "Bearer " + passengerTokens.get(i))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"seatsRequested\":1}")).build()));
+
+        report.forEach(System.out::println);
+        Path out = Path.of("target", "loadtest", "thread-mode-" + mode + ".txt");
+        Files.createDirectories(out.getParent());
+        Files.write(out, report);
+    }
+
+    private String run(String mode, String endpoint, IntFunction<HttpRequest> requests) throws Exception {
+        inFlight.reset();
+        Semaphore clients = new Semaphore(CLIENTS);
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger serverErrors = new AtomicInteger();
+        long started = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                int request = i;
+                clients.acquire();
+                futures.add(executor.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(requests.apply(request), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            serverErrors.incrementAndGet();
+                        }
+                    } catch (IOException | InterruptedException e) {
+                        serverErrors.incrementAndGet();
+                    } finally {
+                        latencies[request] = System.nanoTime() - sent;
+                        clients.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        Arrays.sort(latencies);
+        assertThat(serverErrors).hasValue(0);
+        return String.format("%-8s %-22s requests=%d clients=%d throughput=%.0f/s maxInFlight=%d p50=%dms p99=%dms",
+                mode, endpoint, REQUESTS, CLIENTS, REQUESTS / seconds, inFlight.max(),
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api" + path);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return Duration.ofNanos(sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)]).toMillis();
+    }
+
+    static class InFlightCounter {
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        void enter() {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+        }
+
+        void exit() {
+            current.decrementAndGet();
+        }
+
+        int max() {
+            return max.get();
+        }
+
+        void reset() {
+            max.set(0);
+        }
+    }
+
+    @TestConfiguration
+    static class SimulatedIoConfig {
+
+        @Bean
+        InFlightCounter inFlightCounter() {
+            return new InFlightCounter();
+        }
+
+        @Bean
+        FilterRegistrationBean<Filter> simulatedIoFilter(InFlightCounter counter,
+                                                         @Value("${loadtest.simulated-io-ms:50}") long ioMillis) {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                counter.enter();
+                try {
+                    Thread.sleep(ioMillis);
+                    chain.doFilter(request, response);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    counter.exit();
+                }
+            });
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
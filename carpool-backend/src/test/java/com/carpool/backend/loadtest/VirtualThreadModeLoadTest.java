@@ -0,0 +1,7 @@
+package com.carpool.backend.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadModeLoadTest extends ThreadModeLoadTest {
+}
@@ -0,0 +1,54 @@
+package com.carpool.backend.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrObservationHandlerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsObservationsWhileARecordingIsRunning() throws Exception {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new JfrObservationHandler());
+
+        // Not recorded: no recording has the event enabled yet
+        Observation.createNotStarted("before", registry).observe(() -> { });
+
+        Path file = dir.resolve("observations.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.carpool.Observation");
+            recording.start();
+            Observation.createNotStarted("http.server.requests", registry)
+                    .contextualName("http get /rides/{id}")
+                    .lowCardinalityKeyValue("uri", "/rides/{id}")
+                    .lowCardinalityKeyValue("status", "200")
+                    .observe(() -> { });
+            Observation failing = Observation.start("whatsapp.poll", registry);
+            failing.error(new IllegalStateException("boom"));
+            failing.stop();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.toMap(event -> event.getString("name"), event -> event));
+        assertThat(events).containsOnlyKeys("http.server.requests", "whatsapp.poll");
+        RecordedEvent request = events.get("http.server.requests");
+        assertThat(request.getString("contextualName")).isEqualTo("http get /rides/{id}");
+        assertThat(request.getString("tags")).contains("uri=/rides/{id}", "status=200");
+        assertThat(events.get("whatsapp.poll").getString("error")).isEqualTo(IllegalStateException.class.getName());
+    }
+}
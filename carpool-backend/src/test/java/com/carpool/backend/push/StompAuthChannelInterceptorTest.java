@@ -0,0 +1,81 @@
+package com.carpool.backend.push;
+
+import com.carpool.backend.security.CustomUserDetailsService;
+import com.carpool.backend.security.CustomUserDetailsService.CustomUserPrincipal;
+import com.carpool.backend.security.JwtTokenUtil;
+import com.carpool.backend.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthChannelInterceptorTest {
+
+    private final JwtTokenUtil jwtTokenUtil = mock(JwtTokenUtil.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final StompAuthChannelInterceptor interceptor = new StompAuthChannelInterceptor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(interceptor, "jwtTokenUtil", jwtTokenUtil);
+        ReflectionTestUtils.setField(interceptor, "userDetailsService", userDetailsService);
+    }
+
+    @Test
+    void connectWithValidTokenBindsUserIdPrincipal() {
+        VerifiedToken verified = new VerifiedToken("driver@example.com", 42L, true, true, Long.MAX_VALUE);
+        CustomUserPrincipal principal = mock(CustomUserPrincipal.class);
+        when(principal.getUserId()).thenReturn(42L);
+        when(jwtTokenUtil.verify("good")).thenReturn(verified);
+        when(userDetailsService.loadUserByToken(verified)).thenReturn(principal);
+        when(jwtTokenUtil.validate(any(), any())).thenReturn(true);
+
+        Message<?> result = interceptor.preSend(frame(StompCommand.CONNECT, "Bearer good", null), null);
+
+        assertThat(StompHeaderAccessor.wrap(result).getUser()).isEqualTo(new PushPrincipal(42L));
+        assertThat(StompHeaderAccessor.wrap(result).getUser().getName()).isEqualTo("42");
+    }
+
+    @Test
+    void connectWithoutOrWithBadTokenIsRejected() {
+        when(jwtTokenUtil.verify("bad")).thenThrow(new JwtException("bad signature"));
+
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, null, null), null))
+                .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, "Bearer bad", null), null))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    void subscriptionsAreLimitedToOwnQueuesAndRideTopics() {
+        assertThat(interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/user/queue/messages"), null)).isNotNull();
+        assertThat(interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/topic/rides/7"), null)).isNotNull();
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, null, "/queue/messages"), null))
+                .isInstanceOf(MessageDeliveryException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, null, "/app/anything"), null))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String authorization, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (authorization != null) {
+            accessor.addNativeHeader("Authorization", authorization);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
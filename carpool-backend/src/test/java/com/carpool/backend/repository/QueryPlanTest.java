@@ -0,0 +1,515 @@
+package com.carpool.backend.repository;
+
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Message;
+import com.carpool.backend.entity.Notification;
+import com.carpool.backend.entity.Rating;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.RideSchedule;
+import com.carpool.backend.entity.RideStop;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.entity.WhatsAppOutboxMessage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query against a seeded H2 database built by the Flyway
+ * migrations, captures the SQL Hibernate sends, and fails if H2's EXPLAIN plan
+ * for any of it falls back to a full table scan. A new query needs a matching
+ * index in a migration, or an entry in {@link #FULL_SCAN_ALLOWED} saying why
+ * it cannot use one; a query method missing from {@link #queries()} fails
+ * {@link #everyRepositoryQueryIsChecked()}.
+ * <p>
+ * Plans are H2's, so this catches missing indexes, not MySQL's choice between
+ * them. Methods inherited from the Spring Data base interfaces are not listed.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(QueryPlanTest.CaptureConfig.class)
+class QueryPlanTest {
+
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            // Leading-wildcard LIKE cannot use a B-tree index
+            "UserRepository.findByLocationContaining",
+            "UserRepository.findByNameContaining",
+            // A two-valued flag matches too many users for an index to beat a scan
+            "UserRepository.findByIsDriverTrue",
+            "UserRepository.findByIsVerifiedTrue",
+            "UserRepository.countDrivers",
+            "UserRepository.countVerifiedUsers");
+
+    private static final int USERS = 400;
+    private static final int RIDES = 2000;
+    private static final int SCHEDULES = 40;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private RideRepository rideRepository;
+    @Autowired private RideStopRepository rideStopRepository;
+    @Autowired private RideScheduleRepository rideScheduleRepository;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private MessageRepository messageRepository;
+    @Autowired private ConversationRepository conversationRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private RatingRepository ratingRepository;
+    @Autowired private WhatsAppOutboxRepository outboxRepository;
+    @Autowired private DataSource dataSource;
+    @Autowired private SqlCapture sqlCapture;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private ApplicationContext applicationContext;
+
+    private User driver;
+    private User passenger;
+    private User other;
+    private Ride ride;
+    private RideSchedule schedule;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("user" + i + "@example.com", "password-hash", "First" + i, "Last" + i,
+                    String.valueOf(9_600_000_000L + i));
+            user.setLocation("City " + (i % 40));
+            user.setIsDriver(i % 10 == 0);
+            user.setIsVerified(i % 10 == 1);
+            user.setRating(new BigDecimal(i % 50 == 0 ? "4.8" : "3.0"));
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+        driver = users.get(0);
+        passenger = users.get(1);
+        other = users.get(2);
+
+        // Most schedules have ended or were cancelled
+        List<RideSchedule> schedules = new ArrayList<>();
+        for (int i = 0; i < SCHEDULES; i++) {
+            RideSchedule schedule = new RideSchedule();
+            schedule.setDriver(users.get(i * 10));
+            schedule.setFromLocation("From " + (i % 30));
+            schedule.setToLocation("To " + (i % 25));
+            schedule.setDepartureTime(LocalTime.of(6 + i % 12, 0));
+            schedule.setDaysOfWeek(0b0011111);
+            schedule.setStartDate(TODAY.minusDays(180 - i));
+            schedule.setEndDate(i % 8 == 0 ? TODAY.plusDays(90) : TODAY.minusDays(100 - i));
+            schedule.setTotalSeats(4);
+            schedule.setPricePerSeat(new BigDecimal("200.00"));
+            schedule.setCarModel("Swift");
+            schedule.setCarNumber("MH12AB1234");
+            schedule.setStatus(i % 5 == 0 ? RideSchedule.ScheduleStatus.CANCELLED : RideSchedule.ScheduleStatus.ACTIVE);
+            schedules.add(schedule);
+        }
+        schedules = rideScheduleRepository.saveAll(schedules);
+        schedule = schedules.get(8);
+
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < RIDES; i++) {
+            Ride seeded = new Ride(users.get((i % (USERS / 10)) * 10), "From " + (i % 30), "To " + (i % 25),
+                    TODAY.plusDays(i % 120 - 90), LocalTime.of(6 + i % 12, 0), 4,
+                    new BigDecimal("250.00"), "Swift", "MH12AB1234");
+            // Every twentieth ride is an occurrence of a schedule, one per schedule and date
+            if (i % 20 == 3) {
+                seeded.setSchedule(schedules.get((i / 20) % SCHEDULES));
+            }
+            // Most rides are in the past, as in production
+            seeded.setStatus(i % 120 >= 90 ? Ride.RideStatus.ACTIVE
+                    : i % 7 == 0 ? Ride.RideStatus.CANCELLED : Ride.RideStatus.COMPLETED);
+            rides.add(seeded);
+        }
+        rides = rideRepository.saveAll(rides);
+        ride = rides.get(95);
+
+        // Every fifth ride stops twice on the way
+        List<RideStop> stops = new ArrayList<>();
+        for (int i = 0; i < RIDES; i += 5) {
+            for (int position = 0; position < 4; position++) {
+                RideStop stop = new RideStop(rides.get(i), position, "Stop " + position);
+                stop.setBookedSeats(position < 3 ? position % 2 : null);
+                stops.add(stop);
+            }
+        }
+        rideStopRepository.saveAll(stops);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Rating> ratings = new ArrayList<>();
+        List<Message> messages = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        List<WhatsAppOutboxMessage> outbox = new ArrayList<>();
+        for (int i = 0; i < RIDES; i++) {
+            User booker = users.get(1 + (i * 7) % (USERS - 1));
+            Ride booked = rides.get(i);
+            Booking booking = new Booking(booked, booker, 1, booked.getPricePerSeat());
+            booking.setStatus(Booking.BookingStatus.values()[i % Booking.BookingStatus.values().length]);
+            bookings.add(booking);
+            ratings.add(new Rating(4, "Good", booker, booked.getDriver(), booked));
+            messages.add(new Message(booker, booked.getDriver(), booked, "Hello " + i, Message.MessageType.TEXT));
+            notifications.add(new Notification(booker, "Booking", "Booked ride " + i,
+                    i % 2 == 0 ? Notification.Type.BOOKING : Notification.Type.RIDE));
+            WhatsAppOutboxMessage queued = new WhatsAppOutboxMessage("+91" + booker.getPhone(), "Hello " + i);
+            queued.setStatus(i % 50 == 0 ? WhatsAppOutboxMessage.Status.PENDING : WhatsAppOutboxMessage.Status.SENT);
+            queued.setSentAt(LocalDateTime.now().minusDays(i % 30));
+            outbox.add(queued);
+        }
+        bookingRepository.saveAll(bookings);
+        ratingRepository.saveAll(ratings);
+        List<Message> savedMessages = messageRepository.saveAll(messages);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> savedMessages.forEach(message -> {
+            Long senderId = message.getSender().getId();
+            Long receiverId = message.getReceiver().getId();
+            conversationRepository.recordMessage(senderId, receiverId, message.getId(), senderId,
+                    message.getMessageText(), message.getSentAt(), null, 0);
+            conversationRepository.recordMessage(receiverId, senderId, message.getId(), senderId,
+                    message.getMessageText(), message.getSentAt(), null, 1);
+        }));
+        notificationRepository.saveAll(notifications);
+        outboxRepository.saveAll(outbox);
+
+        try (Connection connection = dataSource.unwrap(DataSource.class).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @Test
+    void everyRepositoryQueryIsChecked() {
+        Set<String> checked = new HashSet<>();
+        for (String name : queries().keySet()) {
+            int arguments = name.indexOf('(');
+            checked.add(arguments < 0 ? name : name.substring(0, arguments));
+        }
+
+        List<String> unchecked = new ArrayList<>();
+        for (RepositoryFactoryInformation<?, ?> factory
+                : applicationContext.getBeansOfType(RepositoryFactoryInformation.class, false, false).values()) {
+            RepositoryInformation repository = factory.getRepositoryInformation();
+            for (Method method : repository.getQueryMethods()) {
+                String name = repository.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                if (!checked.contains(name)) {
+                    unchecked.add(name);
+                }
+            }
+        }
+        assertThat(unchecked).as("repository queries without a plan check").isEmpty();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return queries().entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            List<CapturedStatement> statements = sqlCapture.capture(() -> transaction.executeWithoutResult(status -> {
+                query.getValue().run();
+                status.setRollbackOnly();
+            }));
+            assertThat(statements).as("SQL issued by " + query.getKey()).isNotEmpty();
+            for (CapturedStatement statement : statements) {
+                String plan = explain(statement);
+                if (!FULL_SCAN_ALLOWED.contains(query.getKey())) {
+                    assertThat(plan).as(query.getKey() + " plan").doesNotContainIgnoringCase("tableScan");
+                }
+            }
+        }));
+    }
+
+    // Keyed by "Repository.method", with a parenthesized note when one method is checked more than once
+    private Map<String, Runnable> queries() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        Long rideId = ride.getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        queries.put("RideRepository.findByDriver", () -> rideRepository.findByDriver(driver));
+        queries.put("RideRepository.findWithDriverByDriverId", () -> rideRepository
+                .findWithDriverByDriverId(driver.getId()));
+        queries.put("RideRepository.findIdsByDriverId", () -> rideRepository.findIdsByDriverId(driver.getId()));
+        queries.put("RideRepository.findWithDriverByIdIn", () -> rideRepository
+                .findWithDriverByIdIn(List.of(rideId, rideId + 1)));
+        queries.put("RideRepository.findActiveRidesDepartingFrom", () -> rideRepository
+                .findActiveRidesDepartingFrom(TODAY));
+        queries.put("RideRepository.findDistinctFromLocations", () -> rideRepository.findDistinctFromLocations());
+        queries.put("RideRepository.findDistinctToLocations", () -> rideRepository.findDistinctToLocations());
+        queries.put("RideRepository.countCompletedRidesByDriverId", () -> rideRepository
+                .countCompletedRidesByDriverId(driver.getId()));
+        queries.put("RideRepository.countCompletedBookingsByPassengerId", () -> rideRepository
+                .countCompletedBookingsByPassengerId(passenger.getId()));
+        queries.put("RideRepository.reserveSeats", () -> rideRepository.reserveSeats(rideId, 1));
+        queries.put("RideRepository.releaseSeats", () -> rideRepository.releaseSeats(rideId, 1));
+        queries.put("RideRepository.resizeSeats", () -> rideRepository.resizeSeats(rideId, 4));
+        queries.put("RideRepository.findAvailableSeatsById", () -> rideRepository.findAvailableSeatsById(rideId));
+        queries.put("RideRepository.lockById", () -> rideRepository.lockById(rideId));
+        queries.put("RideRepository.refreshSegmentSeats", () -> rideRepository.refreshSegmentSeats(rideId));
+        queries.put("RideRepository.findBy(filter)", () -> rideRepository.findBy(
+                Specification.where(RideSpecifications.isActive())
+                        .and(RideSpecifications.fromContains("from 1"))
+                        .and(RideSpecifications.departingOnOrAfter(TODAY))
+                        .and(RideSpecifications.after(RideSpecifications.Cursor.of(ride))),
+                query -> query.sortBy(RideSpecifications.DEPARTURE_ORDER).limit(21).all()));
+
+        queries.put("RideRepository.findIdByScheduleIdAndDepartureDate", () -> rideRepository
+                .findIdByScheduleIdAndDepartureDate(schedule.getId(), TODAY));
+        queries.put("RideRepository.findScheduledDates", () -> rideRepository
+                .findScheduledDates(List.of(schedule.getId(), schedule.getId() + 1), TODAY));
+
+        queries.put("RideScheduleRepository.findCurrentSchedules", () -> rideScheduleRepository
+                .findCurrentSchedules(TODAY));
+        queries.put("RideScheduleRepository.findWithDriverByIdIn", () -> rideScheduleRepository
+                .findWithDriverByIdIn(List.of(schedule.getId(), schedule.getId() + 1)));
+        queries.put("RideScheduleRepository.findByDriverIdOrderByStartDate", () -> rideScheduleRepository
+                .findByDriverIdOrderByStartDate(driver.getId()));
+
+        queries.put("RideStopRepository.findSegmentBookedSeats", () -> rideStopRepository
+                .findSegmentBookedSeats(rideId));
+        queries.put("RideStopRepository.reserveSeats", () -> rideStopRepository.reserveSeats(rideId, 0, 2, 1));
+        queries.put("RideStopRepository.releaseSeats", () -> rideStopRepository.releaseSeats(rideId, 0, 2, 1));
+
+        queries.put("BookingRepository.findByRideIdAndPassengerIdAndStatus", () -> bookingRepository
+                .findByRideIdAndPassengerIdAndStatus(rideId, passenger.getId(), Booking.BookingStatus.CONFIRMED));
+        queries.put("BookingRepository.findByRideIdAndStatus", () -> bookingRepository
+                .findByRideIdAndStatus(rideId, Booking.BookingStatus.CONFIRMED));
+        queries.put("BookingRepository.findByPassengerIdOrderByCreatedAtDesc", () -> bookingRepository
+                .findByPassengerIdOrderByCreatedAtDesc(passenger.getId()));
+        queries.put("BookingRepository.findByDriverIdOrderByCreatedAtDesc", () -> bookingRepository
+                .findByDriverIdOrderByCreatedAtDesc(driver.getId()));
+
+        queries.put("BookingRepository.findRideIdsByPassengerId", () -> bookingRepository
+                .findRideIdsByPassengerId(passenger.getId()));
+
+        queries.put("MessageRepository.findConversationPage", () -> messageRepository.findConversationPage(
+                Math.min(passenger.getId(), driver.getId()), Math.max(passenger.getId(), driver.getId()),
+                Long.MAX_VALUE, PageRequest.of(0, 51)));
+        queries.put("MessageRepository.findUnreadMessagesForUser", () -> messageRepository
+                .findUnreadMessagesForUser(driver));
+        queries.put("MessageRepository.countUnreadMessagesForUser", () -> messageRepository
+                .countUnreadMessagesForUser(driver));
+        queries.put("MessageRepository.countUnreadMessagesForUserId", () -> messageRepository
+                .countUnreadMessagesForUserId(driver.getId()));
+        queries.put("MessageRepository.findMessagesByRideId", () -> messageRepository.findMessagesByRideId(rideId));
+        queries.put("MessageRepository.markReadUpTo", () -> messageRepository
+                .markReadUpTo(driver.getId(), passenger.getId(), Long.MAX_VALUE));
+
+        queries.put("ConversationRepository.findInbox", () -> conversationRepository
+                .findInbox(passenger.getId(), PageRequest.of(0, 1)));
+        queries.put("ConversationRepository.findByOwnerIdAndPartnerId", () -> conversationRepository
+                .findByOwnerIdAndPartnerId(passenger.getId(), driver.getId()));
+        queries.put("ConversationRepository.recordMessage", () -> conversationRepository.recordMessage(
+                passenger.getId(), driver.getId(), Long.MAX_VALUE, driver.getId(), "Hi", now, rideId, 1));
+        queries.put("ConversationRepository.markReadUpTo", () -> conversationRepository
+                .markReadUpTo(passenger.getId(), driver.getId(), Long.MAX_VALUE));
+
+        queries.put("NotificationRepository.findByUser", () -> notificationRepository.findByUser(passenger));
+        queries.put("NotificationRepository.findByUserId", () -> notificationRepository
+                .findByUserId(passenger.getId()));
+        queries.put("NotificationRepository.findByUserIdOrderByCreatedAtDesc", () -> notificationRepository
+                .findByUserIdOrderByCreatedAtDesc(passenger.getId()));
+        queries.put("NotificationRepository.findUnreadByUserId", () -> notificationRepository
+                .findUnreadByUserId(passenger.getId()));
+        queries.put("NotificationRepository.findByUserIdAndType", () -> notificationRepository
+                .findByUserIdAndType(passenger.getId(), Notification.Type.BOOKING));
+        queries.put("NotificationRepository.countUnreadByUserId", () -> notificationRepository
+                .countUnreadByUserId(passenger.getId()));
+        queries.put("NotificationRepository.markAllAsReadByUserId", () -> notificationRepository
+                .markAllAsReadByUserId(other.getId()));
+        queries.put("NotificationRepository.markAsRead", () -> notificationRepository.markAsRead(1L));
+        queries.put("NotificationRepository.markAsReadForUser", () -> notificationRepository
+                .markAsReadForUser(1L, other.getId()));
+        queries.put("NotificationRepository.findOldNotifications", () -> notificationRepository
+                .findOldNotifications(now.minusYears(1)));
+        queries.put("NotificationRepository.deleteOldNotifications", () -> notificationRepository
+                .deleteOldNotifications(now.minusYears(1)));
+        queries.put("NotificationRepository.findByUserIdAndDateRange", () -> notificationRepository
+                .findByUserIdAndDateRange(passenger.getId(), now.minusDays(7), now));
+
+        queries.put("RatingRepository.existsByRideIdAndRaterIdAndRateeId", () -> ratingRepository
+                .existsByRideIdAndRaterIdAndRateeId(rideId, passenger.getId(), driver.getId()));
+        queries.put("RatingRepository.findAverageRatingByUserId", () -> ratingRepository
+                .findAverageRatingByUserId(driver.getId()));
+        queries.put("RatingRepository.findRecentRatingsByUserId", () -> ratingRepository
+                .findRecentRatingsByUserId(driver.getId()));
+        queries.put("RatingRepository.findByRateeId", () -> ratingRepository.findByRateeId(driver.getId()));
+
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user1@example.com"));
+        queries.put("UserRepository.findByPhone", () -> userRepository.findByPhone("9600000001"));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("user1@example.com"));
+        queries.put("UserRepository.existsByPhone", () -> userRepository.existsByPhone("9600000001"));
+        queries.put("UserRepository.findByIsDriverTrue", () -> userRepository.findByIsDriverTrue());
+        queries.put("UserRepository.findByIsVerifiedTrue", () -> userRepository.findByIsVerifiedTrue());
+        queries.put("UserRepository.findByLocationContaining", () -> userRepository.findByLocationContaining("City 1"));
+        queries.put("UserRepository.findByRatingGreaterThanEqual", () -> userRepository
+                .findByRatingGreaterThanEqual(4.5));
+        queries.put("UserRepository.findByNameContaining", () -> userRepository.findByNameContaining("First1"));
+        queries.put("UserRepository.countDrivers", () -> userRepository.countDrivers());
+        queries.put("UserRepository.countVerifiedUsers", () -> userRepository.countVerifiedUsers());
+        queries.put("UserRepository.getAverageRating", () -> userRepository.getAverageRating());
+        queries.put("UserRepository.addRating", () -> userRepository.addRating(driver.getId(), 5));
+        queries.put("UserRepository.incrementTotalRides", () -> userRepository.incrementTotalRides(driver.getId()));
+        queries.put("UserRepository.incrementTotalRidesForConfirmedPassengers", () -> userRepository
+                .incrementTotalRidesForConfirmedPassengers(rideId));
+        queries.put("UserRepository.findMaxId", () -> userRepository.findMaxId());
+        queries.put("UserRepository.reconcileStats", () -> userRepository.reconcileStats(1L, 100L));
+
+        queries.put("WhatsAppOutboxRepository.findDueHeads", () -> outboxRepository
+                .findDueHeads(now, PageRequest.of(0, 50)));
+        queries.put("WhatsAppOutboxRepository.claim", () -> outboxRepository.claim(1L, now));
+        queries.put("WhatsAppOutboxRepository.markSent", () -> outboxRepository.markSent(1L, now));
+        queries.put("WhatsAppOutboxRepository.markAttemptFailed", () -> outboxRepository
+                .markAttemptFailed(1L, WhatsAppOutboxMessage.Status.PENDING, now, "error"));
+        queries.put("WhatsAppOutboxRepository.releaseStaleClaims", () -> outboxRepository
+                .releaseStaleClaims(now.minusMinutes(2)));
+        queries.put("WhatsAppOutboxRepository.deleteSentBefore", () -> outboxRepository
+                .deleteSentBefore(now.minusDays(60)));
+        queries.put("WhatsAppOutboxRepository.countByStatus", () -> outboxRepository
+                .countByStatus(WhatsAppOutboxMessage.Status.PENDING));
+
+        return queries;
+    }
+
+    private String explain(CapturedStatement statement) throws SQLException {
+        try (Connection connection = dataSource.unwrap(DataSource.class).getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1)).append('\n');
+                }
+                return text.toString();
+            }
+        }
+    }
+
+    record CapturedStatement(String sql, Map<Integer, Object> parameters) {}
+
+    /**
+     * Records the SQL and bound parameters of every statement executed while
+     * {@link #capture} runs, by wrapping the pooled DataSource in JDK proxies.
+     */
+    static class SqlCapture {
+        private final ThreadLocal<List<CapturedStatement>> captured = new ThreadLocal<>();
+
+        List<CapturedStatement> capture(Runnable action) {
+            captured.set(new ArrayList<>());
+            try {
+                action.run();
+                return captured.get();
+            } finally {
+                captured.remove();
+            }
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, args, result) -> {
+                if (result instanceof Connection connection) {
+                    return wrap(connection);
+                }
+                return result;
+            });
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (method, args, result) -> {
+                if (method.equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    return wrap(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (method, args, result) -> {
+                if (method.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, method.equals("setNull") ? null : args[1]);
+                } else if (method.startsWith("execute") && captured.get() != null) {
+                    captured.get().add(new CapturedStatement(sql, new TreeMap<>(parameters)));
+                }
+                return result;
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, AfterCall after) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (method.getName().equals("unwrap") && args[0] == type) {
+                    return target;
+                }
+                try {
+                    return after.apply(method.getName(), args, method.invoke(target, args));
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        @FunctionalInterface
+        private interface AfterCall {
+            Object apply(String method, Object[] args, Object result) throws Throwable;
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        SqlCapture sqlCapture() {
+            return new SqlCapture();
+        }
+
+        @Bean
+        static BeanPostProcessor dataSourceCapture(ObjectProvider<SqlCapture> capture) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? capture.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
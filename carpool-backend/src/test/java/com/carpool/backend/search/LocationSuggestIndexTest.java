@@ -0,0 +1,93 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.repository.RideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LocationSuggestIndexTest {
+
+    private LocationSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LocationSuggestIndex();
+    }
+
+    @Test
+    void ranksPrefixMatchesByActiveRideCount() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Pune Station", "Mumbai")));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Pune", "Mumbai")));
+        index.onRideChanged(RideChangedEvent.updated(ride(3L, "pune", "Nashik")));
+        index.onRideChanged(RideChangedEvent.updated(ride(4L, "Punjab", "Pune Station")));
+        index.onRideChanged(RideChangedEvent.updated(ride(5L, "Pune", "Lonavala")));
+
+        assertThat(index.suggest("pun", null, 10)).containsExactly("Pune", "Pune Station", "Punjab");
+        assertThat(index.suggest("pun", LocationSuggestIndex.Side.TO, 10)).containsExactly("Pune Station");
+        assertThat(index.suggest("PUNE  s", null, 10)).containsExactly("Pune Station");
+        assertThat(index.suggest("pun", null, 1)).containsExactly("Pune");
+    }
+
+    @Test
+    void toleratesTyposAfterPrefixMatches() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Mumbai", "Nashik")));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Navi Mumbai", "Lonavala")));
+
+        assertThat(index.suggest("mumbia", null, 10)).containsExactly("Mumbai");
+        assertThat(index.suggest("nasik", null, 10)).containsExactly("Nashik");
+        assertThat(index.suggest("lonvala", null, 10)).containsExactly("Lonavala");
+        // Too short to guess at
+        assertThat(index.suggest("mub", null, 10)).isEmpty();
+    }
+
+    @Test
+    void followsEditsAndCancellations() {
+        Ride ride = ride(1L, "Pune", "Mumbai");
+        index.onRideChanged(RideChangedEvent.updated(ride));
+
+        ride.setToLocation("Lonavala");
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.suggest("mum", null, 10)).isEmpty();
+        assertThat(index.locations(LocationSuggestIndex.Side.TO)).containsExactly("Lonavala");
+
+        ride.setStatus(Ride.RideStatus.CANCELLED);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.suggest("pun", null, 10)).isEmpty();
+        assertThat(index.locations(null)).isEmpty();
+    }
+
+    @Test
+    void rebuildKeepsChangesCommittedWhileItLoads() {
+        Ride edited = ride(1L, "Pune", "Mumbai");
+        RideRepository rideRepository = mock(RideRepository.class);
+        // The load reads the ride before its edit, which commits before the load finishes
+        when(rideRepository.findActiveRidesDepartingFrom(any())).thenAnswer(invocation -> {
+            List<Ride> stale = List.of(ride(1L, "Pune", "Mumbai"));
+            edited.setToLocation("Lonavala");
+            index.onRideChanged(RideChangedEvent.updated(edited));
+            return stale;
+        });
+        ReflectionTestUtils.setField(index, "rideRepository", rideRepository);
+
+        index.rebuild();
+
+        assertThat(index.locations(LocationSuggestIndex.Side.TO)).containsExactly("Lonavala");
+    }
+
+    private static Ride ride(Long id, String from, String to) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setFromLocation(from);
+        ride.setToLocation(to);
+        return ride;
+    }
+}
@@ -0,0 +1,135 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.geo.Polyline;
+import com.carpool.backend.repository.RideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RideCorridorIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private static final GeoPoint PUNE = new GeoPoint(18.5204, 73.8567);
+    private static final GeoPoint LONAVALA = new GeoPoint(18.7546, 73.4062);
+    private static final GeoPoint PANVEL = new GeoPoint(18.9894, 73.1175);
+    private static final GeoPoint MUMBAI = new GeoPoint(19.0760, 72.8777);
+    private static final GeoPoint NASHIK = new GeoPoint(19.9975, 73.7898);
+
+    private RideCorridorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Gazetteer gazetteer = new Gazetteer();
+        gazetteer.load();
+        index = new RideCorridorIndex();
+        ReflectionTestUtils.setField(index, "gazetteer", gazetteer);
+    }
+
+    @Test
+    void matchesRidesPassingBothPointsInDrivingOrder() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Pune", "Mumbai", "07:00", 3,
+                PUNE, LONAVALA, PANVEL, MUMBAI)));
+
+        assertThat(ids(index.search(LONAVALA, PANVEL, 5, DATE, 1, 50))).containsExactly(1L);
+        assertThat(index.search(PANVEL, LONAVALA, 5, DATE, 1, 50)).isEmpty();
+        assertThat(index.search(LONAVALA, NASHIK, 5, DATE, 1, 50)).isEmpty();
+        assertThat(index.search(LONAVALA, PANVEL, 5, DATE.plusDays(1), 1, 50)).isEmpty();
+
+        // A pickup 2 km north of Lonavala is still within a 5 km corridor; the road runs diagonally,
+        // so its distance from the road is less than that
+        GeoPoint offRoad = new GeoPoint(LONAVALA.latitude() + 0.018, LONAVALA.longitude());
+        RideCorridorIndex.Match match = index.search(offRoad, PANVEL, 5, DATE, 1, 50).get(0);
+        assertThat(match.pickupDistanceKm()).isBetween(1.2, 2.0);
+        assertThat(match.dropOffDistanceKm()).isCloseTo(0, within(0.01));
+        assertThat(index.search(offRoad, PANVEL, 1, DATE, 1, 50)).isEmpty();
+    }
+
+    @Test
+    void ridesWithoutARouteFollowTheStraightLineBetweenTheirEnds() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Pune", "Nashik", "07:00", 3)));
+
+        // Halfway along a 165 km leg, far from either end
+        GeoPoint halfway = new GeoPoint((PUNE.latitude() + NASHIK.latitude()) / 2,
+                (PUNE.longitude() + NASHIK.longitude()) / 2);
+        assertThat(ids(index.search(halfway, NASHIK, 2, DATE, 1, 50))).containsExactly(1L);
+        assertThat(index.search(halfway, MUMBAI, 2, DATE, 1, 50)).isEmpty();
+    }
+
+    @Test
+    void ordersBySmallestDetourAndFollowsSeatsRouteChangesAndCancellations() {
+        Ride direct = ride(1L, "Pune", "Mumbai", "09:00", 1, PUNE, LONAVALA, PANVEL, MUMBAI);
+        Ride offset = ride(2L, "Pune", "Mumbai", "07:00", 3, PUNE,
+                new GeoPoint(LONAVALA.latitude() + 0.02, LONAVALA.longitude()), PANVEL, MUMBAI);
+        index.onRideChanged(RideChangedEvent.updated(direct));
+        index.onRideChanged(RideChangedEvent.updated(offset));
+
+        assertThat(ids(index.search(LONAVALA, MUMBAI, 5, DATE, 1, 50))).containsExactly(1L, 2L);
+        assertThat(ids(index.search(LONAVALA, MUMBAI, 5, DATE, 2, 50))).containsExactly(2L);
+        assertThat(ids(index.search(LONAVALA, MUMBAI, 5, DATE, 1, 1))).containsExactly(1L);
+
+        direct.setRoutePolyline(Polyline.encode(List.of(PUNE, NASHIK)));
+        direct.setToLocation("Nashik");
+        index.onRideChanged(RideChangedEvent.updated(direct));
+        assertThat(ids(index.search(LONAVALA, MUMBAI, 5, DATE, 1, 50))).containsExactly(2L);
+
+        offset.setStatus(Ride.RideStatus.CANCELLED);
+        index.onRideChanged(RideChangedEvent.updated(offset));
+        assertThat(index.search(LONAVALA, MUMBAI, 5, DATE, 1, 50)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildKeepsChangesCommittedWhileItLoads() {
+        Ride cancelled = ride(1L, "Pune", "Mumbai", "07:00", 3, PUNE, LONAVALA, PANVEL, MUMBAI);
+        RideRepository rideRepository = mock(RideRepository.class);
+        // The load reads the ride as still active, then its cancellation commits before the load finishes
+        when(rideRepository.findActiveRidesDepartingFrom(any())).thenAnswer(invocation -> {
+            List<Ride> stale = List.of(ride(1L, "Pune", "Mumbai", "07:00", 3, PUNE, LONAVALA, PANVEL, MUMBAI));
+            cancelled.setStatus(Ride.RideStatus.CANCELLED);
+            index.onRideChanged(RideChangedEvent.updated(cancelled));
+            return stale;
+        });
+        ReflectionTestUtils.setField(index, "rideRepository", rideRepository);
+
+        index.rebuild();
+
+        assertThat(index.search(LONAVALA, PANVEL, 5, DATE, 1, 50)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    private static Ride ride(Long id, String from, String to, String time, int seats, GeoPoint... route) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setFromLocation(from);
+        ride.setToLocation(to);
+        ride.setDepartureDate(DATE);
+        ride.setDepartureTime(LocalTime.parse(time));
+        ride.setTotalSeats(4);
+        ride.setAvailableSeats(seats);
+        ride.setPricePerSeat(new BigDecimal("300"));
+        if (route.length > 0) {
+            ride.setRoutePolyline(Polyline.encode(List.of(route)));
+        }
+        return ride;
+    }
+
+    private static List<Long> ids(List<RideCorridorIndex.Match> matches) {
+        return matches.stream().map(RideCorridorIndex.Match::rideId).toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.geo.GeoCells;
+import com.carpool.backend.geo.GeoPoint;
+import com.carpool.backend.repository.RideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RideGeoIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private static final GeoPoint PUNE = new GeoPoint(18.5204, 73.8567);
+    private static final GeoPoint THANE = new GeoPoint(19.2183, 72.9781);
+
+    private RideGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Gazetteer gazetteer = new Gazetteer();
+        gazetteer.load();
+        index = new RideGeoIndex();
+        ReflectionTestUtils.setField(index, "gazetteer", gazetteer);
+    }
+
+    @Test
+    void returnsPickupsWithinTheRadiusClosestFirst() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Hinjewadi", "Mumbai", "07:00", 3)));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Viman Nagar", "Mumbai", "09:00", 3)));
+        index.onRideChanged(RideChangedEvent.updated(ride(3L, "Shivajinagar", "Mumbai", "08:00", 3)));
+        index.onRideChanged(RideChangedEvent.updated(ride(4L, "Lonavala", "Mumbai", "08:00", 3)));
+
+        assertThat(ids(index.search(PUNE, 10, null, 10, DATE, 1, 50))).containsExactly(3L, 2L);
+        assertThat(ids(index.search(PUNE, 25, null, 10, DATE, 1, 50))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(index.search(PUNE, 25, null, 10, DATE, 1, 2))).containsExactly(3L, 2L);
+        assertThat(index.search(PUNE, 25, null, 10, DATE.plusDays(1), 1, 50)).isEmpty();
+
+        RideGeoIndex.Match closest = index.search(PUNE, 10, null, 10, DATE, 1, 50).get(0);
+        assertThat(closest.originDistanceKm()).isCloseTo(1.5, within(0.2));
+        assertThat(closest.destinationDistanceKm()).isNull();
+    }
+
+    @Test
+    void filtersByDropOffRadiusAndSeats() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Pune", "Mumbai", "07:00", 1)));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Pune", "Lonavala", "08:00", 3)));
+        index.onRideChanged(RideChangedEvent.updated(ride(3L, "Pune", "Thane", "09:00", 3)));
+
+        // Same pickup distance for all three, so departure time decides
+        assertThat(ids(index.search(PUNE, 5, THANE, 25, DATE, 1, 50))).containsExactly(1L, 3L);
+        assertThat(ids(index.search(PUNE, 5, THANE, 25, DATE, 2, 50))).containsExactly(3L);
+        assertThat(index.search(PUNE, 5, THANE, 25, DATE, 2, 50).get(0).destinationDistanceKm())
+                .isCloseTo(0, within(0.01));
+    }
+
+    @Test
+    void prefersRideCoordinatesAndFallsBackToTheGazetteer() {
+        Ride pinned = ride(1L, "Somewhere off the map", "Mumbai", "07:00", 3);
+        pinned.setFromLatitude(18.5210);
+        pinned.setFromLongitude(73.8570);
+        index.onRideChanged(RideChangedEvent.updated(pinned));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Phase 2, Hinjawadi", "Mumbai", "08:00", 3)));
+        index.onRideChanged(RideChangedEvent.updated(ride(3L, "Nowhere in particular", "Mumbai", "09:00", 3)));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ids(index.search(PUNE, 1, null, 10, DATE, 1, 50))).containsExactly(1L);
+        assertThat(ids(index.search(new GeoPoint(18.5913, 73.7389), 1, null, 10, DATE, 1, 50)))
+                .containsExactly(2L);
+    }
+
+    @Test
+    void followsSeatChangesMovesAndCancellations() {
+        Ride ride = ride(1L, "Pune", "Mumbai", "09:00", 2);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+
+        ride.setAvailableSeats(0);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search(PUNE, 5, null, 10, DATE, 1, 50)).isEmpty();
+
+        ride.setAvailableSeats(2);
+        ride.setFromLocation("Thane");
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search(PUNE, 5, null, 10, DATE, 1, 50)).isEmpty();
+        assertThat(ids(index.search(THANE, 5, null, 10, DATE, 1, 50))).containsExactly(1L);
+
+        ride.setStatus(Ride.RideStatus.CANCELLED);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search(THANE, 5, null, 10, DATE, 1, 50)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void neighbouringPointsAcrossACellEdgeAreBothFound() {
+        // 73.828125 is a precision-5 column boundary; the two pickups sit either side of it
+        long west = GeoCells.PRECISION_5.cell(18.52, 73.8280);
+        long east = GeoCells.PRECISION_5.cell(18.52, 73.8282);
+        assertThat(west).isNotEqualTo(east);
+
+        Ride westRide = ride(1L, "West", "Mumbai", "07:00", 3);
+        westRide.setFromLatitude(18.52);
+        westRide.setFromLongitude(73.8280);
+        Ride eastRide = ride(2L, "East", "Mumbai", "08:00", 3);
+        eastRide.setFromLatitude(18.52);
+        eastRide.setFromLongitude(73.8282);
+        index.onRideChanged(RideChangedEvent.updated(westRide));
+        index.onRideChanged(RideChangedEvent.updated(eastRide));
+
+        assertThat(ids(index.search(new GeoPoint(18.52, 73.8282), 0.5, null, 10, DATE, 1, 50)))
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rebuildKeepsChangesCommittedWhileItLoads() {
+        Ride cancelled = ride(1L, "Pune", "Mumbai", "07:00", 3);
+        RideRepository rideRepository = mock(RideRepository.class);
+        // The load reads the ride as still active, then its cancellation commits before the load finishes
+        when(rideRepository.findActiveRidesDepartingFrom(any())).thenAnswer(invocation -> {
+            List<Ride> stale = List.of(ride(1L, "Pune", "Mumbai", "07:00", 3), ride(2L, "Pune", "Thane", "08:00", 3));
+            cancelled.setStatus(Ride.RideStatus.CANCELLED);
+            index.onRideChanged(RideChangedEvent.updated(cancelled));
+            return stale;
+        });
+        ReflectionTestUtils.setField(index, "rideRepository", rideRepository);
+
+        index.rebuild();
+
+        assertThat(ids(index.search(PUNE, 25, null, 10, DATE, 1, 50))).containsExactly(2L);
+    }
+
+    private static Ride ride(Long id, String from, String to, String time, int seats) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setFromLocation(from);
+        ride.setToLocation(to);
+        ride.setDepartureDate(DATE);
+        ride.setDepartureTime(LocalTime.parse(time));
+        ride.setTotalSeats(4);
+        ride.setAvailableSeats(seats);
+        ride.setPricePerSeat(new BigDecimal("300"));
+        return ride;
+    }
+
+    private static List<Long> ids(List<RideGeoIndex.Match> matches) {
+        return matches.stream().map(RideGeoIndex.Match::rideId).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.RideSchedule;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.event.RideScheduleChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RideScheduleIndexTest {
+
+    // A Tuesday
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private RideScheduleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RideScheduleIndex();
+    }
+
+    @Test
+    void offersOccurrencesOnScheduledDaysWithinTheDateRange() {
+        index.onScheduleChanged(RideScheduleChangedEvent.of(schedule(1L, "Pune Station", "Mumbai", "09:00", "300",
+                Set.of(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY))));
+        index.onScheduleChanged(RideScheduleChangedEvent.of(schedule(2L, "pune", "Navi  Mumbai", "07:30", "250",
+                Set.of(DayOfWeek.TUESDAY))));
+        index.onScheduleChanged(RideScheduleChangedEvent.of(schedule(3L, "Pune", "Mumbai", "08:00", "200",
+                Set.of(DayOfWeek.MONDAY))));
+
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, null, null, null))).containsExactly(2L, 1L);
+        assertThat(ids(index.search("pune", "mumbai", DATE.plusDays(2), 1, null, null, null))).containsExactly(1L);
+        assertThat(ids(index.search("pune", "mumbai", DATE.minusDays(1), 1, null, null, null))).containsExactly(3L);
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, null, null, new BigDecimal("260")))).containsExactly(2L);
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, LocalTime.of(8, 0), LocalTime.of(10, 0), null)))
+                .containsExactly(1L);
+        assertThat(index.search("pune", "mumbai", DATE, 5, null, null, null)).isEmpty();
+        assertThat(index.search("pune", "mumbai", DATE.plusWeeks(5), 1, null, null, null)).isEmpty();
+        assertThat(index.search("pune", "mumbai", DATE.minusWeeks(3), 1, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void leavesDatesThatBecameRidesToTheRideIndex() {
+        RideSchedule schedule = schedule(1L, "Pune", "Mumbai", "09:00", "300", Set.of(DayOfWeek.TUESDAY));
+        index.onScheduleChanged(RideScheduleChangedEvent.of(schedule));
+
+        Ride ride = new Ride();
+        ride.setId(10L);
+        ride.setSchedule(schedule);
+        ride.setFromLocation("Pune");
+        ride.setToLocation("Mumbai");
+        ride.setDepartureDate(DATE);
+        ride.setDepartureTime(LocalTime.of(9, 0));
+        ride.setTotalSeats(4);
+        ride.setAvailableSeats(4);
+        ride.setPricePerSeat(new BigDecimal("300"));
+        index.onRideChanged(RideChangedEvent.updated(ride));
+
+        assertThat(index.search("pune", "mumbai", DATE, 1, null, null, null)).isEmpty();
+        assertThat(ids(index.search("pune", "mumbai", DATE.plusWeeks(1), 1, null, null, null))).containsExactly(1L);
+
+        // Cancelling the ride does not bring the occurrence back
+        ride.setStatus(Ride.RideStatus.CANCELLED);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search("pune", "mumbai", DATE, 1, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void dropsCancelledSchedules() {
+        RideSchedule schedule = schedule(1L, "Pune", "Mumbai", "09:00", "300", Set.of(DayOfWeek.TUESDAY));
+        index.onScheduleChanged(RideScheduleChangedEvent.of(schedule));
+        assertThat(index.size()).isEqualTo(1);
+
+        schedule.setStatus(RideSchedule.ScheduleStatus.CANCELLED);
+        index.onScheduleChanged(RideScheduleChangedEvent.of(schedule));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.search("pune", "mumbai", DATE, 1, null, null, null)).isEmpty();
+    }
+
+    private static RideSchedule schedule(Long id, String from, String to, String time, String price,
+                                         Set<DayOfWeek> days) {
+        RideSchedule schedule = new RideSchedule();
+        schedule.setId(id);
+        schedule.setFromLocation(from);
+        schedule.setToLocation(to);
+        schedule.setDepartureTime(LocalTime.parse(time));
+        schedule.setDaysOfWeek(RideSchedule.daysOfWeekMask(days));
+        schedule.setStartDate(DATE.minusWeeks(2));
+        schedule.setEndDate(DATE.plusWeeks(4));
+        schedule.setTotalSeats(4);
+        schedule.setPricePerSeat(new BigDecimal(price));
+        return schedule;
+    }
+
+    private static List<Long> ids(List<RideScheduleIndex.IndexedSchedule> schedules) {
+        return schedules.stream().map(RideScheduleIndex.IndexedSchedule::getScheduleId).toList();
+    }
+}
@@ -0,0 +1,140 @@
+package com.carpool.backend.search;
+
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.event.RideChangedEvent;
+import com.carpool.backend.repository.RideRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RideSearchIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 15);
+
+    private RideSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RideSearchIndex();
+    }
+
+    @Test
+    void matchesSubstringsOfNormalizedRoutesInDepartureOrder() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Pune Station", "Mumbai", "09:00", 3, "300")));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "pune", "Navi  Mumbai", "07:30", 2, "250")));
+        index.onRideChanged(RideChangedEvent.updated(ride(3L, "Nashik", "Mumbai", "08:00", 4, "200")));
+
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, null, null, null))).containsExactly(2L, 1L);
+        assertThat(ids(index.search("pune", "navi mumbai", DATE, 1, null, null, null))).containsExactly(2L);
+        assertThat(ids(index.search("pune", "mumbai", DATE.plusDays(1), 1, null, null, null))).isEmpty();
+    }
+
+    @Test
+    void appliesSeatTimeWindowAndPriceFilters() {
+        index.onRideChanged(RideChangedEvent.updated(ride(1L, "Pune", "Mumbai", "09:00", 1, "300")));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Pune", "Mumbai", "10:30", 3, "500")));
+        index.onRideChanged(RideChangedEvent.updated(ride(3L, "Pune", "Mumbai", "12:00", 3, "200")));
+
+        assertThat(ids(index.search("pune", "mumbai", DATE, 2, null, null, null))).containsExactly(2L, 3L);
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, LocalTime.of(9, 0), LocalTime.of(11, 0), null)))
+                .containsExactly(1L, 2L);
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, null, null, new BigDecimal("300"))))
+                .containsExactly(1L, 3L);
+    }
+
+    @Test
+    void followsSeatChangesEditsAndCancellations() {
+        Ride ride = ride(1L, "Pune", "Mumbai", "09:00", 2, "300");
+        index.onRideChanged(RideChangedEvent.updated(ride));
+
+        ride.setAvailableSeats(0);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search("pune", "mumbai", DATE, 1, null, null, null)).isEmpty();
+
+        ride.setAvailableSeats(2);
+        ride.setToLocation("Lonavala");
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search("pune", "mumbai", DATE, 1, null, null, null)).isEmpty();
+        assertThat(ids(index.search("pune", "lonavala", DATE, 1, null, null, null))).containsExactly(1L);
+
+        ride.setStatus(Ride.RideStatus.CANCELLED);
+        index.onRideChanged(RideChangedEvent.updated(ride));
+        assertThat(index.search("pune", "lonavala", DATE, 1, null, null, null)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void dropsChangesThatArriveAfterALaterOne() {
+        Ride ride = ride(1L, "Pune", "Mumbai", "09:00", 3, "300");
+        RideChangedEvent booked = RideChangedEvent.updated(ride, 2);
+        ride.setStatus(Ride.RideStatus.CANCELLED);
+        RideChangedEvent cancelled = RideChangedEvent.updated(ride);
+
+        index.onRideChanged(cancelled);
+        index.onRideChanged(booked);
+
+        assertThat(index.search("pune", "mumbai", DATE, 1, null, null, null)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void prunesRidesThatHaveDeparted() {
+        Ride departed = ride(1L, "Pune", "Mumbai", "09:00", 3, "300");
+        departed.setDepartureDate(LocalDate.now().minusDays(1));
+        index.onRideChanged(RideChangedEvent.updated(departed));
+        index.onRideChanged(RideChangedEvent.updated(ride(2L, "Pune", "Mumbai", "09:00", 3, "300")));
+
+        index.pruneDepartedRides();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, null, null, null))).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildKeepsChangesCommittedWhileItLoads() {
+        Ride cancelled = ride(1L, "Pune", "Mumbai", "09:00", 2, "300");
+        Ride offered = ride(2L, "Pune", "Mumbai", "10:00", 2, "300");
+        RideRepository rideRepository = mock(RideRepository.class);
+        // The load reads ride 1 as still active, then both changes commit before it finishes
+        when(rideRepository.findActiveRidesDepartingFrom(any())).thenAnswer(invocation -> {
+            List<Ride> stale = List.of(ride(1L, "Pune", "Mumbai", "09:00", 2, "300"));
+            cancelled.setStatus(Ride.RideStatus.CANCELLED);
+            index.onRideChanged(RideChangedEvent.updated(cancelled));
+            index.onRideChanged(RideChangedEvent.updated(offered));
+            return stale;
+        });
+        ReflectionTestUtils.setField(index, "rideRepository", rideRepository);
+
+        index.rebuild();
+
+        assertThat(ids(index.search("pune", "mumbai", DATE, 1, null, null, null))).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static Ride ride(Long id, String from, String to, String time, int seats, String price) {
+        Ride ride = new Ride();
+        ride.setId(id);
+        ride.setFromLocation(from);
+        ride.setToLocation(to);
+        ride.setDepartureDate(DATE);
+        ride.setDepartureTime(LocalTime.parse(time));
+        ride.setTotalSeats(4);
+        ride.setAvailableSeats(seats);
+        ride.setPricePerSeat(new BigDecimal(price));
+        return ride;
+    }
+
+    private static List<Long> ids(List<RideSearchIndex.IndexedRide> rides) {
+        return rides.stream().map(RideSearchIndex.IndexedRide::getRideId).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.dto.response.CursorPage;
+import com.carpool.backend.entity.Conversation;
+import com.carpool.backend.entity.Message;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.unread.InMemoryUnreadCounterStore;
+import com.carpool.backend.unread.UnreadCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageService.class, ReadReceiptBuffer.class, UnreadCounters.class, InMemoryUnreadCounterStore.class})
+class MessageServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MessageService messageService;
+
+    @MockBean
+    private TwilioWhatsAppService twilioWhatsAppService;
+
+    private User driver;
+    private User passenger;
+    private User other;
+
+    @BeforeEach
+    void seed() {
+        driver = entityManager.persist(new User("driver@example.com", "password-hash", "Dee", "Driver", "9700000000"));
+        passenger = entityManager.persist(new User("rider@example.com", "password-hash", "Pat", "Rider", "9700000001"));
+        other = entityManager.persist(new User("other@example.com", "password-hash", "Oli", "Other", "9700000002"));
+        entityManager.flush();
+    }
+
+    @Test
+    void pagesConversationNewestFirstAcrossBothDirections() {
+        List<Long> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(messageService.sendMessage(driver.getId(), passenger.getId(), "To rider " + i, null).getId());
+            sent.add(messageService.sendMessage(passenger.getId(), driver.getId(), "To driver " + i, null).getId());
+            messageService.sendMessage(other.getId(), driver.getId(), "Unrelated " + i, null);
+        }
+        List<Long> newestFirst = sent.reversed();
+
+        CursorPage<Message> first = messageService.getConversation(passenger.getId(), driver.getId(), null, 4);
+        assertThat(first.getContent()).extracting(Message::getId).containsExactlyElementsOf(newestFirst.subList(0, 4));
+        assertThat(first.isHasNext()).isTrue();
+
+        CursorPage<Message> second = messageService.getConversation(driver.getId(), passenger.getId(),
+                Long.valueOf(first.getNextCursor()), 4);
+        assertThat(second.getContent()).extracting(Message::getId).containsExactlyElementsOf(newestFirst.subList(4, 8));
+
+        CursorPage<Message> last = messageService.getConversation(driver.getId(), passenger.getId(),
+                Long.valueOf(second.getNextCursor()), 4);
+        assertThat(last.getContent()).extracting(Message::getId).containsExactlyElementsOf(newestFirst.subList(8, 10));
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void inboxKeepsLatestMessageAndUnreadCountPerPartner() {
+        messageService.sendMessage(passenger.getId(), driver.getId(), "Are you leaving at 9?", null);
+        messageService.sendMessage(other.getId(), driver.getId(), "Seat free?", null);
+        messageService.sendMessage(passenger.getId(), driver.getId(), "I'm at the gate", null);
+        Message reply = messageService.sendMessage(driver.getId(), passenger.getId(), "Coming", null);
+
+        List<Conversation> driverInbox = messageService.getUserConversations(driver.getId(), 0, 10).getContent();
+        assertThat(driverInbox).extracting(c -> c.getPartner().getId()).containsExactly(passenger.getId(), other.getId());
+        assertThat(driverInbox.get(0).getLastMessageId()).isEqualTo(reply.getId());
+        assertThat(driverInbox.get(0).getLastSenderId()).isEqualTo(driver.getId());
+        assertThat(driverInbox).extracting(Conversation::getUnreadCount).containsExactly(2, 1);
+
+        List<Conversation> passengerInbox = messageService.getUserConversations(passenger.getId(), 0, 10).getContent();
+        assertThat(passengerInbox).singleElement().satisfies(c -> {
+            assertThat(c.getLastMessageText()).isEqualTo("Coming");
+            assertThat(c.getUnreadCount()).isEqualTo(1);
+        });
+
+        messageService.markConversationRead(driver.getId(), passenger.getId(), reply.getId());
+        entityManager.clear();
+        assertThat(messageService.getUserConversations(driver.getId(), 0, 10).getContent())
+                .extracting(Conversation::getUnreadCount).containsExactly(0, 1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.entity.Message;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.repository.ConversationRepository;
+import com.carpool.backend.repository.MessageRepository;
+import com.carpool.backend.repository.UserRepository;
+import com.carpool.backend.unread.InMemoryUnreadCounterStore;
+import com.carpool.backend.unread.UnreadCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Receipts are only queued once the marking transaction commits, so this runs
+ * without the test-managed transaction and cleans up after itself.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MessageService.class, ReadReceiptBuffer.class, UnreadCounters.class, InMemoryUnreadCounterStore.class})
+class ReadReceiptBufferTest {
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReadReceiptBuffer readReceiptBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @MockBean
+    private TwilioWhatsAppService twilioWhatsAppService;
+
+    private User driver;
+    private User passenger;
+
+    @BeforeEach
+    void seed() {
+        driver = userRepository.save(new User("driver@example.com", "password-hash", "Dee", "Driver", "9700000000"));
+        passenger = userRepository.save(new User("rider@example.com", "password-hash", "Pat", "Rider", "9700000001"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        conversationRepository.deleteAll();
+        messageRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void repeatedViewsCoalesceIntoOneBoundedUpdate() {
+        Message first = messageService.sendMessage(passenger.getId(), driver.getId(), "Hi", null);
+        Message seen = messageService.sendMessage(passenger.getId(), driver.getId(), "Still there?", null);
+        Message later = messageService.sendMessage(passenger.getId(), driver.getId(), "Hello?", null);
+        assertThat(messageService.getUnreadMessageCount(driver.getId())).isEqualTo(3);
+
+        messageService.markConversationRead(driver.getId(), passenger.getId(), first.getId());
+        messageService.markConversationRead(driver.getId(), passenger.getId(), seen.getId());
+        messageService.markConversationRead(driver.getId(), passenger.getId(), first.getId());
+        assertThat(messageService.getReadWatermark(driver.getId(), passenger.getId())).isEqualTo(seen.getId());
+        assertThat(messageRepository.findById(first.getId()).orElseThrow().getIsRead()).isFalse();
+
+        assertThat(readReceiptBuffer.flush()).isEqualTo(2);
+        assertThat(readReceiptBuffer.flush()).isZero();
+        assertThat(messageRepository.findById(seen.getId()).orElseThrow().getIsRead()).isTrue();
+        assertThat(messageRepository.findById(later.getId()).orElseThrow().getIsRead()).isFalse();
+        assertThat(messageService.getUnreadMessageCount(driver.getId())).isEqualTo(1);
+    }
+}
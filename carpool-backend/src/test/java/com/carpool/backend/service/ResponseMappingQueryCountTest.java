@@ -0,0 +1,122 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Rating;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.search.RideSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts how many SQL statements each list endpoint's service call issues, so
+ * lazy associations touched while mapping responses cannot regress into N+1.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RideService.class, BookingService.class, RatingService.class, RideServiceTestConfig.class})
+class ResponseMappingQueryCountTest {
+
+    private static final int RIDES = 5;
+    private static final LocalDate DATE = LocalDate.now().plusDays(7);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private RideSearchIndex rideSearchIndex;
+
+    private User passenger;
+    private User firstDriver;
+
+    @BeforeEach
+    void seed() {
+        passenger = entityManager.persist(user("passenger@example.com", "9800000000"));
+        for (int i = 0; i < RIDES; i++) {
+            User driver = entityManager.persist(user("driver" + i + "@example.com", "98000000" + (10 + i)));
+            if (firstDriver == null) {
+                firstDriver = driver;
+            }
+            Ride ride = entityManager.persist(ride(driver, LocalTime.of(8 + i, 0)));
+            entityManager.persist(new Booking(ride, passenger, 1, ride.getPricePerSeat()));
+            entityManager.persist(new Rating(5, "Great", driver, passenger, ride));
+        }
+        entityManager.flush();
+        rideSearchIndex.rebuild();
+        entityManager.clear();
+    }
+
+    @Test
+    void searchRidesIssuesSingleSelect() {
+        assertThat(countStatements(() -> rideService.searchRides("pune", "mumbai", DATE, 1, null, null)))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void filterRidesIssuesSingleSelect() {
+        assertThat(countStatements(() -> rideService.filterRides("pune", null, null, null,
+                null, null, null, null, 10))).isEqualTo(1);
+    }
+
+    @Test
+    void myRidesDoesNotLoadDriverPerRide() {
+        assertThat(countStatements(() -> rideService.getDriverRides(firstDriver.getId()))).isEqualTo(2);
+    }
+
+    @Test
+    void passengerAndDriverBookingsIssueSingleSelect() {
+        assertThat(countStatements(() -> bookingService.getPassengerBookings(passenger.getId()))).isEqualTo(1);
+        assertThat(countStatements(() -> bookingService.getDriverBookings(firstDriver.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void userRatingsIssueSingleSelect() {
+        assertThat(countStatements(() -> ratingService.getUserRatings(passenger.getId()))).isEqualTo(1);
+        assertThat(countStatements(() -> ratingService.getRecentUserRatings(passenger.getId(), 3))).isEqualTo(1);
+    }
+
+    private long countStatements(Supplier<?> call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        assertThat(call.get()).isNotNull();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static User user(String email, String phone) {
+        return new User(email, "password-hash", "Test", "User", phone);
+    }
+
+    private static Ride ride(User driver, LocalTime time) {
+        return new Ride(driver, "Pune", "Mumbai", DATE, time, 4, new BigDecimal("250.00"), "Swift", "MH12AB1234");
+    }
+}
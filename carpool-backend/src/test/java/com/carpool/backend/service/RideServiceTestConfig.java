@@ -0,0 +1,22 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.config.CacheConfig;
+import com.carpool.backend.geo.Gazetteer;
+import com.carpool.backend.search.RideSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Everything RideService and its neighbours depend on besides repositories, for
+ * {@code @DataJpaTest}s that import the services themselves: the ride indexes,
+ * the seat inventories and the response caches. A new index or collaborator
+ * is registered here once rather than in every test that uses RideService.
+ */
+@TestConfiguration
+@ComponentScan(basePackageClasses = {RideSearchIndex.class, Gazetteer.class})
+@Import({SeatInventory.class, SegmentSeatInventory.class, ResponseCacheInvalidator.class, CacheConfig.class,
+        SimpleMeterRegistry.class})
+class RideServiceTestConfig {
+}
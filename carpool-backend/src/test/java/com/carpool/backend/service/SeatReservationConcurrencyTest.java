@@ -0,0 +1,248 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.dto.request.BookingCreateRequest;
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.RideStop;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.exception.RideNotAvailableException;
+import com.carpool.backend.repository.BookingRepository;
+import com.carpool.backend.repository.RideRepository;
+import com.carpool.backend.repository.RideStopRepository;
+import com.carpool.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 1000 passengers book the same ride at once; the ride must never be overbooked,
+ * with or without the in-memory seat gate in front of the conditional update,
+ * and every seat must still be sold.
+ * On a multi-stop ride no segment may be overbooked either.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({BookingService.class, SeatInventory.class, SegmentSeatInventory.class, SimpleMeterRegistry.class})
+class SeatReservationConcurrencyTest {
+
+    private static final int BOOKERS = 1000;
+    private static final int SEATS = 7;
+    private static final List<String> STOPS = List.of("Pune", "Lonavala", "Panvel", "Mumbai");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SeatInventory seatInventory;
+
+    @Autowired
+    private SegmentSeatInventory segmentSeatInventory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RideStopRepository rideStopRepository;
+
+    private Ride ride;
+    private List<Long> passengerIds;
+
+    @BeforeEach
+    void seed() {
+        User driver = userRepository.save(new User("driver@example.com", "password-hash", "Test", "Driver", "9700000000"));
+        ride = rideRepository.save(new Ride(driver, "Pune", "Mumbai", LocalDate.now().plusDays(2), LocalTime.NOON,
+                SEATS, new BigDecimal("250.00"), "Swift", "MH12AB1234"));
+        List<User> passengers = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            passengers.add(new User("p" + i + "@example.com", "password-hash", "Test", "Passenger",
+                    String.valueOf(9_600_000_000L + i)));
+        }
+        passengerIds = userRepository.saveAll(passengers).stream().map(User::getId).toList();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        rideStopRepository.deleteAll();
+        rideRepository.deleteAll();
+        userRepository.deleteAll();
+        ReflectionTestUtils.setField(seatInventory, "enabled", true);
+        ReflectionTestUtils.setField(segmentSeatInventory, "enabled", true);
+    }
+
+    @Test
+    void neverOverbooksWithSeatGate() throws Exception {
+        int booked = bookConcurrently();
+
+        assertThat(booked).isEqualTo(SEATS);
+        assertSeatsAddUp();
+    }
+
+    @Test
+    void neverOverbooksWithConditionalUpdateAlone() throws Exception {
+        ReflectionTestUtils.setField(seatInventory, "enabled", false);
+
+        int booked = bookConcurrently();
+
+        assertThat(booked).isEqualTo(SEATS);
+        assertSeatsAddUp();
+    }
+
+    @Test
+    void sellsSeatsReturnedAfterABookerReadTheRide() throws Exception {
+        bookConcurrently();
+        // A booker reads the sold-out ride, then a passenger cancels before it reaches the gate
+        long readAt = System.nanoTime();
+        Booking cancelled = bookingRepository.findAll().get(0);
+        bookingService.cancelBooking(cancelled.getId(), cancelled.getPassenger().getId());
+
+        assertThat(seatInventory.tryReserve(ride.getId(), 1, 0, readAt)).isTrue();
+
+        BookingCreateRequest request = new BookingCreateRequest();
+        request.setSeatsRequested(1);
+        bookingService.createBooking(ride.getId(), request, cancelled.getPassenger().getId());
+
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId())).isZero();
+    }
+
+    @Test
+    void neverOverbooksASegmentWithSegmentGate() throws Exception {
+        addStops();
+
+        bookConcurrently();
+
+        assertSegmentsAddUp();
+    }
+
+    @Test
+    void neverOverbooksASegmentWithConditionalUpdateAlone() throws Exception {
+        addStops();
+        ReflectionTestUtils.setField(segmentSeatInventory, "enabled", false);
+
+        bookConcurrently();
+
+        assertSegmentsAddUp();
+    }
+
+    @Test
+    void cancellingReturnsSeatsOnTheBookedSegmentsOnly() {
+        addStops();
+        BookingCreateRequest request = new BookingCreateRequest();
+        request.setSeatsRequested(SEATS);
+        request.setFromStop(1);
+        request.setToStop(2);
+        Long bookingId = bookingService.createBooking(ride.getId(), request, passengerIds.get(0)).getId();
+
+        assertThat(rideStopRepository.findSegmentBookedSeats(ride.getId())).containsExactly(0, SEATS, 0);
+        // Lonavala to Panvel is full, but the segments either side of it are not
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId())).isEqualTo(SEATS);
+
+        bookingService.cancelBooking(bookingId, passengerIds.get(0));
+
+        assertThat(rideStopRepository.findSegmentBookedSeats(ride.getId())).containsExactly(0, 0, 0);
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId())).isEqualTo(SEATS);
+    }
+
+    private void addStops() {
+        for (int i = 0; i < STOPS.size(); i++) {
+            RideStop stop = new RideStop(ride, i, STOPS.get(i));
+            stop.setBookedSeats(i < STOPS.size() - 1 ? 0 : null);
+            ride.getStops().add(stop);
+        }
+        ride.setMultiStop(true);
+        ride = rideRepository.save(ride);
+    }
+
+    private int bookConcurrently() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int segments = STOPS.size() - 1;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < passengerIds.size(); i++) {
+                Long passengerId = passengerIds.get(i);
+                // Every range of segments in turn; ignored by rides without stops
+                int fromStop = i % segments;
+                int toStop = fromStop + 1 + (i / segments) % (segments - fromStop);
+                executor.submit(() -> {
+                    BookingCreateRequest request = new BookingCreateRequest();
+                    request.setSeatsRequested(1);
+                    if (ride.isMultiStop()) {
+                        request.setFromStop(fromStop);
+                        request.setToStop(toStop);
+                    }
+                    try {
+                        start.await();
+                        bookingService.createBooking(ride.getId(), request, passengerId);
+                        booked.incrementAndGet();
+                    } catch (RideNotAvailableException e) {
+                        // sold out
+                    } catch (Exception e) {
+                        unexpected.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(unexpected).hasValue(0);
+        return booked.get();
+    }
+
+    private void assertSeatsAddUp() {
+        int availableSeats = rideRepository.findAvailableSeatsById(ride.getId());
+        long bookedSeats = bookingRepository.findAll().stream().mapToInt(b -> b.getSeatsBooked()).sum();
+
+        assertThat(availableSeats).isGreaterThanOrEqualTo(0);
+        assertThat(bookedSeats).isLessThanOrEqualTo(SEATS);
+        assertThat(bookedSeats + availableSeats).isEqualTo(SEATS);
+    }
+
+    private void assertSegmentsAddUp() {
+        List<Integer> segmentSeats = rideStopRepository.findSegmentBookedSeats(ride.getId());
+        List<Booking> bookings = bookingRepository.findAll();
+
+        for (int segment = 0; segment < segmentSeats.size(); segment++) {
+            int onSegment = segment;
+            int bookedSeats = bookings.stream()
+                    .filter(b -> b.getFromStop() <= onSegment && onSegment < b.getToStop())
+                    .mapToInt(Booking::getSeatsBooked).sum();
+            assertThat(bookedSeats).as("segment " + segment).isEqualTo(segmentSeats.get(segment));
+            assertThat(bookedSeats).as("segment " + segment).isLessThanOrEqualTo(SEATS);
+        }
+        // Seats freed at a stop are sold again, so more passengers ride than there are seats
+        assertThat(bookings.stream().mapToInt(Booking::getSeatsBooked).sum()).isGreaterThan(SEATS);
+        assertThat(rideRepository.findAvailableSeatsById(ride.getId()))
+                .isEqualTo(SEATS - segmentSeats.stream().mapToInt(Integer::intValue).min().orElseThrow());
+    }
+}
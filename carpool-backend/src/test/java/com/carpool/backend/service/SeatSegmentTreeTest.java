@@ -0,0 +1,51 @@
+package com.carpool.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SeatSegmentTreeTest {
+
+    @Test
+    void matchesPlainArrayUnderRandomUpdates() {
+        Random random = new Random(42);
+        for (int segments = 1; segments <= 9; segments++) {
+            int[] expected = new int[segments];
+            List<Integer> seed = new ArrayList<>();
+            for (int i = 0; i < segments; i++) {
+                expected[i] = random.nextInt(4);
+                seed.add(expected[i]);
+            }
+            SeatSegmentTree tree = new SeatSegmentTree(seed);
+
+            for (int step = 0; step < 500; step++) {
+                int from = random.nextInt(segments);
+                int to = from + 1 + random.nextInt(segments - from);
+                if (random.nextBoolean()) {
+                    int seats = random.nextInt(7) - 3;
+                    tree.add(from, to, seats);
+                    for (int i = from; i < to; i++) {
+                        expected[i] += seats;
+                    }
+                } else {
+                    int most = Arrays.stream(expected, from, to).max().orElseThrow();
+                    assertThat(tree.maxBooked(from, to)).as("[%d, %d) of %d", from, to, segments).isEqualTo(most);
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsEmptyOrOutOfRangeSegments() {
+        SeatSegmentTree tree = new SeatSegmentTree(List.of(0, 0, 0));
+
+        assertThatThrownBy(() -> tree.maxBooked(1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tree.add(2, 4, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package com.carpool.backend.service;
+
+import com.carpool.backend.dto.request.RatingRequest;
+import com.carpool.backend.entity.Booking;
+import com.carpool.backend.entity.Ride;
+import com.carpool.backend.entity.User;
+import com.carpool.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the incrementally maintained rating and ride counters against what
+ * the reconciliation job recomputes from source rows.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RatingService.class, RideService.class, UserStatsReconciler.class, RideServiceTestConfig.class})
+class UserStatsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private UserStatsReconciler reconciler;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User driver;
+    private User firstPassenger;
+    private User secondPassenger;
+    private Ride ride;
+
+    @BeforeEach
+    void seed() {
+        driver = entityManager.persist(new User("driver@example.com", "password-hash", "Dee", "Driver", "9700000000"));
+        firstPassenger = entityManager.persist(new User("p1@example.com", "password-hash", "Pat", "One", "9700000001"));
+        secondPassenger = entityManager.persist(new User("p2@example.com", "password-hash", "Pat", "Two", "9700000002"));
+        ride = entityManager.persist(new Ride(driver, "Pune", "Mumbai", LocalDate.now().minusDays(1),
+                LocalTime.of(9, 0), 4, new BigDecimal("250.00"), "Swift", "MH12AB1234"));
+        Booking confirmed = new Booking(ride, firstPassenger, 1, ride.getPricePerSeat());
+        confirmed.setStatus(Booking.BookingStatus.CONFIRMED);
+        entityManager.persist(confirmed);
+        Booking cancelled = new Booking(ride, secondPassenger, 1, ride.getPricePerSeat());
+        cancelled.setStatus(Booking.BookingStatus.CANCELLED);
+        entityManager.persist(cancelled);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ratingsUpdateRunningAverage() {
+        ratingService.createRating(new RatingRequest(5, "Great", ride.getId(), driver.getId()), firstPassenger.getId());
+        ratingService.createRating(new RatingRequest(4, "Good", ride.getId(), driver.getId()), secondPassenger.getId());
+
+        User rated = reload(driver);
+        assertThat(rated.getRatingSum()).isEqualTo(9L);
+        assertThat(rated.getRatingCount()).isEqualTo(2);
+        assertThat(rated.getRating()).isEqualByComparingTo("4.5");
+    }
+
+    @Test
+    void completingRideCountsDriverAndConfirmedPassengers() {
+        rideService.updateRideStatus(ride.getId(), "COMPLETED", driver.getId());
+
+        assertThat(reload(driver).getTotalRides()).isEqualTo(1);
+        assertThat(reload(firstPassenger).getTotalRides()).isEqualTo(1);
+        assertThat(reload(secondPassenger).getTotalRides()).isZero();
+    }
+
+    @Test
+    void reconcileRepairsDriftedAggregates() {
+        ratingService.createRating(new RatingRequest(3, "Okay", ride.getId(), driver.getId()), firstPassenger.getId());
+        rideService.updateRideStatus(ride.getId(), "COMPLETED", driver.getId());
+        entityManager.clear();
+
+        User drifted = userRepository.findById(driver.getId()).orElseThrow();
+        drifted.setRating(new BigDecimal("1.0"));
+        drifted.setRatingSum(42L);
+        drifted.setRatingCount(7);
+        drifted.setTotalRides(9);
+        entityManager.flush();
+
+        assertThat(reconciler.reconcile()).isEqualTo(3);
+
+        User repaired = reload(driver);
+        assertThat(repaired.getRatingSum()).isEqualTo(3L);
+        assertThat(repaired.getRatingCount()).isEqualTo(1);
+        assertThat(repaired.getRating()).isEqualByComparingTo("3.0");
+        assertThat(repaired.getTotalRides()).isEqualTo(1);
+        assertThat(reload(firstPassenger).getTotalRides()).isEqualTo(1);
+    }
+
+    private User reload(User user) {
+        entityManager.flush();
+        entityManager.clear();
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,76 @@
+package com.carpool.backend.unread;
+
+import com.carpool.backend.event.MessageSentEvent;
+import com.carpool.backend.unread.UnreadCounterStore.Kind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UnreadCountersTest {
+
+    private static final Long USER_ID = 7L;
+
+    private InMemoryUnreadCounterStore store;
+    private UnreadCounters counters;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryUnreadCounterStore();
+        ReflectionTestUtils.setField(store, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(store, "maxSize", 100);
+        counters = new UnreadCounters();
+        ReflectionTestUtils.setField(counters, "store", store);
+    }
+
+    @Test
+    void seedsOnceThenFollowsSentAndReadMessages() {
+        assertThat(count()).isEqualTo(3);
+
+        counters.onMessageSent(messageTo(USER_ID));
+        counters.onMessageSent(messageTo(USER_ID));
+        counters.onMessageSent(messageTo(99L));
+        assertThat(count()).isEqualTo(5);
+
+        counters.markedRead(Kind.MESSAGES, USER_ID, 4);
+        assertThat(count()).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void neverGoesNegativeAndIgnoresUnseededUsers() {
+        counters.onMessageSent(messageTo(USER_ID));
+        assertThat(count()).isEqualTo(3);
+
+        counters.markedRead(Kind.MESSAGES, USER_ID, 10);
+        assertThat(count()).isZero();
+        assertThat(store.get(Kind.NOTIFICATIONS, USER_ID, () -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    void reseedsAfterTtl() {
+        ReflectionTestUtils.setField(store, "ttlMillis", 0L);
+        count();
+        count();
+        assertThat(loads).hasValue(2);
+    }
+
+    private long count() {
+        return counters.get(Kind.MESSAGES, USER_ID, () -> {
+            loads.incrementAndGet();
+            return 3;
+        });
+    }
+
+    private static MessageSentEvent messageTo(Long receiverId) {
+        MessageSentEvent event = mock(MessageSentEvent.class);
+        when(event.getReceiverId()).thenReturn(receiverId);
+        return event;
+    }
+}
@@ -0,0 +1,146 @@
+package com.carpool.backend.whatsapp;
+
+import com.carpool.backend.entity.WhatsAppOutboxMessage;
+import com.carpool.backend.repository.WhatsAppOutboxRepository;
+import com.carpool.backend.service.TwilioWhatsAppService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"whatsapp.outbox.initial-backoff-ms=0", "whatsapp.outbox.max-attempts=2"})
+@Import({WhatsAppOutboxDispatcher.class, TwilioWhatsAppService.class, WhatsAppOutboxDispatcherTest.SenderConfig.class,
+        SimpleMeterRegistry.class})
+class WhatsAppOutboxDispatcherTest {
+
+    @Autowired
+    private WhatsAppOutboxDispatcher dispatcher;
+
+    @Autowired
+    private TwilioWhatsAppService whatsAppService;
+
+    @Autowired
+    private WhatsAppOutboxRepository outboxRepository;
+
+    @Autowired
+    private RecordingSender sender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+        sender.reset();
+    }
+
+    @Test
+    void retriesFailedSendsWithoutOvertakingEarlierMessagesToTheSameRecipient() {
+        sender.failOnce("first");
+        whatsAppService.sendWhatsAppMessage("9800000001", "first");
+        whatsAppService.sendWhatsAppMessage("9800000001", "second");
+        whatsAppService.sendWhatsAppMessage("9800000002", "other");
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(2);
+        assertThat(sender.delivered).containsExactly("other");
+
+        dispatcher.dispatchBatch();
+        dispatcher.dispatchBatch();
+        assertThat(sender.delivered).containsExactly("other", "first", "second");
+        assertThat(outboxRepository.countByStatus(WhatsAppOutboxMessage.Status.SENT)).isEqualTo(3);
+        assertThat(outboxRepository.findAll())
+                .extracting(WhatsAppOutboxMessage::getRecipient)
+                .containsOnly("+919800000001", "+919800000002");
+    }
+
+    @Test
+    void stopsRetryingAfterMaxAttemptsAndReleasesTheRecipient() {
+        sender.failAlways("broken");
+        double retries = meterRegistry.get("whatsapp.outbox.retries").counter().count();
+        double failed = meterRegistry.get("whatsapp.outbox.failed").counter().count();
+        whatsAppService.sendWhatsAppMessage("9800000001", "broken");
+        whatsAppService.sendWhatsAppMessage("9800000001", "next");
+
+        dispatcher.dispatchBatch();
+        dispatcher.dispatchBatch();
+        dispatcher.dispatchBatch();
+
+        assertThat(sender.delivered).containsExactly("next");
+        assertThat(outboxRepository.countByStatus(WhatsAppOutboxMessage.Status.FAILED)).isEqualTo(1);
+        assertThat(meterRegistry.get("whatsapp.outbox.retries").counter().count()).isEqualTo(retries + 1);
+        assertThat(meterRegistry.get("whatsapp.outbox.failed").counter().count()).isEqualTo(failed + 1);
+        assertThat(meterRegistry.get("whatsapp.send").tag("outcome", "failure").timer().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void queuesNothingForAMessageThatCannotBeSent() {
+        assertThat(whatsAppService.sendWhatsAppMessage(null, "no phone")).isFalse();
+        assertThat(whatsAppService.sendWhatsAppMessage("98000000019800000001", "too long")).isFalse();
+        assertThat(whatsAppService.sendWhatsAppMessage("9800000001", " ")).isFalse();
+
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    static class RecordingSender implements WhatsAppSender {
+        private final List<String> delivered = new CopyOnWriteArrayList<>();
+        private final Set<String> failOnce = ConcurrentHashMap.newKeySet();
+        private final Set<String> failAlways = ConcurrentHashMap.newKeySet();
+
+        void failOnce(String body) {
+            failOnce.add(body);
+        }
+
+        void failAlways(String body) {
+            failAlways.add(body);
+        }
+
+        void reset() {
+            delivered.clear();
+            failOnce.clear();
+            failAlways.clear();
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public String send(String toPhoneNumber, String messageBody) {
+            if (failAlways.contains(messageBody) || failOnce.remove(messageBody)) {
+                throw new IllegalStateException("provider unavailable");
+            }
+            delivered.add(messageBody);
+            return "SM" + delivered.size();
+        }
+    }
+
+    @TestConfiguration
+    static class SenderConfig {
+        @Bean
+        RecordingSender recordingSender() {
+            return new RecordingSender();
+        }
+    }
+}
@@ -289,9 +289,23 @@ class ApiService {
     });
   }
 
-  async filterRides(filterParams) {
-    const queryString = new URLSearchParams(filterParams).toString();
-    return this.apiCall(`/rides/filter?${queryString}`);
+  // Pages by cursor: pass the nextCursor of one page to get the next. data is the page's rides,
+  // and hasNext says whether there are more.
+  async filterRides(filterParams, cursor) {
+    const params = new URLSearchParams(filterParams);
+    if (cursor) {
+      params.append('cursor', cursor);
+    }
+    const result = await this.apiCall(`/rides/filter?${params.toString()}`);
+    if (!result.success || !result.data) {
+      return result;
+    }
+    return {
+      ...result,
+      data: result.data.content,
+      nextCursor: result.data.nextCursor,
+      hasNext: result.data.hasNext,
+    };
   }
 
   async getFromLocations() {
@@ -302,6 +316,14 @@ class ApiService {
     return this.apiCall('/rides/locations/to');
   }
 
+  async suggestLocations(query, type, limit = 10) {
+    const params = new URLSearchParams({ q: query, limit });
+    if (type) {
+      params.append('type', type);
+    }
+    return this.apiCall(`/rides/locations/suggest?${params.toString()}`);
+  }
+
   // Booking APIs
   async bookRide(rideId, bookingData) {
     return this.apiCall(`/rides/${rideId}/book`, {